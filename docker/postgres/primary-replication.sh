@@ -0,0 +1,4 @@
+#!/bin/bash
+# Executado só na criação do volume: libera conexões de replicação para a réplica (profile "replica")
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
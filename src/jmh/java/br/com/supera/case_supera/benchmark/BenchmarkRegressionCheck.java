@@ -0,0 +1,95 @@
+package br.com.supera.case_supera.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara o resultado JSON do JMH com um resultado de referência (baseline).
+ *
+ * Uso: BenchmarkRegressionCheck &lt;resultado.json&gt; &lt;baseline.json&gt; &lt;limite&gt;
+ *
+ * Benchmarks são identificados pelo nome e parâmetros. Em modos de tempo
+ * (avgt, sample, ss) um score maior é pior; em throughput (thrpt) um score
+ * menor é pior. Se a piora de algum benchmark passar do limite (ex.: 0.10 =
+ * 10%) o processo termina com código 1. Sem baseline a checagem é ignorada.
+ */
+public final class BenchmarkRegressionCheck {
+
+    private BenchmarkRegressionCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Uso: BenchmarkRegressionCheck <resultado.json> <baseline.json> <limite>");
+            System.exit(2);
+        }
+
+        File baselineFile = new File(args[1]);
+        if (!baselineFile.isFile()) {
+            System.out.println("Baseline não encontrado em " + baselineFile + ", checagem de regressão ignorada");
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Score> current = read(objectMapper.readTree(new File(args[0])));
+        Map<String, Score> baseline = read(objectMapper.readTree(baselineFile));
+        double threshold = Double.parseDouble(args[2]);
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s novo (%.3f %s)%n", entry.getKey(), entry.getValue().value(), entry.getValue().unit());
+                continue;
+            }
+
+            double change = entry.getValue().worseningComparedTo(before);
+            System.out.printf("%-90s %+.1f%%%n", entry.getKey(), change * 100);
+            if (change > threshold) {
+                regressions.add(String.format("%s: %.3f -> %.3f %s (%+.1f%%)", entry.getKey(),
+                        before.value(), entry.getValue().value(), entry.getValue().unit(), change * 100));
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.printf("Regressões acima de %.0f%%:%n", threshold * 100);
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("Nenhuma regressão acima do limite de " + Math.round(threshold * 100) + "%");
+    }
+
+    private static Map<String, Score> read(JsonNode results) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            JsonNode metric = result.path("primaryMetric");
+            scores.put(key.toString(), new Score(result.path("mode").asText(),
+                    metric.path("score").asDouble(), metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private record Score(String mode, double value, String unit) {
+
+        /**
+         * Variação relativa em relação ao baseline; positivo significa piora.
+         */
+        double worseningComparedTo(Score baseline) {
+            if (baseline.value() == 0) {
+                return 0;
+            }
+            double change = (value - baseline.value()) / baseline.value();
+            return "thrpt".equals(mode) ? -change : change;
+        }
+    }
+}
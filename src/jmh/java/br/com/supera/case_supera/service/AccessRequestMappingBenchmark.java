@@ -0,0 +1,100 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.AccessRequestResponseDTO;
+import br.com.supera.case_supera.entity.AccessHistory;
+import br.com.supera.case_supera.entity.AccessRequest;
+import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.HistoryReason;
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem da resposta de GET /api/requests: mapeamento entidade -> DTO,
+ * serialização da página com o ObjectMapper configurado como no Spring MVC
+ * e geração de protocolo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccessRequestMappingBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<AccessRequest> requests;
+    private Page<AccessRequestResponseDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User user = User.builder().id(1L).email("financeiro@supera.com").name("Maria Santos")
+                .department(Department.FINANCEIRO).build();
+        Module portal = Module.builder().id(1L).name("Portal do Colaborador").build();
+        Module relatorios = Module.builder().id(2L).name("Relatórios Gerenciais").build();
+
+        requests = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < pageSize; i++) {
+            AccessRequest request = AccessRequest.builder()
+                    .id((long) i)
+                    .protocol(String.format("SOL-20240101-%04d", i))
+                    .user(user)
+                    .requestedModules(Set.of(portal, relatorios))
+                    .justification("Preciso deste módulo para acompanhar os indicadores do departamento")
+                    .urgent(i % 5 == 0)
+                    .status(RequestStatus.ATIVO)
+                    .requestDate(now.minusDays(i))
+                    .expirationDate(now.plusDays(180 - i))
+                    .build();
+            request.getHistory().add(AccessHistory.builder()
+                    .accessRequest(request)
+                    .previousStatus(RequestStatus.ATIVO)
+                    .newStatus(RequestStatus.ATIVO)
+                    .changeDate(now.minusDays(i))
+                    .reasonCode(HistoryReason.AUTO_APPROVED)
+                    .build());
+            requests.add(request);
+        }
+
+        page = new PageImpl<>(requests.stream().map(AccessRequestMapper::toDTO).toList(),
+                PageRequest.of(0, pageSize), 1000);
+    }
+
+    @Benchmark
+    public List<AccessRequestResponseDTO> toDTO() {
+        return requests.stream().map(AccessRequestMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public String serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(page);
+    }
+
+    @Benchmark
+    public String generateProtocol() {
+        return AccessRequestMapper.protocol(LocalDateTime.now(), 1235);
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.DenialRule;
+import br.com.supera.case_supera.entity.Module;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regras avaliadas em toda criação e renovação de solicitação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccessRulesBenchmark {
+
+    private Module aprovadorFinanceiro;
+    private Module solicitanteFinanceiro;
+    private Module gestaoFinanceira;
+    private List<Module> activeModules;
+    private List<Module> requestedModules;
+
+    @Setup
+    public void setUp() {
+        aprovadorFinanceiro = module(1L, "Aprovador Financeiro", Set.of(Department.FINANCEIRO));
+        solicitanteFinanceiro = module(2L, "Solicitante Financeiro", Set.of(Department.FINANCEIRO));
+        gestaoFinanceira = module(3L, "Gestão Financeira", Set.of(Department.FINANCEIRO));
+
+        activeModules = new ArrayList<>();
+        activeModules.add(module(4L, "Portal do Colaborador", Set.of()));
+        activeModules.add(module(5L, "Relatórios Gerenciais", Set.of()));
+        activeModules.add(solicitanteFinanceiro);
+        requestedModules = List.of(gestaoFinanceira, aprovadorFinanceiro);
+    }
+
+    private static Module module(Long id, String name, Set<Department> departments) {
+        return Module.builder()
+                .id(id)
+                .name(name)
+                .active(true)
+                .allowedDepartments(new HashSet<>(departments))
+                .incompatibleModules(new HashSet<>())
+                .build();
+    }
+
+    @Benchmark
+    public boolean areIncompatible() {
+        return AccessRules.areIncompatible(aprovadorFinanceiro, solicitanteFinanceiro);
+    }
+
+    @Benchmark
+    public boolean areCompatible() {
+        // Pior caso: percorre todas as regras por nome e as tabelas de incompatibilidade
+        return AccessRules.areIncompatible(gestaoFinanceira, aprovadorFinanceiro);
+    }
+
+    @Benchmark
+    public boolean isDepartmentAllowed() {
+        return AccessRules.isDepartmentAllowed(Department.RH, gestaoFinanceira);
+    }
+
+    @Benchmark
+    public boolean isGenericJustification() {
+        return AccessRules.isGenericJustification("Preciso deste módulo para aprovar os pagamentos do trimestre");
+    }
+
+    @Benchmark
+    public Optional<DenialRule> evaluate() {
+        return AccessRules.evaluate(Department.FINANCEIRO, requestedModules, activeModules, activeModules.size());
+    }
+
+    @Benchmark
+    public List<DenialRule> allViolations() {
+        // Simulação (POST /api/requests/evaluate): todas as regras, sem parar na primeira
+        return AccessRules.allViolations(Department.RH, requestedModules, activeModules, activeModules.size());
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.supera.case_supera.config;
+
+import br.com.supera.case_supera.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Controle de admissão da criação (POST /api/requests) e da renovação
+ * (POST /api/requests/{id}/renew) de solicitações. Quando o banco fica lento, em vez de cada thread do
+ * Tomcat esperar por uma conexão do Hikari, as requisições acima do limite
+ * adaptativo são recusadas na hora com 503 e Retry-After, preservando as
+ * leituras e o health check. As demais escritas ficam de fora: o lote e o
+ * cancelamento em lote são sempre lentos e reduziriam o limite usado pela
+ * criação e pela renovação.
+ *
+ * Roda antes do Spring Security para que requisições recusadas não façam a
+ * consulta de usuário da autenticação JWT.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String CREATE_PATH = "/api/requests";
+    private static final Pattern RENEW_PATH = Pattern.compile("/api/requests/\\d+/renew");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+
+    public AdmissionControlFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${access-requests.admission.enabled:true}") boolean enabled,
+            @Value("${access-requests.admission.initial-limit:20}") int initialLimit,
+            @Value("${access-requests.admission.min-limit:4}") int minLimit,
+            @Value("${access-requests.admission.max-limit:100}") int maxLimit,
+            @Value("${access-requests.admission.latency-threshold:PT0.5S}") Duration latencyThreshold,
+            @Value("${access-requests.admission.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${access-requests.admission.retry-after:PT1S}") Duration retryAfter) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+
+        Gauge.builder("access_requests.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Limite atual de requisições de escrita simultâneas")
+                .register(meterRegistry);
+        Gauge.builder("access_requests.admission.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requisições de escrita em andamento")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("access_requests.admission.rejected")
+                .description("Requisições de escrita recusadas com 503 por excesso de carga")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || !"POST".equals(request.getMethod())
+                || !(path.equals(CREATE_PATH) || RENEW_PATH.matcher(path).matches());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            rejected.increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.builder()
+                .message("Servidor sobrecarregado. Tente novamente em instantes.")
+                .build());
+    }
+}
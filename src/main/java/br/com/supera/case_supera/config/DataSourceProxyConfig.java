@@ -0,0 +1,80 @@
+package br.com.supera.case_supera.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import net.ttddyy.observation.tracing.DataSourceObservationListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    /**
+     * Envolve cada pool Hikari num proxy que repassa cada comando ao
+     * {@link SqlStatementCounter} e gera spans de conexão e de cada comando
+     * (datasource-micrometer). O pool continua acessível via unwrap(), então as
+     * métricas do Hikari não mudam.
+     *
+     * Com {@code database.concurrency-gate.enabled} (padrão: ligado junto com as
+     * threads virtuais), o pool fica atrás de um {@link DatabaseConcurrencyGate}
+     * com uma permissão por conexão do Hikari.
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry,
+                                                                      Environment environment) {
+        boolean gateEnabled = environment.getProperty("database.concurrency-gate.enabled", Boolean.class, false);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Só os pools: o roteamento primário/réplica (ReadReplicaConfig) fica por fora, sem contar duas vezes
+                if (bean instanceof HikariDataSource hikari) {
+                    DataSource dataSource = hikari;
+                    if (gateEnabled) {
+                        dataSource = new DatabaseConcurrencyGate(hikari, hikari.getMaximumPoolSize(),
+                                Duration.ofMillis(hikari.getConnectionTimeout()));
+                    }
+                    DataSourceObservationListener observationListener = new DataSourceObservationListener(
+                            () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatementCounter())
+                            .listener(observationListener)
+                            .methodListener(observationListener)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseConcurrencyGateMetrics(DataSource dataSource) {
+        return registry -> {
+            DatabaseConcurrencyGate gate;
+            try {
+                if (!dataSource.isWrapperFor(DatabaseConcurrencyGate.class)) {
+                    return;
+                }
+                gate = dataSource.unwrap(DatabaseConcurrencyGate.class);
+            } catch (SQLException ex) {
+                return;
+            }
+            Gauge.builder("database.gate.permits.available", gate, DatabaseConcurrencyGate::getAvailablePermits)
+                    .description("Conexões que ainda podem ser emprestadas sem espera")
+                    .register(registry);
+            Gauge.builder("database.gate.waiting", gate, DatabaseConcurrencyGate::getWaiting)
+                    .description("Threads aguardando vaga para obter conexão")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,397 @@
+package br.com.supera.case_supera.config;
+
+import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.DenialRule;
+import br.com.supera.case_supera.entity.HistoryReason;
+import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.service.RequestSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Gera uma massa de dados sintética para testes de desempenho (profile "dataset").
+ *
+ * Usuários, solicitações, módulos solicitados, histórico e acessos concedidos
+ * são inseridos com batches JDBC e ids explícitos, em transações de até
+ * dataset.batch-size usuários, sem passar pelo Hibernate. A geração é
+ * determinística a partir de dataset.seed e a memória usada não depende do
+ * número de usuários. Ao final as sequências de id são ajustadas para que a
+ * aplicação continue inserindo normalmente e o modelo de leitura request_summary
+ * é reconstruído.
+ */
+@Component
+@Profile("dataset")
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    static final String EMAIL_DOMAIN = "dataset.supera.com";
+
+    private static final String[] TABLES = {"users", "modules", "access_requests", "access_history", "user_modules"};
+
+    private static final String[] JUSTIFICATIONS = {
+            "Preciso deste módulo para executar as atividades diárias da minha função",
+            "Acesso necessário para acompanhar os indicadores do departamento",
+            "Assumi novas responsabilidades na equipe e preciso consultar estes dados",
+            "Necessário para aprovar e conferir os lançamentos do fechamento mensal",
+            "Vou apoiar o projeto de integração entre as áreas nos próximos meses",
+            "Substituição temporária de colega em férias durante o próximo período"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final RequestSummaryService requestSummaryService;
+
+    @Value("${dataset.users:10000}")
+    private int userCount = 10000;
+
+    @Value("${dataset.extra-modules:0}")
+    private int extraModules;
+
+    @Value("${dataset.requests-per-user:3}")
+    private double requestsPerUser = 3;
+
+    @Value("${dataset.history-days:365}")
+    private int historyDays = 365;
+
+    @Value("${dataset.seed:42}")
+    private long seed = 42;
+
+    @Value("${dataset.batch-size:1000}")
+    private int batchSize = 1000;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+                            PlatformTransactionManager transactionManager,
+                            RequestSummaryService requestSummaryService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requestSummaryService = requestSummaryService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE ?", Long.class, "%@" + EMAIL_DOMAIN);
+        if (existing != null && existing > 0) {
+            log.info("Massa sintética já carregada ({} usuários), geração ignorada", existing);
+            return;
+        }
+
+        long start = System.nanoTime();
+        Random random = new Random(seed);
+        // Datas relativas a um instante truncado, para que a mesma seed gere a mesma distribuição
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+
+        Ids ids = new Ids(
+                nextId("users"), nextId("modules"), nextId("access_requests"),
+                nextId("access_history"), nextId("user_modules"));
+
+        generateModules(random, ids);
+        Map<Department, List<Long>> modulesByDepartment = loadModulesByDepartment();
+        Map<Long, Set<Long>> incompatibilities = loadIncompatibilities();
+
+        // Todos os usuários sintéticos compartilham a senha "senha123": um único hash BCrypt
+        String passwordHash = passwordEncoder.encode("senha123");
+
+        Batch batch = new Batch();
+        for (int i = 0; i < userCount; i++) {
+            generateUser(i, random, now, passwordHash, modulesByDepartment, incompatibilities, ids, batch);
+            if (batch.users.size() >= batchSize) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+        resetSequences();
+        // As linhas foram inseridas sem passar pelo serviço: o modelo de leitura é reconstruído no final
+        requestSummaryService.rebuild();
+
+        log.info("Massa sintética gerada em {}s: {} usuários, {} solicitações, {} históricos, {} acessos (seed {})",
+                Duration.ofNanos(System.nanoTime() - start).toSeconds(), userCount,
+                batch.totalRequests, batch.totalHistory, batch.totalGrants, seed);
+    }
+
+    private void generateModules(Random random, Ids ids) {
+        if (extraModules <= 0) {
+            return;
+        }
+
+        Department[] departments = Department.values();
+        List<Object[]> modules = new ArrayList<>();
+        List<Object[]> allowedDepartments = new ArrayList<>();
+        for (int i = 0; i < extraModules; i++) {
+            long id = ids.module++;
+            modules.add(new Object[]{id, "Módulo Sintético " + id, "Módulo gerado para testes de desempenho", true});
+            // TI sempre tem acesso; cada outro departamento com 40% de chance
+            allowedDepartments.add(new Object[]{id, Department.TI.name()});
+            for (Department department : departments) {
+                if (department != Department.TI && random.nextDouble() < 0.4) {
+                    allowedDepartments.add(new Object[]{id, department.name()});
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT INTO modules (id, name, description, active) VALUES (?, ?, ?, ?)", modules);
+            jdbcTemplate.batchUpdate("INSERT INTO module_allowed_departments (module_id, department) VALUES (?, ?)",
+                    allowedDepartments);
+        });
+    }
+
+    private Map<Department, List<Long>> loadModulesByDepartment() {
+        Map<Department, List<Long>> modulesByDepartment = new EnumMap<>(Department.class);
+        for (Department department : Department.values()) {
+            modulesByDepartment.put(department, new ArrayList<>());
+        }
+        // Mesma regra de AccessRules.isDepartmentAllowed: TI acessa todos os módulos ativos
+        jdbcTemplate.query(
+                "SELECT m.id, d.department FROM modules m " +
+                "LEFT JOIN module_allowed_departments d ON d.module_id = m.id " +
+                "WHERE m.active = true ORDER BY m.id, d.department",
+                rs -> {
+                    long moduleId = rs.getLong(1);
+                    String department = rs.getString(2);
+                    List<Long> ti = modulesByDepartment.get(Department.TI);
+                    if (ti.isEmpty() || ti.get(ti.size() - 1) != moduleId) {
+                        ti.add(moduleId);
+                    }
+                    if (department != null && !Department.TI.name().equals(department)) {
+                        modulesByDepartment.get(Department.valueOf(department)).add(moduleId);
+                    }
+                });
+        return modulesByDepartment;
+    }
+
+    private Map<Long, Set<Long>> loadIncompatibilities() {
+        Map<Long, Set<Long>> incompatibilities = new HashMap<>();
+        jdbcTemplate.query("SELECT module_id, incompatible_module_id FROM module_incompatibilities", rs -> {
+            incompatibilities.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getLong(2));
+            incompatibilities.computeIfAbsent(rs.getLong(2), id -> new HashSet<>()).add(rs.getLong(1));
+        });
+        return incompatibilities;
+    }
+
+    private void generateUser(int index, Random random, LocalDateTime now, String passwordHash,
+                              Map<Department, List<Long>> modulesByDepartment,
+                              Map<Long, Set<Long>> incompatibilities, Ids ids, Batch batch) {
+        long userId = ids.user++;
+        Department department = randomDepartment(random);
+        batch.users.add(new Object[]{userId, "usuario" + index + "@" + EMAIL_DOMAIN, passwordHash,
+                "Usuário Sintético " + index, department.name()});
+
+        List<Long> allowedModules = modulesByDepartment.get(department);
+        // Pares (usuário, módulo) já concedidos: user_modules é único por par
+        Set<Long> grantedModules = new HashSet<>();
+
+        // Quantidade de solicitações com distribuição exponencial (poucos usuários com muitas)
+        int requests = (int) Math.min(50, Math.round(-requestsPerUser * Math.log(1 - random.nextDouble())));
+        for (int r = 0; r < requests; r++) {
+            List<Long> candidates = new ArrayList<>(allowedModules);
+            candidates.removeAll(grantedModules);
+            // Evita módulos incompatíveis com os já concedidos, que a validação teria negado
+            for (Long granted : grantedModules) {
+                candidates.removeAll(incompatibilities.getOrDefault(granted, Set.of()));
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            double roll = random.nextDouble();
+            int moduleCount = Math.min(candidates.size(), roll < 0.70 ? 1 : roll < 0.92 ? 2 : 3);
+            List<Long> requestedModules = new ArrayList<>(moduleCount);
+            for (int m = 0; m < moduleCount && !candidates.isEmpty(); m++) {
+                Long moduleId = candidates.remove(random.nextInt(candidates.size()));
+                requestedModules.add(moduleId);
+                candidates.removeAll(incompatibilities.getOrDefault(moduleId, Set.of()));
+            }
+
+            generateRequest(userId, requestedModules, random, now, ids, batch, grantedModules);
+        }
+    }
+
+    private void generateRequest(long userId, List<Long> moduleIds, Random random, LocalDateTime now,
+                                 Ids ids, Batch batch, Set<Long> grantedModules) {
+        long requestId = ids.request++;
+        // Mais solicitações recentes do que antigas
+        double age = Math.pow(random.nextDouble(), 2);
+        LocalDateTime requestDate = now.minusSeconds((long) (age * historyDays * 86400L));
+        boolean urgent = random.nextDouble() < 0.10;
+        String justification = JUSTIFICATIONS[random.nextInt(JUSTIFICATIONS.length)];
+        String protocol = "SOL-" + requestDate.format(DateTimeFormatter.ofPattern("yyyyMMdd"))
+                + "-" + String.format("%04d", requestId);
+
+        double roll = random.nextDouble();
+        RequestStatus status = roll < 0.03 ? RequestStatus.PENDENTE
+                : roll < 0.25 ? RequestStatus.NEGADO
+                : roll < 0.35 ? RequestStatus.CANCELADO
+                : RequestStatus.ATIVO;
+
+        LocalDateTime expirationDate = null;
+        String denialReason = null;
+        switch (status) {
+            case PENDENTE -> history(batch, ids, requestId, null, RequestStatus.PENDENTE, requestDate,
+                    HistoryReason.REQUEST_RECEIVED, null, null);
+            case NEGADO -> {
+                DenialRule rule = DenialRule.values()[random.nextInt(DenialRule.values().length)];
+                denialReason = rule.getMessage();
+                history(batch, ids, requestId, RequestStatus.ATIVO, RequestStatus.NEGADO, requestDate,
+                        HistoryReason.DENIED, String.valueOf(rule.getCode()), null);
+            }
+            case ATIVO, CANCELADO -> {
+                expirationDate = requestDate.plusDays(180);
+                history(batch, ids, requestId, RequestStatus.ATIVO, RequestStatus.ATIVO, requestDate,
+                        HistoryReason.AUTO_APPROVED, null, null);
+                LocalDateTime cancelDate = null;
+                if (status == RequestStatus.CANCELADO) {
+                    cancelDate = requestDate.plusHours(1 + random.nextInt(24 * 90));
+                    if (cancelDate.isAfter(now)) {
+                        cancelDate = now;
+                    }
+                    history(batch, ids, requestId, RequestStatus.ATIVO, RequestStatus.CANCELADO, cancelDate,
+                            HistoryReason.CANCELLED, null, "Acesso não é mais necessário");
+                }
+                boolean active = cancelDate == null && expirationDate.isAfter(now);
+                for (Long moduleId : moduleIds) {
+                    batch.grants.add(new Object[]{ids.grant++, userId, moduleId, Timestamp.valueOf(requestDate),
+                            Timestamp.valueOf(expirationDate), active});
+                    grantedModules.add(moduleId);
+                }
+            }
+        }
+
+        batch.requests.add(new Object[]{requestId, protocol, userId, justification, urgent, status.name(),
+                Timestamp.valueOf(requestDate), expirationDate == null ? null : Timestamp.valueOf(expirationDate),
+                denialReason});
+        for (Long moduleId : moduleIds) {
+            batch.requestModules.add(new Object[]{requestId, moduleId});
+        }
+    }
+
+    private void history(Batch batch, Ids ids, long requestId, RequestStatus previousStatus, RequestStatus newStatus,
+                         LocalDateTime date, HistoryReason reasonCode, String reasonParams, String reason) {
+        batch.history.add(new Object[]{ids.history++, requestId,
+                previousStatus == null ? null : previousStatus.name(), newStatus.name(), Timestamp.valueOf(date),
+                (short) reasonCode.getCode(), reasonParams, reason});
+    }
+
+    private static Department randomDepartment(Random random) {
+        double roll = random.nextDouble();
+        if (roll < 0.10) {
+            return Department.TI;
+        }
+        if (roll < 0.30) {
+            return Department.FINANCEIRO;
+        }
+        if (roll < 0.45) {
+            return Department.RH;
+        }
+        if (roll < 0.80) {
+            return Department.OPERACOES;
+        }
+        return Department.OUTROS;
+    }
+
+    private void flush(Batch batch) {
+        if (batch.users.isEmpty()) {
+            return;
+        }
+
+        // Ordem de inserção respeita as chaves estrangeiras
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, name, department) VALUES (?, ?, ?, ?, ?)",
+                    batch.users);
+            jdbcTemplate.batchUpdate("INSERT INTO access_requests (id, protocol, user_id, justification, urgent, status, " +
+                    "request_date, expiration_date, denial_reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch.requests);
+            jdbcTemplate.batchUpdate("INSERT INTO request_modules (request_id, module_id) VALUES (?, ?)",
+                    batch.requestModules);
+            jdbcTemplate.batchUpdate("INSERT INTO access_history (id, request_id, previous_status, new_status, " +
+                    "change_date, reason_code, reason_params, reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch.history);
+            jdbcTemplate.batchUpdate("INSERT INTO user_modules (id, user_id, module_id, granted_date, expiration_date, " +
+                    "active) VALUES (?, ?, ?, ?, ?, ?)", batch.grants);
+        });
+
+        batch.clear();
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private void resetSequences() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        boolean h2 = "H2".equalsIgnoreCase(product);
+        for (String table : TABLES) {
+            if (h2) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId(table));
+            } else {
+                jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+                        "(SELECT COALESCE(MAX(id), 1) FROM " + table + "))", Long.class);
+            }
+        }
+    }
+
+    private static final class Ids {
+        private long user;
+        private long module;
+        private long request;
+        private long history;
+        private long grant;
+
+        Ids(long user, long module, long request, long history, long grant) {
+            this.user = user;
+            this.module = module;
+            this.request = request;
+            this.history = history;
+            this.grant = grant;
+        }
+    }
+
+    private static final class Batch {
+        private final List<Object[]> users = new ArrayList<>();
+        private final List<Object[]> requests = new ArrayList<>();
+        private final List<Object[]> requestModules = new ArrayList<>();
+        private final List<Object[]> history = new ArrayList<>();
+        private final List<Object[]> grants = new ArrayList<>();
+        private long totalRequests;
+        private long totalHistory;
+        private long totalGrants;
+
+        void clear() {
+            totalRequests += requests.size();
+            totalHistory += history.size();
+            totalGrants += grants.size();
+            users.clear();
+            requests.clear();
+            requestModules.clear();
+            history.clear();
+            grants.clear();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package br.com.supera.case_supera.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,19 +23,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final Counter invalidTokens;
+    private final Counter authenticationErrors;
+    private final ObservationRegistry observationRegistry;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService,
+                                   MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.observationRegistry = observationRegistry;
+        this.invalidTokens = Counter.builder("auth.jwt.validation.failures")
+                .description("Tokens JWT rejeitados")
+                .tag("reason", "invalid_token")
+                .register(meterRegistry);
+        this.authenticationErrors = Counter.builder("auth.jwt.validation.failures")
+                .description("Tokens JWT rejeitados")
+                .tag("reason", "authentication_error")
+                .register(meterRegistry);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        try {
-            String jwt = getJwtFromRequest(request);
+        String jwt = getJwtFromRequest(request);
+        if (jwt != null) {
+            // Span próprio para separar validação do token e carga do usuário do resto da requisição
+            Observation.createNotStarted("auth.jwt", observationRegistry)
+                    .contextualName("jwt-authentication")
+                    .observe(() -> authenticate(jwt, request));
+        }
+
+        filterChain.doFilter(request, response);
+    }
 
-            if (jwt != null && tokenProvider.validateToken(jwt)) {
+    private void authenticate(String jwt, HttpServletRequest request) {
+        try {
+            if (!tokenProvider.validateToken(jwt)) {
+                // Token expirado, adulterado ou malformado
+                invalidTokens.increment();
+            } else {
                 String username = tokenProvider.getUsernameFromToken(jwt);
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
@@ -42,10 +72,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception ex) {
+            authenticationErrors.increment();
             logger.error("Could not set user authentication in security context", ex);
         }
-
-        filterChain.doFilter(request, response);
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
@@ -0,0 +1,41 @@
+package br.com.supera.case_supera.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Envia transações {@code readOnly} para a réplica e todo o resto para o
+ * primário. Precisa ficar atrás de um LazyConnectionDataSourceProxy: a
+ * conexão só é obtida no primeiro comando, quando o flag readOnly da
+ * transação já está definido.
+ *
+ * Read-your-writes: uma leitura cuja requisição traz uma sequência do feed
+ * que a réplica ainda não aplicou vai para o primário, ver
+ * {@link ReadYourWritesTracker}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWrites) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return readYourWrites.requiresPrimary() ? Route.PRIMARY : Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.supera.case_supera.config;
+
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import br.com.supera.case_supera.service.ChangeFeedService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-your-writes sem estado no nó: o marcador viaja com o cliente.
+ *
+ * Depois do commit de uma escrita feita numa requisição HTTP, a maior
+ * sequência do feed de alterações gravada por ela volta no cookie
+ * {@value #COOKIE} e no cabeçalho {@value #HEADER}. Quem não guarda cookies
+ * pode reenviar o cabeçalho. Qualquer nó compara esse valor com a posição da
+ * réplica: se a réplica ainda não aplicou a escrita, a leitura vai para o
+ * primário.
+ *
+ * A posição da réplica é a maior sequência que o {@code ChangeEventPoller}
+ * já leu dela (getChanges é readOnly). Como as sequências seguem a ordem de
+ * commit, tudo o que foi confirmado até essa sequência já está na réplica.
+ * Escritas do worker assíncrono e das operações de TI chegam ao usuário pelo
+ * SSE, que sai desse mesmo poller, ou seja, só depois de replicadas.
+ */
+public class ReadYourWritesTracker {
+
+    public static final String COOKIE = "write-seq";
+    public static final String HEADER = "X-Write-Sequence";
+
+    private static final String ATTRIBUTE = ReadYourWritesTracker.class.getName() + ".sequence";
+
+    private final Duration cookieMaxAge;
+    private final AtomicLong replicaSequence = new AtomicLong();
+
+    public ReadYourWritesTracker(Duration cookieMaxAge) {
+        this.cookieMaxAge = cookieMaxAge;
+    }
+
+    @EventListener
+    public void onReplicated(ChangeEventDTO event) {
+        replicaSequence.accumulateAndGet(event.getSequence(), Math::max);
+    }
+
+    @EventListener
+    public void onCommitted(ChangeFeedService.Committed committed) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return; // worker assíncrono, tarefas agendadas
+        }
+        long sequence = Math.max(committed.lastSequence(), requiredSequence(attributes));
+        // Leituras seguintes da mesma requisição
+        attributes.setAttribute(ATTRIBUTE, sequence, RequestAttributes.SCOPE_REQUEST);
+
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            response.setHeader(HEADER, Long.toString(sequence));
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(sequence))
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .maxAge(cookieMaxAge)
+                    .build()
+                    .toString());
+        }
+    }
+
+    /**
+     * @return true se a requisição corrente gravou (ou o cliente já viu) algo que a réplica ainda não aplicou
+     */
+    public boolean requiresPrimary() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && requiredSequence(attributes) > replicaSequence.get();
+    }
+
+    private static long requiredSequence(ServletRequestAttributes attributes) {
+        if (attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long sequence) {
+            return sequence;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        long required = parse(request.getHeader(HEADER));
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    required = Math.max(required, parse(cookie.getValue()));
+                }
+            }
+        }
+        return required;
+    }
+
+    private static long parse(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.supera.case_supera.config;
+
+import br.com.supera.case_supera.entity.RequestStatus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Atualiza os CHECK das colunas {@link RequestStatus} em bancos PostgreSQL já existentes.
+ *
+ * O Hibernate 6 cria um CHECK (coluna IN (...)) para cada coluna
+ * {@code @Enumerated(STRING)}, e o ddl-auto update nunca o altera: um banco
+ * criado antes do status PENDENTE recusaria as solicitações assíncronas. Na
+ * subida, todo CHECK dessas colunas que não aceite algum valor do enum é
+ * recriado com os valores atuais, com o mesmo nome. Só corrige CHECK
+ * existentes; bancos novos já nascem com o CHECK completo.
+ */
+@Component
+// Depois do ddl-auto, que roda na criação do EntityManagerFactory
+@DependsOn("entityManagerFactory")
+public class RequestStatusCheckMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestStatusCheckMigration.class);
+
+    // Chave do pg_advisory_xact_lock: um nó por vez altera os CHECK
+    private static final long LOCK_KEY = 2_700_027L;
+
+    static final List<StatusColumn> COLUMNS = List.of(
+            new StatusColumn("access_requests", "status"),
+            new StatusColumn("access_history", "previous_status"),
+            new StatusColumn("access_history", "new_status"),
+            new StatusColumn("change_events", "status"),
+            new StatusColumn("request_summary", "status"),
+            new StatusColumn("request_summary", "last_previous_status"),
+            new StatusColumn("request_summary", "last_new_status"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public RequestStatusCheckMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            // H2 (testes) recria o schema a cada execução
+            return;
+        }
+        for (StatusColumn column : COLUMNS) {
+            String toValidate = transactionTemplate.execute(status -> replaceOutdatedCheck(column));
+            if (toValidate != null) {
+                // Fora da transação do ALTER: a validação percorre a tabela com um lock que não bloqueia escritas
+                jdbcTemplate.execute("ALTER TABLE " + column.table() + " VALIDATE CONSTRAINT " + toValidate);
+            }
+        }
+    }
+
+    /**
+     * @return nome do CHECK criado como NOT VALID, ainda a validar; null se nada mudou ou já foi validado
+     */
+    private String replaceOutdatedCheck(StatusColumn column) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", LOCK_KEY);
+
+        List<Map<String, Object>> checks = jdbcTemplate.queryForList("SELECT c.conname, " +
+                "pg_get_constraintdef(c.oid) AS definition, t.relkind::text AS relkind FROM pg_constraint c " +
+                "JOIN pg_class t ON t.oid = c.conrelid " +
+                "JOIN pg_namespace n ON n.oid = t.relnamespace " +
+                "JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey) " +
+                "WHERE n.nspname = current_schema() AND t.relname = ? AND a.attname = ? AND c.contype = 'c'",
+                column.table(), column.column());
+        List<Map<String, Object>> outdated = checks.stream()
+                .filter(check -> !acceptsAllValues((String) check.get("definition")))
+                .toList();
+        if (outdated.isEmpty()) {
+            return null;
+        }
+
+        String name = (String) outdated.get(0).get("conname");
+        boolean partitioned = "p".equals(outdated.get(0).get("relkind"));
+        log.info("Recriando {} em {}.{} com os status {}", name, column.table(), column.column(),
+                Arrays.toString(RequestStatus.values()));
+        for (Map<String, Object> check : outdated) {
+            jdbcTemplate.execute("ALTER TABLE " + column.table() + " DROP CONSTRAINT " + check.get("conname"));
+        }
+        String values = Arrays.stream(RequestStatus.values())
+                .map(status -> "'" + status.name() + "'")
+                .collect(Collectors.joining(","));
+        // Tabela particionada não aceita NOT VALID: o CHECK é validado já no ADD
+        jdbcTemplate.execute("ALTER TABLE " + column.table() + " ADD CONSTRAINT " + name +
+                " CHECK (" + column.column() + " IN (" + values + "))" + (partitioned ? "" : " NOT VALID"));
+        return partitioned ? null : name;
+    }
+
+    static boolean acceptsAllValues(String definition) {
+        return Arrays.stream(RequestStatus.values())
+                .allMatch(status -> definition.contains("'" + status.name() + "'"));
+    }
+
+    record StatusColumn(String table, String column) {
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.supera.case_supera.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede os comandos SQL de cada requisição HTTP (inclusive os da autenticação
+ * JWT, por isso roda antes da cadeia do Spring Security) e publica:
+ * <ul>
+ *   <li>métricas {@code http.server.requests.sql.statements} e {@code http.server.requests.sql.time};</li>
+ *   <li>aviso no log quando o mesmo comando se repete (N+1) ou a requisição passa do limite;</li>
+ *   <li>cabeçalhos X-SQL-Statements e X-SQL-Time-Ms, apenas se habilitados (desenvolvimento).</li>
+ * </ul>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = SqlStatementStats.class.getName();
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    // Respostas transmitidas aos poucos (exportação e SSE) não podem ficar em buffer
+    private static final List<String> STREAMING_PATH_SUFFIXES = List.of("/export", "/events");
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sql-stats.response-headers:false}")
+    private boolean responseHeaders = false;
+
+    @Value("${sql-stats.warn-statements:20}")
+    private int warnStatements = 20;
+
+    @Value("${sql-stats.repeated-statement-threshold:5}")
+    private int repeatedStatementThreshold = 5;
+
+    public SqlStatementFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Os cabeçalhos precisam ser gravados antes do corpo, então a resposta fica em buffer
+        // (exceto nas respostas transmitidas aos poucos)
+        boolean buffer = responseHeaders && STREAMING_PATH_SUFFIXES.stream().noneMatch(request.getRequestURI()::endsWith);
+        ContentCachingResponseWrapper buffered = buffer ? new ContentCachingResponseWrapper(response) : null;
+        SqlStatementStats stats = SqlStatementCounter.begin();
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            SqlStatementCounter.end();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+            record(request, stats);
+            if (buffered != null) {
+                buffered.setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+                buffered.setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.2f", stats.getMillis()));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("Comandos SQL executados por requisição HTTP")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Tempo no banco por requisição HTTP")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        List<String> repeated = stats.repeatedStatements(repeatedStatementThreshold);
+        if (!repeated.isEmpty()) {
+            log.warn("Possível N+1 em {} {}: {}", method, uri, repeated);
+        }
+        if (stats.getStatements() > warnStatements) {
+            log.warn("{} {} executou {} comandos SQL ({} ms)", method, uri, stats.getStatements(),
+                    String.format(Locale.ROOT, "%.1f", stats.getMillis()));
+        }
+    }
+}
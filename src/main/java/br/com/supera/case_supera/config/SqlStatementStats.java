@@ -0,0 +1,47 @@
+package br.com.supera.case_supera.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Comandos SQL executados durante uma requisição HTTP: quantidade, tempo
+ * total no banco e quantas vezes cada comando (texto do PreparedStatement)
+ * se repetiu, para detectar N+1.
+ */
+public class SqlStatementStats {
+
+    private int statements;
+    private long nanos;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    void record(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Comandos idênticos executados pelo menos {@code threshold} vezes na
+     * mesma requisição (tipicamente carga lazy dentro de um laço).
+     */
+    public List<String> repeatedStatements(int threshold) {
+        return executionsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .map(entry -> entry.getValue() + "x " + entry.getKey())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.supera.case_supera.config;
+
+import br.com.supera.case_supera.entity.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Grava em minúsculas os emails de contas criadas antes da normalização
+ * ({@link User#normalizeEmail}). Sem isso, a importação (upsert pela coluna
+ * email) criaria uma segunda conta para "Joao@Supera.com" e o login por
+ * "joao@supera.com" não a encontraria.
+ *
+ * Emails que só diferem na caixa de outra conta não são alterados (violariam
+ * a unicidade): ficam no log para a TI decidir qual conta manter.
+ */
+@Component
+// Depois do ddl-auto, que roda na criação do EntityManagerFactory
+@DependsOn("entityManagerFactory")
+public class UserEmailNormalization {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEmailNormalization.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserEmailNormalization(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void normalize() {
+        // Um único UPDATE: em dois nós ao mesmo tempo, o segundo não encontra mais nada a alterar
+        int updated = jdbcTemplate.update("UPDATE users SET email = LOWER(TRIM(email)) " +
+                "WHERE email <> LOWER(TRIM(email)) AND NOT EXISTS (SELECT 1 FROM users other " +
+                "WHERE other.id <> users.id AND LOWER(TRIM(other.email)) = LOWER(TRIM(users.email)))");
+        if (updated > 0) {
+            log.info("{} emails de usuário gravados em minúsculas", updated);
+        }
+
+        List<String> conflicts = jdbcTemplate.queryForList("SELECT email FROM users " +
+                "WHERE email <> LOWER(TRIM(email)) ORDER BY email", String.class);
+        if (!conflicts.isEmpty()) {
+            log.warn("Contas cujo email só difere de outra conta na caixa, não normalizadas: {}", conflicts);
+        }
+    }
+}
@@ -2,58 +2,129 @@ package br.com.supera.case_supera.controller;
 
 import br.com.supera.case_supera.dto.*;
 import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.service.AccessEvaluationService;
+import br.com.supera.case_supera.service.AccessRequestExportService;
 import br.com.supera.case_supera.service.AccessRequestService;
+import br.com.supera.case_supera.service.BulkAccessRequestService;
+import br.com.supera.case_supera.service.IdempotencyService;
+import br.com.supera.case_supera.service.RequestListCache;
+import br.com.supera.case_supera.service.UserEventStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 
 @RestController
+@Observed(name = "api.controller")
 @RequestMapping("/api/requests")
 @Tag(name = "Solicitações de Acesso", description = "Endpoints para gerenciar solicitações de acesso a módulos")
 @SecurityRequirement(name = "bearerAuth")
 public class AccessRequestController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final AccessRequestService accessRequestService;
+    private final BulkAccessRequestService bulkAccessRequestService;
+    private final IdempotencyService idempotencyService;
+    private final AccessRequestExportService exportService;
+    private final AccessEvaluationService evaluationService;
+    private final UserEventStreamService eventStreamService;
+    private final RequestListCache requestListCache;
     private final br.com.supera.case_supera.repository.UserRepository userRepository;
 
     public AccessRequestController(
             AccessRequestService accessRequestService,
+            BulkAccessRequestService bulkAccessRequestService,
+            IdempotencyService idempotencyService,
+            AccessRequestExportService exportService,
+            AccessEvaluationService evaluationService,
+            UserEventStreamService eventStreamService,
+            RequestListCache requestListCache,
             br.com.supera.case_supera.repository.UserRepository userRepository) {
         this.accessRequestService = accessRequestService;
+        this.bulkAccessRequestService = bulkAccessRequestService;
+        this.idempotencyService = idempotencyService;
+        this.exportService = exportService;
+        this.evaluationService = evaluationService;
+        this.eventStreamService = eventStreamService;
+        this.requestListCache = requestListCache;
         this.userRepository = userRepository;
     }
 
-    private Long getCurrentUserId(Authentication authentication) {
+    private br.com.supera.case_supera.entity.User getCurrentUser(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         return userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"))
-                .getId();
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    }
+
+    private Long getCurrentUserId(Authentication authentication) {
+        return getCurrentUser(authentication).getId();
+    }
+
+    // Como a criação interpreta o corpo: módulos como conjunto e urgente ausente como false
+    private String createPayload(AccessRequestDTO dto) {
+        return idempotencyService.canonicalPayload(Map.of(
+                "moduleIds", dto.getModuleIds().stream().filter(Objects::nonNull).distinct().sorted().toList(),
+                "justification", dto.getJustification(),
+                "urgent", Boolean.TRUE.equals(dto.getUrgent())));
     }
 
     @PostMapping
     @Operation(summary = "Criar solicitação de acesso", description = "Cria uma nova solicitação de acesso a módulos")
     public ResponseEntity<ApiResponse> createRequest(
             @Valid @RequestBody AccessRequestDTO dto,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         Long userId = getCurrentUserId(authentication);
-        String message = accessRequestService.createAccessRequest(userId, dto);
+        String message = idempotencyService.execute(userId, idempotencyKey, "create", createPayload(dto),
+                () -> accessRequestService.createAccessRequest(userId, dto));
         return ResponseEntity.ok(ApiResponse.builder().message(message).build());
     }
 
+    @PostMapping("/evaluate")
+    @Operation(summary = "Simular solicitação", description = "Avalia as regras de uma solicitação sem gravar nada e retorna todas as regras violadas. A criação continua revalidando no banco")
+    public ResponseEntity<AccessEvaluationDTO> evaluateRequest(
+            @Valid @RequestBody AccessEvaluationRequestDTO dto,
+            Authentication authentication) {
+        return ResponseEntity.ok(evaluationService.evaluate(getCurrentUser(authentication), dto));
+    }
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAuthority('DEPT_TI')")
+    @Operation(summary = "Criar solicitações em lote", description = "Cria solicitações de acesso para vários usuários (onboarding de equipes). Restrito ao departamento de TI")
+    public ResponseEntity<ApiResponse> createRequests(@Valid @RequestBody BulkAccessRequestDTO dto) {
+        List<BulkAccessRequestResultDTO> results = bulkAccessRequestService.createAccessRequests(dto.getEntries());
+        long created = results.stream().filter(result -> result.getProtocol() != null).count();
+        return ResponseEntity.ok(ApiResponse.builder()
+                .message(created + " de " + results.size() + " solicitações processadas")
+                .data(results)
+                .build());
+    }
+
     @GetMapping
-    @Operation(summary = "Listar solicitações", description = "Lista as solicitações do usuário com filtros e paginação")
-    public ResponseEntity<Page<AccessRequestResponseDTO>> getRequests(
+    @Operation(summary = "Listar solicitações", description = "Lista as solicitações do usuário com filtros e paginação. A primeira página padrão, sem filtros, é servida de um cache por usuário, invalidado a cada alteração")
+    public ResponseEntity<?> getRequests(
             @RequestParam(required = false) String searchText,
             @RequestParam(required = false) RequestStatus status,
             @RequestParam(required = false) Boolean urgent,
@@ -63,12 +134,45 @@ public class AccessRequestController {
             @RequestParam(defaultValue = "10") int size,
             Authentication authentication) {
         Long userId = getCurrentUserId(authentication);
+        boolean hasFilters = searchText != null || status != null || urgent != null || startDate != null || endDate != null;
+        if (requestListCache.isCacheable(hasFilters, page, size)) {
+            // JSON já serializado da página padrão, carregado uma única vez por usuário
+            byte[] json = requestListCache.getFirstPage(userId, () -> accessRequestService.getUserRequests(
+                    userId, null, null, null, null, null, PageRequest.of(0, size)));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<AccessRequestResponseDTO> requests = accessRequestService.getUserRequests(
                 userId, searchText, status, urgent, startDate, endDate, pageable);
         return ResponseEntity.ok(requests);
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Exportar solicitações", description = "Exporta todas as solicitações do usuário, com módulos e histórico, em NDJSON ou CSV (streaming)")
+    public void exportRequests(
+            @RequestParam(defaultValue = AccessRequestExportService.FORMAT_NDJSON) String format,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        Long userId = getCurrentUserId(authentication);
+        String normalized = format.toLowerCase(Locale.ROOT);
+        AccessRequestExportService.requireSupportedFormat(normalized);
+        boolean csv = AccessRequestExportService.FORMAT_CSV.equals(normalized);
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"solicitacoes." + (csv ? "csv" : "ndjson") + "\"");
+        exportService.export(userId, normalized, response.getOutputStream());
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar alterações", description = "Stream SSE com as decisões, concessões, extensões, revogações e expirações de acesso do usuário. O id de cada evento é a sequência do feed; ao reconectar, envie Last-Event-ID para receber o que foi perdido")
+    public SseEmitter streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        return eventStreamService.subscribe(userId, lastEventId);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Detalhes da solicitação", description = "Retorna os detalhes completos de uma solicitação")
     public ResponseEntity<AccessRequestResponseDTO> getRequestDetails(
@@ -79,13 +183,25 @@ public class AccessRequestController {
         return ResponseEntity.ok(request);
     }
 
+    @GetMapping("/protocol/{protocol}/status")
+    @Operation(summary = "Status da solicitação", description = "Consulta o status de uma solicitação pelo protocolo (útil no modo de avaliação assíncrona)")
+    public ResponseEntity<RequestStatusDTO> getRequestStatus(
+            @PathVariable String protocol,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        RequestStatusDTO status = accessRequestService.getRequestStatus(userId, protocol);
+        return ResponseEntity.ok(status);
+    }
+
     @PostMapping("/{id}/renew")
     @Operation(summary = "Renovar acesso", description = "Renova o acesso a módulos quando faltam menos de 30 dias")
     public ResponseEntity<ApiResponse> renewAccess(
             @PathVariable Long id,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         Long userId = getCurrentUserId(authentication);
-        String message = accessRequestService.renewAccess(userId, id);
+        String message = idempotencyService.execute(userId, idempotencyKey, "renew", String.valueOf(id),
+                () -> accessRequestService.renewAccess(userId, id));
         return ResponseEntity.ok(ApiResponse.builder().message(message).build());
     }
 
@@ -99,5 +215,17 @@ public class AccessRequestController {
         accessRequestService.cancelRequest(userId, id, dto.getReason());
         return ResponseEntity.ok(ApiResponse.builder().message("Solicitação cancelada com sucesso").build());
     }
-}
 
+    @PostMapping("/cancel")
+    @Operation(summary = "Cancelar solicitações em lote", description = "Cancela várias solicitações ativas de uma só vez")
+    public ResponseEntity<ApiResponse> cancelRequests(
+            @Valid @RequestBody BulkCancelRequestDTO dto,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        int cancelled = accessRequestService.cancelRequests(userId, dto.getRequestIds(), dto.getReason());
+        return ResponseEntity.ok(ApiResponse.builder()
+                .message(cancelled + " solicitações canceladas com sucesso")
+                .data(cancelled)
+                .build());
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.supera.case_supera.controller;
+
+import br.com.supera.case_supera.dto.ChangeFeedDTO;
+import br.com.supera.case_supera.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Observed(name = "api.controller")
+@RequestMapping("/api/changes")
+@Tag(name = "Feed de Alterações", description = "Endpoints para sincronização incremental de acessos")
+@SecurityRequirement(name = "bearerAuth")
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('DEPT_TI')")
+    @Operation(summary = "Listar alterações", description = "Retorna, em ordem, as alterações de status de solicitações e de acessos (concessão, extensão, revogação) com número de sequência maior que 'after'. Use 'nextAfter' da resposta na próxima chamada. Restrito ao departamento de TI")
+    public ResponseEntity<ChangeFeedDTO> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(after, limit));
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.supera.case_supera.controller;
+
+import br.com.supera.case_supera.dto.DenialLogEntryDTO;
+import br.com.supera.case_supera.entity.DenialRule;
+import br.com.supera.case_supera.service.DenialLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@Observed(name = "api.controller")
+@RequestMapping("/api/denials")
+@Tag(name = "Log de Negações", description = "Endpoints de auditoria das solicitações negadas")
+@SecurityRequirement(name = "bearerAuth")
+public class DenialLogController {
+
+    private final DenialLogService denialLogService;
+
+    public DenialLogController(DenialLogService denialLogService) {
+        this.denialLogService = denialLogService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('DEPT_TI')")
+    @Operation(summary = "Consultar negações", description = "Lista as negações gravadas no log compacto (access-requests.denial-storage=log), mais recentes primeiro, com filtros por usuário, regra e período (padrão: últimos 30 dias). Restrito ao departamento de TI")
+    public ResponseEntity<Page<DenialLogEntryDTO>> getDenials(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) DenialRule rule,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(denialLogService.search(userId, rule, from, to, page, size));
+    }
+}
@@ -1,10 +1,13 @@
 package br.com.supera.case_supera.controller;
 
 import br.com.supera.case_supera.dto.ModuleResponseDTO;
+import br.com.supera.case_supera.dto.RequestableModuleDTO;
+import br.com.supera.case_supera.service.AccessEvaluationService;
 import br.com.supera.case_supera.service.ModuleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,16 +17,20 @@ import br.com.supera.case_supera.repository.UserRepository;
 import java.util.List;
 
 @RestController
+@Observed(name = "api.controller")
 @RequestMapping("/api/modules")
 @Tag(name = "Módulos", description = "Endpoints para consultar módulos disponíveis")
 @SecurityRequirement(name = "bearerAuth")
 public class ModuleController {
 
     private final ModuleService moduleService;
+    private final AccessEvaluationService evaluationService;
     private final UserRepository userRepository;
 
-    public ModuleController(ModuleService moduleService, UserRepository userRepository) {
+    public ModuleController(ModuleService moduleService, AccessEvaluationService evaluationService,
+                            UserRepository userRepository) {
         this.moduleService = moduleService;
+        this.evaluationService = evaluationService;
         this.userRepository = userRepository;
     }
 
@@ -41,6 +48,13 @@ public class ModuleController {
         return ResponseEntity.ok(modules);
     }
 
+    @GetMapping("/requestable")
+    @Operation(summary = "Situação dos módulos para o usuário", description = "Retorna cada módulo ativo com a situação para uma nova solicitação do usuário autenticado: pode solicitar, acesso já ativo, departamento sem permissão, incompatível com um acesso ativo ou limite de módulos atingido")
+    public ResponseEntity<List<RequestableModuleDTO>> getRequestableModules(Authentication authentication) {
+        br.com.supera.case_supera.entity.User user = getCurrentUser(authentication);
+        return ResponseEntity.ok(evaluationService.getRequestableModules(user));
+    }
+
     @GetMapping("/all")
     @Operation(summary = "Listar todos os módulos", description = "Retorna todos os módulos (ativos e inativos)")
     public ResponseEntity<List<ModuleResponseDTO>> getAllModules() {
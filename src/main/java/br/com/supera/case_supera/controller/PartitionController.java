@@ -0,0 +1,36 @@
+package br.com.supera.case_supera.controller;
+
+import br.com.supera.case_supera.dto.ApiResponse;
+import br.com.supera.case_supera.service.PartitionMaintenanceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Observed(name = "api.controller")
+@RequestMapping("/api/partitions")
+@Tag(name = "Particionamento", description = "Conversão das tabelas de histórico em tabelas particionadas por mês")
+@SecurityRequirement(name = "bearerAuth")
+public class PartitionController {
+
+    private final PartitionMaintenanceService partitionMaintenanceService;
+
+    public PartitionController(PartitionMaintenanceService partitionMaintenanceService) {
+        this.partitionMaintenanceService = partitionMaintenanceService;
+    }
+
+    @PostMapping("/{table}/convert")
+    @PreAuthorize("hasAuthority('DEPT_TI')")
+    @Operation(summary = "Converter tabela em particionada", description = "Converte access_history ou denial_log em tabela particionada por mês (somente PostgreSQL), copiando as linhas em lotes com a aplicação no ar. Só a cópia final e a troca de nomes bloqueiam a tabela. Executar uma vez após o deploy sobre um banco existente. Restrito ao departamento de TI")
+    public ResponseEntity<ApiResponse> convert(@PathVariable String table) {
+        long copied = partitionMaintenanceService.convert(table);
+        return ResponseEntity.ok(ApiResponse.builder()
+                .message(copied + " linhas copiadas para a tabela particionada " + table)
+                .data(copied)
+                .build());
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.supera.case_supera.controller;
+
+import br.com.supera.case_supera.dto.ApiResponse;
+import br.com.supera.case_supera.service.RequestSummaryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Observed(name = "api.controller")
+@RequestMapping("/api/request-summary")
+@Tag(name = "Modelo de Leitura", description = "Manutenção do resumo usado na listagem de solicitações")
+@SecurityRequirement(name = "bearerAuth")
+public class RequestSummaryController {
+
+    private final RequestSummaryService requestSummaryService;
+
+    public RequestSummaryController(RequestSummaryService requestSummaryService) {
+        this.requestSummaryService = requestSummaryService;
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAuthority('DEPT_TI')")
+    @Operation(summary = "Reconstruir resumo das solicitações", description = "Recria a tabela request_summary, usada por GET /api/requests, a partir das solicitações, módulos e histórico. Na subida o resumo já é preenchido quando faltam linhas; use após cargas feitas fora da aplicação com ela no ar ou para corrigir divergências. Restrito ao departamento de TI")
+    public ResponseEntity<ApiResponse> rebuild() {
+        long rebuilt = requestSummaryService.rebuild();
+        return ResponseEntity.ok(ApiResponse.builder()
+                .message(rebuilt + " solicitações processadas")
+                .data(rebuilt)
+                .build());
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.supera.case_supera.controller;
+
+import br.com.supera.case_supera.dto.ApiResponse;
+import br.com.supera.case_supera.dto.UserImportResultDTO;
+import br.com.supera.case_supera.service.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.Locale;
+
+@RestController
+@Observed(name = "api.controller")
+@RequestMapping("/api/users")
+@Tag(name = "Usuários", description = "Endpoints para sincronizar usuários com o cadastro de RH")
+@SecurityRequirement(name = "bearerAuth")
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    public UserImportController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    @PreAuthorize("hasAuthority('DEPT_TI')")
+    @Operation(summary = "Importar usuários", description = "Importa ou atualiza usuários (pelo email) a partir de CSV (email,name,department,password) ou NDJSON. O arquivo é processado em streaming. Restrito ao departamento de TI")
+    public ResponseEntity<ApiResponse> importUsers(
+            @RequestHeader(value = "Content-Type") String contentType,
+            @RequestParam(required = false) String format,
+            InputStream body) {
+        String resolvedFormat = format != null
+                ? format.toLowerCase(Locale.ROOT)
+                : contentType.startsWith("application/x-ndjson") ? UserImportService.FORMAT_NDJSON : UserImportService.FORMAT_CSV;
+        UserImportResultDTO result = userImportService.importUsers(body, resolvedFormat);
+        return ResponseEntity.ok(ApiResponse.builder()
+                .message(result.getImported() + " de " + result.getProcessed() + " usuários importados")
+                .data(result)
+                .build());
+    }
+}
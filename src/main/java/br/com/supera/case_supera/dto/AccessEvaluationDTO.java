@@ -0,0 +1,18 @@
+package br.com.supera.case_supera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessEvaluationDTO {
+    // Verdadeiro quando a solicitação seria aprovada automaticamente
+    private boolean approved;
+    private List<AccessViolationDTO> violations;
+}
@@ -0,0 +1,17 @@
+package br.com.supera.case_supera.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AccessEvaluationRequestDTO {
+    @NotEmpty(message = "Pelo menos um módulo deve ser informado")
+    @Size(max = 3, message = "Deve solicitar entre 1 e 3 módulos")
+    private List<Long> moduleIds;
+
+    // Opcional: a regra de justificativa só é avaliada quando informada
+    private String justification;
+}
@@ -1,5 +1,6 @@
 package br.com.supera.case_supera.dto;
 
+import br.com.supera.case_supera.entity.HistoryReason;
 import br.com.supera.case_supera.entity.RequestStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,6 +17,7 @@ public class AccessHistoryDTO {
     private RequestStatus previousStatus;
     private RequestStatus newStatus;
     private LocalDateTime changeDate;
+    private HistoryReason reasonCode;
     private String reason;
 }
 
@@ -0,0 +1,18 @@
+package br.com.supera.case_supera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessViolationDTO {
+    // Nome da DenialRule, ou MODULE_NOT_FOUND / MODULE_INACTIVE / ACCESS_ALREADY_ACTIVE
+    private String rule;
+    private String message;
+    // Preenchido quando a violação se refere a um módulo específico
+    private Long moduleId;
+}
@@ -0,0 +1,16 @@
+package br.com.supera.case_supera.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkAccessRequestDTO {
+    @NotEmpty(message = "Pelo menos uma solicitação deve ser informada")
+    @Size(max = 1000, message = "É possível enviar no máximo 1000 solicitações por lote")
+    @Valid
+    private List<BulkAccessRequestEntryDTO> entries;
+}
@@ -0,0 +1,20 @@
+package br.com.supera.case_supera.dto;
+
+import br.com.supera.case_supera.entity.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAccessRequestResultDTO {
+    private int index;
+    private String email;
+    // Nulo quando a entrada foi rejeitada antes de gerar uma solicitação
+    private String protocol;
+    private RequestStatus status;
+    private String message;
+}
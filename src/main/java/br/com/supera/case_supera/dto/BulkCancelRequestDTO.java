@@ -0,0 +1,19 @@
+package br.com.supera.case_supera.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkCancelRequestDTO {
+    @NotEmpty(message = "Pelo menos uma solicitação deve ser informada")
+    @Size(max = 100, message = "É possível cancelar no máximo 100 solicitações por vez")
+    private List<Long> requestIds;
+
+    @NotBlank(message = "Motivo do cancelamento é obrigatório")
+    @Size(min = 10, max = 200, message = "Motivo deve ter entre 10 e 200 caracteres")
+    private String reason;
+}
@@ -0,0 +1,25 @@
+package br.com.supera.case_supera.dto;
+
+import br.com.supera.case_supera.entity.ChangeEventType;
+import br.com.supera.case_supera.entity.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDTO {
+    private Long sequence;
+    private ChangeEventType type;
+    private Long userId;
+    private Long requestId;
+    private Long moduleId;
+    private RequestStatus status;
+    private LocalDateTime expirationDate;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,20 @@
+package br.com.supera.case_supera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDTO {
+    private List<ChangeEventDTO> events;
+    // Valor a enviar em "after" na próxima chamada (igual ao "after" recebido se não houve eventos)
+    private Long nextAfter;
+    // Há mais eventos disponíveis: o consumidor pode chamar de novo sem esperar
+    private boolean hasMore;
+}
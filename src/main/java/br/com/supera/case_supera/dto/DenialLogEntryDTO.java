@@ -0,0 +1,26 @@
+package br.com.supera.case_supera.dto;
+
+import br.com.supera.case_supera.entity.DenialOperation;
+import br.com.supera.case_supera.entity.DenialRule;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DenialLogEntryDTO {
+    private Long id;
+    private Long userId;
+    private DenialOperation operation;
+    private DenialRule rule;
+    private String reason;
+    private List<Long> moduleIds;
+    private Long renewedFromId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,13 @@
+package br.com.supera.case_supera.dto;
+
+/**
+ * Situação de um módulo para uma nova solicitação do usuário, na ordem em que
+ * as regras são verificadas.
+ */
+public enum ModuleRequestability {
+    REQUESTABLE,
+    ALREADY_ACTIVE,
+    DEPARTMENT_NOT_ALLOWED,
+    INCOMPATIBLE_MODULE,
+    MODULE_LIMIT_REACHED
+}
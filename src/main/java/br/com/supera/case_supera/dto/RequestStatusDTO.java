@@ -0,0 +1,21 @@
+package br.com.supera.case_supera.dto;
+
+import br.com.supera.case_supera.entity.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestStatusDTO {
+    private Long id;
+    private String protocol;
+    private RequestStatus status;
+    private String denialReason;
+    private LocalDateTime expirationDate;
+}
@@ -0,0 +1,23 @@
+package br.com.supera.case_supera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestableModuleDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private ModuleRequestability status;
+    // Módulos ativos do usuário que impedem a solicitação (INCOMPATIBLE_MODULE)
+    private List<String> incompatibleWith;
+    // Nulo quando o módulo pode ser solicitado
+    private String message;
+}
@@ -0,0 +1,19 @@
+package br.com.supera.case_supera.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+    private long processed;
+    private long imported;
+    private long failed;
+    private List<String> errors;
+}
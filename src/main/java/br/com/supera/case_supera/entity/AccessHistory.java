@@ -9,7 +9,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "access_history")
+@Table(name = "access_history", indexes = {
+    @Index(name = "idx_access_history_request_id", columnList = "request_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -35,7 +37,25 @@ public class AccessHistory {
     @Column(nullable = false)
     private LocalDateTime changeDate;
 
+    @Column(name = "reason_code")
+    @Convert(converter = HistoryReasonCodeConverter.class)
+    private HistoryReason reasonCode;
+
+    // Parâmetros do motivo (ver HistoryReason), ex.: código da regra, data ou id do módulo
+    @Column(name = "reason_params", length = HistoryReason.MAX_PARAMS_LENGTH)
+    private String reasonParams;
+
+    // Texto livre: motivo do cancelamento informado pelo usuário, ou entradas anteriores aos códigos
     @Column(length = 500)
     private String reason;
+
+    @PrePersist
+    void checkReasonParams() {
+        // Falha aqui, com o motivo, em vez de um erro de tamanho de coluna no INSERT
+        if (reasonParams != null && reasonParams.length() > HistoryReason.MAX_PARAMS_LENGTH) {
+            throw new IllegalStateException("Parâmetros do motivo " + reasonCode + " excedem "
+                    + HistoryReason.MAX_PARAMS_LENGTH + " caracteres: " + reasonParams);
+        }
+    }
 }
 
@@ -60,6 +60,7 @@ public class AccessRequest {
     private String denialReason;
 
     @OneToMany(mappedBy = "accessRequest", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("changeDate ASC, id ASC")
     @Builder.Default
     private List<AccessHistory> history = new ArrayList<>();
 
@@ -0,0 +1,53 @@
+package br.com.supera.case_supera.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrada do feed de alterações (outbox transacional). Gravada na mesma
+ * transação que altera {@link AccessHistory} ou {@link UserModule}; o id
+ * é o número de sequência usado pelos consumidores para retomar a leitura,
+ * atribuído pelo {@link ChangeEventSequence} e não pelo banco.
+ */
+@Entity
+@Table(name = "change_events", indexes = {
+    @Index(name = "idx_change_events_user_id", columnList = "user_id, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 30)
+    @Enumerated(EnumType.STRING)
+    private ChangeEventType type;
+
+    // Ids simples em vez de associações: o feed é lido sem joins
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "request_id")
+    private Long requestId;
+
+    @Column(name = "module_id")
+    private Long moduleId;
+
+    // Novo status da solicitação (REQUEST_STATUS_CHANGED)
+    @Enumerated(EnumType.STRING)
+    private RequestStatus status;
+
+    // Validade do acesso (ACCESS_GRANTED / ACCESS_EXTENDED / ACCESS_EXPIRED)
+    private LocalDateTime expirationDate;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package br.com.supera.case_supera.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contador da sequência do feed de alterações ({@link ChangeEvent}), em uma
+ * única linha. Cada transação que grava eventos bloqueia a linha no
+ * beforeCommit e a libera no commit, então as sequências ficam visíveis na
+ * ordem de commit e sem lacunas.
+ */
+@Entity
+@Table(name = "change_event_sequence")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventSequence {
+
+    public static final Long FEED = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_value", nullable = false)
+    private Long lastValue;
+}
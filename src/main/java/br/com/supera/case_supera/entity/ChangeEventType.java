@@ -0,0 +1,9 @@
+package br.com.supera.case_supera.entity;
+
+public enum ChangeEventType {
+    REQUEST_STATUS_CHANGED,
+    ACCESS_GRANTED,
+    ACCESS_EXTENDED,
+    ACCESS_REVOKED,
+    ACCESS_EXPIRED
+}
@@ -0,0 +1,54 @@
+package br.com.supera.case_supera.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro compacto de uma solicitação negada, usado quando
+ * {@code access-requests.denial-storage=log}: em vez de uma AccessRequest com
+ * protocolo, módulos e histórico, uma única linha sem joins. Somente inserção.
+ */
+@Entity
+@Immutable
+@Table(name = "denial_log", indexes = {
+    @Index(name = "idx_denial_log_created_at", columnList = "created_at"),
+    @Index(name = "idx_denial_log_user_id", columnList = "user_id, created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DenialLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private DenialOperation operation;
+
+    @Column(name = "reason_code", nullable = false)
+    @Convert(converter = DenialRuleCodeConverter.class)
+    private DenialRule rule;
+
+    // Ids dos módulos solicitados separados por vírgula, ex.: "1,4"
+    @Column(name = "module_ids", nullable = false)
+    private String moduleIds;
+
+    // Solicitação que seria renovada (RENEWAL)
+    @Column(name = "renewed_from_id")
+    private Long renewedFromId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
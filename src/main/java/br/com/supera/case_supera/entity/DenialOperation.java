@@ -0,0 +1,10 @@
+package br.com.supera.case_supera.entity;
+
+/**
+ * Operação que teve a solicitação negada, registrada no log de negações.
+ */
+public enum DenialOperation {
+    CREATE,
+    RENEWAL,
+    BULK
+}
@@ -0,0 +1,37 @@
+package br.com.supera.case_supera.entity;
+
+/**
+ * Regras de negócio que podem negar uma solicitação de acesso.
+ * O código numérico é o gravado no log de negações: não reutilize códigos.
+ */
+public enum DenialRule {
+    DEPARTMENT_NOT_ALLOWED(1, "Departamento sem permissão para acessar este módulo"),
+    INCOMPATIBLE_MODULE(2, "Módulo incompatível com outro módulo já ativo em seu perfil"),
+    MODULE_LIMIT_REACHED(3, "Limite de módulos ativos atingido"),
+    GENERIC_JUSTIFICATION(4, "Justificativa insuficiente ou genérica");
+
+    private final int code;
+    private final String message;
+
+    DenialRule(int code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public static DenialRule fromCode(int code) {
+        for (DenialRule rule : values()) {
+            if (rule.code == code) {
+                return rule;
+            }
+        }
+        throw new IllegalArgumentException("Código de regra desconhecido: " + code);
+    }
+}
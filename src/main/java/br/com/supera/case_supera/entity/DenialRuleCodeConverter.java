@@ -0,0 +1,22 @@
+package br.com.supera.case_supera.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Grava a regra de negação como o código numérico de {@link DenialRule}
+ * (SMALLINT) em vez do nome.
+ */
+@Converter
+public class DenialRuleCodeConverter implements AttributeConverter<DenialRule, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(DenialRule rule) {
+        return rule == null ? null : (short) rule.getCode();
+    }
+
+    @Override
+    public DenialRule convertToEntityAttribute(Short code) {
+        return code == null ? null : DenialRule.fromCode(code);
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.supera.case_supera.entity;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
+
+/**
+ * Motivo de uma entrada de histórico, gravado como código numérico (SMALLINT)
+ * mais parâmetros curtos em vez do texto completo; a mensagem é montada na
+ * leitura. Só o motivo informado pelo usuário no cancelamento é texto livre.
+ * Não reutilize códigos.
+ */
+public enum HistoryReason {
+    REQUEST_RECEIVED(1, "Solicitação recebida e aguardando avaliação"),
+    AUTO_APPROVED(2, "Solicitação aprovada automaticamente"),
+    // Parâmetro: código da DenialRule
+    DENIED(3, null),
+    // Parâmetro: nome do módulo. Só em entradas antigas; as novas usam MODULE_ALREADY_ACTIVE
+    ACCESS_ALREADY_ACTIVE(4, "Você já possui acesso ativo ao módulo: %s"),
+    // Parâmetro: nova data de expiração (ISO, yyyy-MM-dd)
+    RENEWAL_EXTENDED(5, "Renovação aprovada automaticamente - acesso estendido por 180 dias até %s"),
+    // Texto livre do usuário na coluna reason
+    CANCELLED(6, null),
+    // Parâmetro: id do módulo; o nome é resolvido na leitura
+    MODULE_ALREADY_ACTIVE(7, "Você já possui acesso ativo ao módulo: %s"),
+    // Avaliação assíncrona esgotou as tentativas
+    EVALUATION_FAILED(8, "Não foi possível avaliar a solicitação. Envie uma nova solicitação");
+
+    /**
+     * Tamanho das colunas de parâmetros (access_history.reason_params e
+     * request_summary.last_reason_params): só códigos, ids e datas, nunca nomes.
+     */
+    public static final int MAX_PARAMS_LENGTH = 40;
+
+    private static final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final int code;
+    private final String template;
+
+    HistoryReason(int code, String template) {
+        this.code = code;
+        this.template = template;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static HistoryReason fromCode(int code) {
+        for (HistoryReason reason : values()) {
+            if (reason.code == code) {
+                return reason;
+            }
+        }
+        throw new IllegalArgumentException("Código de motivo desconhecido: " + code);
+    }
+
+    /**
+     * Monta a mensagem exibida. Entradas gravadas antes da codificação não têm
+     * código e mantêm o texto original em {@code reason}.
+     *
+     * @param moduleNames nome do módulo pelo id, para {@link #MODULE_ALREADY_ACTIVE};
+     *                    sem o nome (módulo removido), a mensagem mostra o id
+     */
+    public static String render(HistoryReason reasonCode, String params, String reason,
+                                Function<Long, String> moduleNames) {
+        if (reasonCode == null) {
+            return reason;
+        }
+        return switch (reasonCode) {
+            case DENIED -> DenialRule.fromCode(Integer.parseInt(params)).getMessage();
+            case CANCELLED -> reason;
+            case RENEWAL_EXTENDED -> String.format(reasonCode.template, LocalDate.parse(params).format(DISPLAY_DATE));
+            case ACCESS_ALREADY_ACTIVE -> String.format(reasonCode.template, params);
+            case MODULE_ALREADY_ACTIVE -> {
+                String name = moduleNames.apply(Long.valueOf(params));
+                yield String.format(reasonCode.template, name != null ? name : params);
+            }
+            default -> reasonCode.template;
+        };
+    }
+}
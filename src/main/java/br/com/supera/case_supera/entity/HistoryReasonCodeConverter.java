@@ -0,0 +1,22 @@
+package br.com.supera.case_supera.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Grava o motivo do histórico como o código numérico de {@link HistoryReason}
+ * (SMALLINT) em vez do nome.
+ */
+@Converter
+public class HistoryReasonCodeConverter implements AttributeConverter<HistoryReason, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(HistoryReason reason) {
+        return reason == null ? null : (short) reason.getCode();
+    }
+
+    @Override
+    public HistoryReason convertToEntityAttribute(Short code) {
+        return code == null ? null : HistoryReason.fromCode(code);
+    }
+}
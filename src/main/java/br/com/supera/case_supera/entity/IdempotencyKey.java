@@ -0,0 +1,49 @@
+package br.com.supera.case_supera.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "idempotency_key"})
+    },
+    indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 64)
+    private String idempotencyKey;
+
+    // SHA-256 da operação e do payload, para detectar reuso da chave em outra requisição
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // Nulo enquanto a requisição original ainda está em processamento
+    @Column(length = 500)
+    private String response;
+
+    // Prazo da execução em andamento; vencido sem resposta, outra tentativa pode assumir a chave
+    @Column(name = "in_progress_until")
+    private LocalDateTime inProgressUntil;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -1,8 +1,8 @@
 package br.com.supera.case_supera.entity;
 
 public enum RequestStatus {
+    PENDENTE,
     ATIVO,
     NEGADO,
     CANCELADO
 }
-
@@ -0,0 +1,87 @@
+package br.com.supera.case_supera.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modelo de leitura da listagem de solicitações: uma linha por solicitação,
+ * com os nomes dos módulos e a última entrada do histórico já desnormalizados,
+ * para que GET /api/requests leia uma única tabela sem joins.
+ *
+ * Mantida por {@code RequestSummaryService} na mesma transação que altera a
+ * solicitação; nunca é a fonte da verdade e pode ser reconstruída a qualquer
+ * momento a partir de access_requests.
+ */
+@Entity
+@Table(name = "request_summary", indexes = {
+    @Index(name = "idx_request_summary_user_date", columnList = "user_id, request_date")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestSummary {
+
+    public static final String MODULE_SEPARATOR = ";";
+
+    // Mesmo id da solicitação (atribuído, não gerado)
+    @Id
+    @Column(name = "request_id")
+    private Long requestId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String protocol;
+
+    // Nomes dos módulos em ordem alfabética, separados por MODULE_SEPARATOR
+    @Column(name = "module_names", nullable = false, length = 1000)
+    private String moduleNames;
+
+    @Column(nullable = false, length = 500)
+    private String justification;
+
+    @Column(nullable = false)
+    private Boolean urgent;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private RequestStatus status;
+
+    @Column(name = "request_date", nullable = false)
+    private LocalDateTime requestDate;
+
+    @Column(name = "expiration_date")
+    private LocalDateTime expirationDate;
+
+    @Column(name = "denial_reason")
+    private String denialReason;
+
+    // Última entrada do histórico
+    @Column(name = "last_previous_status")
+    @Enumerated(EnumType.STRING)
+    private RequestStatus lastPreviousStatus;
+
+    @Column(name = "last_new_status")
+    @Enumerated(EnumType.STRING)
+    private RequestStatus lastNewStatus;
+
+    @Column(name = "last_change_date")
+    private LocalDateTime lastChangeDate;
+
+    @Column(name = "last_reason_code")
+    @Convert(converter = HistoryReasonCodeConverter.class)
+    private HistoryReason lastReasonCode;
+
+    @Column(name = "last_reason_params", length = HistoryReason.MAX_PARAMS_LENGTH)
+    private String lastReasonParams;
+
+    @Column(name = "last_reason", length = 500)
+    private String lastReason;
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
@@ -45,9 +46,18 @@ public class User {
     @Builder.Default
     private Set<UserModule> activeModules = new HashSet<>();
 
+    /**
+     * Forma gravada do email: sem espaços nas pontas e em minúsculas, para que
+     * login, importação e lote encontrem a conta independente da caixa.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
     @PrePersist
     @PreUpdate
-    private void hashPassword() {
+    private void beforeSave() {
+        this.email = normalizeEmail(this.email);
         if (password != null && !password.startsWith("$2a$")) {
             this.password = passwordEncoder.encode(this.password);
         }
@@ -11,6 +11,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "user_modules", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "module_id"})
+}, indexes = {
+    @Index(name = "idx_user_modules_expiration", columnList = "active, expiration_date")
 })
 @Data
 @Builder
@@ -0,0 +1,7 @@
+package br.com.supera.case_supera.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -3,12 +3,19 @@ package br.com.supera.case_supera.repository;
 import br.com.supera.case_supera.entity.AccessHistory;
 import br.com.supera.case_supera.entity.AccessRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AccessHistoryRepository extends JpaRepository<AccessHistory, Long> {
     List<AccessHistory> findByAccessRequestOrderByChangeDateDesc(AccessRequest accessRequest);
+
+    @Query("SELECT h FROM AccessHistory h WHERE h.accessRequest.id IN :requestIds " +
+           "AND h.id = (SELECT MAX(h2.id) FROM AccessHistory h2 WHERE h2.accessRequest = h.accessRequest)")
+    List<AccessHistory> findLatestByRequestIds(@Param("requestIds") Collection<Long> requestIds);
 }
 
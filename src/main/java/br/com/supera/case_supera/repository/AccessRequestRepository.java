@@ -4,14 +4,17 @@ import br.com.supera.case_supera.entity.AccessRequest;
 import br.com.supera.case_supera.entity.Module;
 import br.com.supera.case_supera.entity.RequestStatus;
 import br.com.supera.case_supera.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,5 +43,47 @@ public interface AccessRequestRepository extends JpaRepository<AccessRequest, Lo
            "AND ar.expirationDate IS NOT NULL " +
            "AND ar.expirationDate <= :thresholdDate")
     List<AccessRequest> findExpiringRequests(@Param("user") User user, @Param("thresholdDate") LocalDateTime thresholdDate);
+
+    // Só os ids, em páginas por id, para reenfileirar as pendentes sem carregar as entidades
+    @Query("SELECT ar.id FROM AccessRequest ar WHERE ar.status = :status AND ar.urgent = :urgent " +
+           "AND ar.id > :afterId ORDER BY ar.id")
+    List<Long> findIdsByStatusAndUrgentAfter(@Param("status") RequestStatus status,
+                                             @Param("urgent") Boolean urgent,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    List<AccessRequest> findByStatusAndRequestDateBeforeOrderByRequestDateAsc(RequestStatus status,
+                                                                            LocalDateTime before,
+                                                                            Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ar FROM AccessRequest ar WHERE ar.id = :id AND ar.status = 'PENDENTE'")
+    Optional<AccessRequest> findPendingByIdForUpdate(@Param("id") Long id);
+
+    // Filtra pelo dono na própria consulta: solicitação de outro usuário é indistinguível de inexistente
+    @Query("SELECT ar FROM AccessRequest ar LEFT JOIN FETCH ar.requestedModules LEFT JOIN FETCH ar.history " +
+           "WHERE ar.id = :id AND ar.user.id = :userId")
+    Optional<AccessRequest> findByIdAndUserIdWithDetails(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Para renovação e cancelamento, que usam o usuário e os módulos mas não leem o histórico
+    @Query("SELECT ar FROM AccessRequest ar JOIN FETCH ar.user LEFT JOIN FETCH ar.requestedModules " +
+           "WHERE ar.id = :id AND ar.user.id = :userId")
+    Optional<AccessRequest> findByIdAndUserIdWithModules(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Cancelamento em lote: ids de outro usuário ficam de fora, como os inexistentes
+    @Query("SELECT DISTINCT ar FROM AccessRequest ar LEFT JOIN FETCH ar.requestedModules " +
+           "WHERE ar.id IN :ids AND ar.user.id = :userId")
+    List<AccessRequest> findAllByIdInAndUserIdWithModules(@Param("ids") Collection<Long> ids,
+                                                          @Param("userId") Long userId);
+
+    @Query("SELECT ar.id FROM AccessRequest ar WHERE ar.id > :afterId ORDER BY ar.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ar FROM AccessRequest ar WHERE ar.id IN :ids")
+    List<AccessRequest> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT ar FROM AccessRequest ar LEFT JOIN FETCH ar.requestedModules WHERE ar.id IN :ids")
+    List<AccessRequest> findAllWithModulesByIdIn(@Param("ids") Collection<Long> ids);
 }
 
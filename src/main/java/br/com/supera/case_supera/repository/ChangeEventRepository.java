@@ -0,0 +1,20 @@
+package br.com.supera.case_supera.repository;
+
+import br.com.supera.case_supera.entity.ChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+    List<ChangeEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<ChangeEvent> findByUserIdAndIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+            Long userId, Long after, Long upTo, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM ChangeEvent e")
+    long findMaxId();
+}
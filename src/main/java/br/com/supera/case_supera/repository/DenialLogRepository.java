@@ -0,0 +1,26 @@
+package br.com.supera.case_supera.repository;
+
+import br.com.supera.case_supera.entity.DenialLogEntry;
+import br.com.supera.case_supera.entity.DenialRule;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface DenialLogRepository extends JpaRepository<DenialLogEntry, Long> {
+
+    @Query("SELECT d FROM DenialLogEntry d WHERE d.createdAt >= :from AND d.createdAt < :to " +
+           "AND (:userId IS NULL OR d.userId = :userId) " +
+           "AND (:rule IS NULL OR d.rule = :rule) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    Page<DenialLogEntry> search(@Param("userId") Long userId,
+                                @Param("rule") DenialRule rule,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to,
+                                Pageable pageable);
+}
@@ -0,0 +1,41 @@
+package br.com.supera.case_supera.repository;
+
+import br.com.supera.case_supera.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+    Optional<IdempotencyKey> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    // Assume uma chave cuja execução não terminou dentro do prazo; só um dos concorrentes consegue
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.inProgressUntil = :lease WHERE k.id = :id AND k.response IS NULL " +
+           "AND (k.inProgressUntil IS NULL OR k.inProgressUntil < :now)")
+    int reclaim(@Param("id") Long id, @Param("lease") LocalDateTime lease, @Param("now") LocalDateTime now);
+
+    // Na transação da operação: só grava se a chave ainda é desta execução (prazo não foi assumido por outra)
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.response = :response, k.inProgressUntil = NULL " +
+           "WHERE k.id = :id AND k.inProgressUntil = :lease")
+    int complete(@Param("id") Long id, @Param("lease") LocalDateTime lease, @Param("response") String response);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.inProgressUntil = :lease AND k.response IS NULL")
+    int release(@Param("id") Long id, @Param("lease") LocalDateTime lease);
+}
@@ -3,8 +3,10 @@ package br.com.supera.case_supera.repository;
 import br.com.supera.case_supera.entity.Module;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,5 +15,16 @@ public interface ModuleRepository extends JpaRepository<Module, Long> {
     Optional<Module> findByName(String name);
     List<Module> findByActiveTrue();
     boolean existsByName(String name);
+
+    @Query("SELECT DISTINCT m FROM Module m " +
+           "LEFT JOIN FETCH m.allowedDepartments " +
+           "LEFT JOIN FETCH m.incompatibleModules " +
+           "WHERE m.id IN :ids")
+    List<Module> findAllWithRulesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT m FROM Module m " +
+           "LEFT JOIN FETCH m.allowedDepartments " +
+           "LEFT JOIN FETCH m.incompatibleModules")
+    List<Module> findAllWithRules();
 }
 
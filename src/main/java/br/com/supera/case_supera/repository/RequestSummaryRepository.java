@@ -0,0 +1,52 @@
+package br.com.supera.case_supera.repository;
+
+import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.entity.RequestSummary;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public interface RequestSummaryRepository extends JpaRepository<RequestSummary, Long>,
+        JpaSpecificationExecutor<RequestSummary> {
+
+    Sort LISTING_ORDER = Sort.by(Sort.Order.desc("requestDate"), Sort.Order.desc("requestId"));
+
+    /**
+     * Filtros da listagem. Só os critérios informados entram na consulta: um
+     * parâmetro nulo em "(:data IS NULL OR ...)" chega ao PostgreSQL sem tipo e
+     * a consulta é recusada. A busca textual cobre o protocolo e os nomes dos
+     * módulos, desnormalizados na mesma linha.
+     */
+    static Specification<RequestSummary> userRequests(Long userId, String search, RequestStatus status,
+                                                      Boolean urgent, LocalDateTime startDate,
+                                                      LocalDateTime endDate) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), userId));
+            if (search != null) {
+                predicates.add(cb.or(cb.like(root.get("protocol"), search), cb.like(root.get("moduleNames"), search)));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (urgent != null) {
+                predicates.add(cb.equal(root.get("urgent"), urgent));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("requestDate"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("requestDate"), endDate));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
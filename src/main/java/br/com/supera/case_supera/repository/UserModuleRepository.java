@@ -3,11 +3,17 @@ package br.com.supera.case_supera.repository;
 import br.com.supera.case_supera.entity.Module;
 import br.com.supera.case_supera.entity.User;
 import br.com.supera.case_supera.entity.UserModule;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,8 +25,46 @@ public interface UserModuleRepository extends JpaRepository<UserModule, Long> {
     long countActiveModulesByUser(@Param("user") User user);
     
     Optional<UserModule> findByUserAndModuleAndActiveTrue(User user, Module module);
+
+    // Existe no máximo um UserModule por (usuário, módulo), ativo ou não
+    Optional<UserModule> findByUserAndModule(User user, Module module);
     
     @Query("SELECT um.module FROM UserModule um WHERE um.user = :user AND um.active = true")
     List<Module> findActiveModulesByUser(@Param("user") User user);
+
+    @Query("SELECT um.module.id FROM UserModule um WHERE um.user.id = :userId AND um.active = true")
+    List<Long> findActiveModuleIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT um FROM UserModule um " +
+           "JOIN FETCH um.module m " +
+           "LEFT JOIN FETCH m.incompatibleModules " +
+           "WHERE um.user.id IN :userIds AND um.active = true")
+    List<UserModule> findActiveWithModuleByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT um FROM UserModule um " +
+           "WHERE um.user.id IN :userIds AND um.module.id IN :moduleIds")
+    List<UserModule> findByUserIdInAndModuleIdIn(@Param("userIds") Collection<Long> userIds,
+                                                  @Param("moduleIds") Collection<Long> moduleIds);
+
+    // Bloqueia os acessos ativos a revogar, para que o evento saia só para o que o UPDATE de fato desativar
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT um FROM UserModule um " +
+           "WHERE um.user.id = :userId AND um.module.id IN :moduleIds AND um.active = true")
+    List<UserModule> findActiveForUpdate(@Param("userId") Long userId, @Param("moduleIds") Collection<Long> moduleIds);
+
+    @Modifying
+    @Query("UPDATE UserModule um SET um.active = false " +
+           "WHERE um.user.id = :userId " +
+           "AND um.module.id IN :moduleIds " +
+           "AND um.active = true")
+    int deactivateActiveModules(@Param("userId") Long userId, @Param("moduleIds") Collection<Long> moduleIds);
+
+    @Query("SELECT um FROM UserModule um WHERE um.active = true AND um.expirationDate < :now " +
+           "ORDER BY um.expirationDate")
+    List<UserModule> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE UserModule um SET um.active = false WHERE um.id = :id AND um.active = true")
+    int deactivateIfActive(@Param("id") Long id);
 }
 
@@ -0,0 +1,154 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.AccessEvaluationDTO;
+import br.com.supera.case_supera.dto.AccessEvaluationRequestDTO;
+import br.com.supera.case_supera.dto.AccessViolationDTO;
+import br.com.supera.case_supera.dto.ModuleRequestability;
+import br.com.supera.case_supera.dto.RequestableModuleDTO;
+import br.com.supera.case_supera.entity.DenialRule;
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.entity.User;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Simulação de uma solicitação de acesso: aplica as mesmas validações e regras
+ * de {@link AccessRequestService#createAccessRequest} sem gravar nada, sobre o
+ * catálogo de módulos e os acessos do usuário em cache, e retorna todas as
+ * violações de uma vez em vez de parar na primeira.
+ */
+@Service
+public class AccessEvaluationService {
+
+    static final String MODULE_NOT_FOUND = "MODULE_NOT_FOUND";
+    static final String MODULE_INACTIVE = "MODULE_INACTIVE";
+    static final String ACCESS_ALREADY_ACTIVE = "ACCESS_ALREADY_ACTIVE";
+
+    private final ModuleService moduleService;
+    private final UserGrantCache userGrantCache;
+
+    public AccessEvaluationService(ModuleService moduleService, UserGrantCache userGrantCache) {
+        this.moduleService = moduleService;
+        this.userGrantCache = userGrantCache;
+    }
+
+    @Timed(value = "access_requests.operation", extraTags = {"operation", "evaluate"}, histogram = true)
+    public AccessEvaluationDTO evaluate(User user, AccessEvaluationRequestDTO dto) {
+        Map<Long, Module> catalog = moduleService.getModuleCatalog();
+        List<Long> activeModuleIds = userGrantCache.getActiveModuleIds(user.getId());
+        List<AccessViolationDTO> violations = new ArrayList<>();
+
+        // Mesmas validações de createAccessRequest, por módulo
+        Set<Module> requestedModules = new LinkedHashSet<>();
+        for (Long moduleId : new LinkedHashSet<>(dto.getModuleIds())) {
+            Module module = catalog.get(moduleId);
+            if (module == null) {
+                violations.add(violation(MODULE_NOT_FOUND, "Módulo não encontrado: " + moduleId, moduleId));
+                continue;
+            }
+            if (!module.getActive()) {
+                violations.add(violation(MODULE_INACTIVE, "Módulo não está ativo: " + module.getName(), moduleId));
+            }
+            if (activeModuleIds.contains(moduleId)) {
+                violations.add(violation(ACCESS_ALREADY_ACTIVE,
+                        "Você já possui acesso ativo ao módulo: " + module.getName(), moduleId));
+            }
+            requestedModules.add(module);
+        }
+
+        String justification = dto.getJustification();
+        if (justification != null && !justification.isBlank() && AccessRules.isGenericJustification(justification)) {
+            violations.add(violation(DenialRule.GENERIC_JUSTIFICATION.name(),
+                    DenialRule.GENERIC_JUSTIFICATION.getMessage(), null));
+        }
+
+        // Regras da aprovação automática
+        List<Module> activeModules = activeModuleIds.stream()
+                .map(catalog::get)
+                .filter(Objects::nonNull)
+                .toList();
+        for (DenialRule rule : AccessRules.allViolations(
+                user.getDepartment(), requestedModules, activeModules, activeModuleIds.size())) {
+            violations.add(violation(rule.name(), rule.getMessage(), null));
+        }
+
+        return AccessEvaluationDTO.builder()
+                .approved(violations.isEmpty())
+                .violations(violations)
+                .build();
+    }
+
+    /**
+     * Situação de cada módulo ativo do catálogo para uma nova solicitação do
+     * usuário, considerando uma solicitação só com aquele módulo. Usa os mesmos
+     * caches da simulação: nenhuma consulta ao banco por módulo.
+     */
+    @Timed(value = "access_requests.operation", extraTags = {"operation", "requestable_modules"}, histogram = true)
+    public List<RequestableModuleDTO> getRequestableModules(User user) {
+        Map<Long, Module> catalog = moduleService.getModuleCatalog();
+        List<Long> activeModuleIds = userGrantCache.getActiveModuleIds(user.getId());
+        List<Module> activeModules = activeModuleIds.stream()
+                .map(catalog::get)
+                .filter(Objects::nonNull)
+                .toList();
+        boolean limitReached = activeModuleIds.size() + 1 > AccessRules.maxModules(user.getDepartment());
+
+        return catalog.values().stream()
+                .filter(Module::getActive)
+                .sorted(Comparator.comparing(Module::getName))
+                .map(module -> requestability(user, module, activeModuleIds, activeModules, limitReached))
+                .toList();
+    }
+
+    private RequestableModuleDTO requestability(User user, Module module, List<Long> activeModuleIds,
+                                                List<Module> activeModules, boolean limitReached) {
+        RequestableModuleDTO.RequestableModuleDTOBuilder dto = RequestableModuleDTO.builder()
+                .id(module.getId())
+                .name(module.getName())
+                .description(module.getDescription())
+                .incompatibleWith(List.of());
+
+        if (activeModuleIds.contains(module.getId())) {
+            return dto.status(ModuleRequestability.ALREADY_ACTIVE)
+                    .message("Você já possui acesso ativo ao módulo: " + module.getName())
+                    .build();
+        }
+        if (!AccessRules.isDepartmentAllowed(user.getDepartment(), module)) {
+            return dto.status(ModuleRequestability.DEPARTMENT_NOT_ALLOWED)
+                    .message(DenialRule.DEPARTMENT_NOT_ALLOWED.getMessage())
+                    .build();
+        }
+        List<String> incompatibleWith = activeModules.stream()
+                .filter(active -> AccessRules.areIncompatible(module, active))
+                .map(Module::getName)
+                .toList();
+        if (!incompatibleWith.isEmpty()) {
+            return dto.status(ModuleRequestability.INCOMPATIBLE_MODULE)
+                    .incompatibleWith(incompatibleWith)
+                    .message("Módulo incompatível com: " + String.join(", ", incompatibleWith))
+                    .build();
+        }
+        if (limitReached) {
+            return dto.status(ModuleRequestability.MODULE_LIMIT_REACHED)
+                    .message(DenialRule.MODULE_LIMIT_REACHED.getMessage())
+                    .build();
+        }
+        return dto.status(ModuleRequestability.REQUESTABLE).build();
+    }
+
+    private AccessViolationDTO violation(String rule, String message, Long moduleId) {
+        return AccessViolationDTO.builder()
+                .rule(rule)
+                .message(message)
+                .moduleId(moduleId)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.entity.UserModule;
+import br.com.supera.case_supera.repository.UserModuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Desativa os acessos vencidos e registra ACCESS_EXPIRED no feed de alterações.
+ *
+ * Roda em todos os nós: cada acesso é desativado por um UPDATE condicional
+ * (active = true), então só o nó que efetivamente o desativou grava o evento.
+ */
+@Service
+public class AccessExpirationSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessExpirationSweeper.class);
+
+    private final UserModuleRepository userModuleRepository;
+    private final ChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${access-expiration.batch-size:200}")
+    private int batchSize = 200;
+
+    public AccessExpirationSweeper(UserModuleRepository userModuleRepository,
+                                   ChangeFeedService changeFeedService,
+                                   PlatformTransactionManager transactionManager) {
+        this.userModuleRepository = userModuleRepository;
+        this.changeFeedService = changeFeedService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${access-expiration.sweep-interval:PT1M}")
+    public void expireAccesses() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        BatchResult batch;
+        // Um lote por transação; repete enquanto encontrar lotes cheios
+        do {
+            batch = transactionTemplate.execute(status -> expireBatch(now));
+            expired += batch.deactivated();
+        } while (batch.candidates() == batchSize);
+
+        if (expired > 0) {
+            log.info("{} acessos vencidos desativados", expired);
+        }
+    }
+
+    private BatchResult expireBatch(LocalDateTime now) {
+        List<UserModule> candidates = userModuleRepository.findExpired(now, PageRequest.of(0, batchSize));
+        int deactivated = 0;
+        for (UserModule userModule : candidates) {
+            if (userModuleRepository.deactivateIfActive(userModule.getId()) == 1) {
+                changeFeedService.recordExpiration(userModule);
+                deactivated++;
+            }
+        }
+        return new BatchResult(candidates.size(), deactivated);
+    }
+
+    private record BatchResult(int candidates, int deactivated) {
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.supera.case_supera.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila de solicitações pendentes de avaliação no modo assíncrono.
+ * Solicitações urgentes são avaliadas primeiro; entre solicitações de mesma
+ * prioridade a ordem de chegada é preservada. Uma solicitação já na fila não é
+ * enfileirada de novo (ex.: pela varredura de pendentes antigas do worker).
+ */
+@Component
+public class AccessRequestEvaluationQueue {
+
+    private static final Comparator<PendingEvaluation> URGENT_FIRST = Comparator
+            .comparing(PendingEvaluation::urgent).reversed()
+            .thenComparingLong(PendingEvaluation::sequence);
+
+    private final PriorityBlockingQueue<PendingEvaluation> queue = new PriorityBlockingQueue<>(64, URGENT_FIRST);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Enfileira a solicitação somente após o commit da transação corrente,
+     * para que o worker nunca leia uma solicitação ainda não persistida.
+     */
+    public void enqueueAfterCommit(Long requestId, boolean urgent) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(requestId, urgent);
+                }
+            });
+        } else {
+            enqueue(requestId, urgent);
+        }
+    }
+
+    public void enqueue(Long requestId, boolean urgent) {
+        if (queued.add(requestId)) {
+            queue.offer(new PendingEvaluation(requestId, urgent, sequence.incrementAndGet(), 0));
+        }
+    }
+
+    void retry(PendingEvaluation evaluation) {
+        if (queued.add(evaluation.requestId())) {
+            queue.offer(new PendingEvaluation(evaluation.requestId(), evaluation.urgent(),
+                    sequence.incrementAndGet(), evaluation.attempts() + 1));
+        }
+    }
+
+    PendingEvaluation poll(long timeout, TimeUnit unit) throws InterruptedException {
+        PendingEvaluation evaluation = queue.poll(timeout, unit);
+        if (evaluation != null) {
+            queued.remove(evaluation.requestId());
+        }
+        return evaluation;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    record PendingEvaluation(Long requestId, boolean urgent, long sequence, int attempts) {
+    }
+}
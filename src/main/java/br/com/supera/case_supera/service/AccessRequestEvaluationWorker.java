@@ -0,0 +1,190 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.entity.AccessRequest;
+import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.repository.AccessRequestRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avalia em segundo plano as solicitações criadas no modo assíncrono.
+ * Um número fixo de virtual threads consome a {@link AccessRequestEvaluationQueue},
+ * limitando quantas avaliações (e conexões com o banco) rodam ao mesmo tempo.
+ *
+ * Uma solicitação que esgota as tentativas é encerrada como NEGADO. A fila é
+ * local ao nó: uma solicitação cujo enfileiramento se perdeu continua PENDENTE
+ * no banco, e uma varredura periódica reenfileira as pendentes mais antigas que
+ * {@code access-requests.async.stale-after}.
+ */
+@Component
+public class AccessRequestEvaluationWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessRequestEvaluationWorker.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AccessRequestEvaluationQueue queue;
+    private final AccessRequestService accessRequestService;
+    private final AccessRequestRepository accessRequestRepository;
+    private final MeterRegistry meterRegistry;
+    private final List<Thread> workers = new ArrayList<>();
+
+    @Value("${access-requests.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${access-requests.async.workers:4}")
+    private int workerCount;
+
+    @Value("${access-requests.async.stale-after:PT5M}")
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    @Value("${access-requests.async.rescan-batch-size:500}")
+    private int rescanBatchSize = 500;
+
+    private volatile boolean running;
+
+    public AccessRequestEvaluationWorker(
+            AccessRequestEvaluationQueue queue,
+            AccessRequestService accessRequestService,
+            AccessRequestRepository accessRequestRepository,
+            MeterRegistry meterRegistry) {
+        this.queue = queue;
+        this.accessRequestService = accessRequestService;
+        this.accessRequestRepository = accessRequestRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!asyncEnabled) {
+            return;
+        }
+
+        Gauge.builder("access_requests.evaluation.queue", queue, AccessRequestEvaluationQueue::size)
+                .description("Solicitações aguardando avaliação")
+                .register(meterRegistry);
+
+        // Reenfileira solicitações que ficaram pendentes (ex.: reinício do nó), lendo só os ids em páginas.
+        // Se outro nó já estiver avaliando a mesma solicitação, o lock em
+        // findPendingByIdForUpdate garante que ela seja avaliada uma única vez.
+        enqueuePending(true);
+        enqueuePending(false);
+
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual()
+                    .name("access-request-evaluator-" + i)
+                    .start(this::run));
+        }
+        log.info("Avaliação assíncrona de solicitações iniciada com {} workers", workerCount);
+    }
+
+    private void enqueuePending(boolean urgent) {
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = accessRequestRepository.findIdsByStatusAndUrgentAfter(RequestStatus.PENDENTE, urgent,
+                    afterId, PageRequest.of(0, rescanBatchSize));
+            ids.forEach(id -> queue.enqueue(id, urgent));
+            if (ids.size() < rescanBatchSize) {
+                return;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            AccessRequestEvaluationQueue.PendingEvaluation evaluation;
+            try {
+                evaluation = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (evaluation != null) {
+                evaluate(evaluation);
+            }
+        }
+    }
+
+    private void evaluate(AccessRequestEvaluationQueue.PendingEvaluation evaluation) {
+        try {
+            accessRequestService.evaluatePendingRequest(evaluation.requestId())
+                    .ifPresent(this::recordDecision);
+        } catch (Exception e) {
+            if (evaluation.attempts() + 1 < MAX_ATTEMPTS) {
+                log.warn("Falha ao avaliar solicitação {}, nova tentativa agendada", evaluation.requestId(), e);
+                queue.retry(evaluation);
+            } else {
+                log.error("Falha ao avaliar solicitação {} após {} tentativas", evaluation.requestId(), MAX_ATTEMPTS, e);
+                fail(evaluation.requestId());
+            }
+        }
+    }
+
+    /**
+     * Grava o status final NEGADO, para a solicitação não voltar à fila a cada
+     * varredura. Se nem isso for possível (ex.: banco fora), ela continua
+     * PENDENTE e a varredura de pendentes antigas tenta de novo.
+     */
+    private void fail(Long requestId) {
+        try {
+            if (accessRequestService.failPendingRequest(requestId)) {
+                meterRegistry.counter("access_requests.evaluation.failed").increment();
+            }
+        } catch (Exception e) {
+            log.error("Falha ao encerrar a solicitação {}", requestId, e);
+        }
+    }
+
+    /**
+     * Reenfileira as solicitações PENDENTE há mais de stale-after. Todos os nós
+     * varrem; o lock em findPendingByIdForUpdate faz só um deles decidir e os
+     * demais encontram a solicitação já decidida.
+     */
+    @Scheduled(fixedDelayString = "${access-requests.async.rescan-interval:PT1M}")
+    public void requeueStale() {
+        if (!running) {
+            return;
+        }
+        List<AccessRequest> stale = accessRequestRepository.findByStatusAndRequestDateBeforeOrderByRequestDateAsc(
+                RequestStatus.PENDENTE, LocalDateTime.now().minus(staleAfter), PageRequest.of(0, rescanBatchSize));
+        for (AccessRequest pending : stale) {
+            queue.enqueue(pending.getId(), Boolean.TRUE.equals(pending.getUrgent()));
+        }
+        if (!stale.isEmpty()) {
+            log.warn("{} solicitações pendentes há mais de {} reenfileiradas", stale.size(), staleAfter);
+        }
+    }
+
+    private void recordDecision(AccessRequest request) {
+        Timer.builder("access_requests.decision.latency")
+                .description("Tempo entre o recebimento da solicitação e a decisão")
+                .tag("status", request.getStatus().name())
+                .tag("urgent", String.valueOf(Boolean.TRUE.equals(request.getUrgent())))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.between(request.getRequestDate(), LocalDateTime.now()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+}
@@ -0,0 +1,319 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.AccessHistoryDTO;
+import br.com.supera.case_supera.entity.HistoryReason;
+import br.com.supera.case_supera.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exportação de todas as solicitações de um usuário, com módulos e histórico,
+ * em NDJSON (uma solicitação por linha) ou CSV (uma linha por entrada de
+ * histórico). As linhas são lidas por cursor (fetch size) e escritas direto
+ * na resposta à medida que chegam, então a memória não cresce com o número
+ * de solicitações. O histórico já arquivado ({@link PartitionArchive}) entra
+ * antes do histórico do banco, como no detalhe da solicitação.
+ */
+@Service
+public class AccessRequestExportService {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final String CSV_HEADER = "protocol,status,urgent,request_date,expiration_date,modules,"
+            + "justification,denial_reason,history_date,history_previous_status,history_new_status,history_reason";
+
+    // Uma linha por entrada de histórico (ou uma linha sem histórico), já em ordem de solicitação;
+    // os ids dos módulos vêm agregados para não multiplicar as linhas pelo join com request_modules
+    private static final String EXPORT_QUERY =
+            "SELECT r.id, r.protocol, r.status, r.urgent, r.request_date, r.expiration_date, r.justification, " +
+            "r.denial_reason, (%s) AS module_ids, h.change_date, h.previous_status, h.new_status, h.reason_code, h.reason_params, h.reason " +
+            "FROM access_requests r LEFT JOIN access_history h ON h.request_id = r.id " +
+            "WHERE r.user_id = ? ORDER BY r.id, h.change_date, h.id";
+    private static final String POSTGRES_MODULE_IDS =
+            "SELECT string_agg(rm.module_id::text, ',' ORDER BY rm.module_id) FROM request_modules rm WHERE rm.request_id = r.id";
+    private static final String H2_MODULE_IDS =
+            "SELECT LISTAGG(CAST(rm.module_id AS VARCHAR), ',') WITHIN GROUP (ORDER BY rm.module_id) FROM request_modules rm WHERE rm.request_id = r.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final PartitionArchive partitionArchive;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${access-requests.export.fetch-size:500}")
+    private int fetchSize = 500;
+
+    private volatile String exportQuery;
+
+    public AccessRequestExportService(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            PartitionArchive partitionArchive,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.partitionArchive = partitionArchive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Somente leitura: vai para a réplica quando configurada, e o PostgreSQL
+        // só usa cursor (fetch size) dentro de uma transação
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Validação antecipada do formato, antes de a resposta receber Content-Type e corpo.
+     */
+    public static void requireSupportedFormat(String format) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new BusinessException("Formato de exportação não suportado: " + format);
+        }
+    }
+
+    public void export(Long userId, String format, OutputStream output) {
+        requireSupportedFormat(format);
+        boolean csv = FORMAT_CSV.equals(format);
+
+        Map<Long, String> moduleNames = moduleNames();
+        try {
+            ExportWriter writer = csv
+                    ? new CsvExportWriter(output, moduleNames)
+                    : new NdjsonExportWriter(objectMapper, output, moduleNames);
+            transactionTemplate.executeWithoutResult(status -> {
+                JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+                streaming.setFetchSize(fetchSize);
+                long[] currentRequestId = {-1};
+                streaming.query(exportQuery(), (RowCallbackHandler) rs -> {
+                    // Histórico arquivado na primeira linha de cada solicitação
+                    List<AccessHistoryDTO> archived = List.of();
+                    long requestId = rs.getLong("id");
+                    if (requestId != currentRequestId[0]) {
+                        currentRequestId[0] = requestId;
+                        archived = partitionArchive.findHistory(requestId,
+                                rs.getTimestamp("request_date").toLocalDateTime(), moduleNames::get);
+                    }
+                    try {
+                        writer.row(rs, archived);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, userId);
+            });
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao escrever exportação", e);
+        }
+    }
+
+    private Map<Long, String> moduleNames() {
+        Map<Long, String> names = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM modules",
+                (RowCallbackHandler) rs -> names.put(rs.getLong("id"), rs.getString("name")));
+        return names;
+    }
+
+    private String exportQuery() {
+        if (exportQuery == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            exportQuery = String.format(EXPORT_QUERY, "H2".equalsIgnoreCase(product) ? H2_MODULE_IDS : POSTGRES_MODULE_IDS);
+        }
+        return exportQuery;
+    }
+
+    private static List<String> modules(String moduleIds, Map<Long, String> moduleNames) {
+        List<String> modules = new ArrayList<>();
+        if (moduleIds != null && !moduleIds.isEmpty()) {
+            for (String id : moduleIds.split(",")) {
+                modules.add(moduleNames.getOrDefault(Long.valueOf(id.trim()), id.trim()));
+            }
+        }
+        return modules;
+    }
+
+    private static String timestamp(ResultSet rs, String column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value == null ? null : value.toLocalDateTime().toString();
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    // Motivo do histórico montado a partir do código e parâmetros, como na API
+    private static String historyReason(ResultSet rs, Map<Long, String> moduleNames) throws SQLException {
+        short code = rs.getShort("reason_code");
+        HistoryReason reasonCode = rs.wasNull() ? null : HistoryReason.fromCode(code);
+        return HistoryReason.render(reasonCode, rs.getString("reason_params"), rs.getString("reason"),
+                moduleNames::get);
+    }
+
+    private interface ExportWriter {
+        /**
+         * @param archived histórico arquivado da solicitação, só na primeira linha dela (vazio nas demais)
+         */
+        void row(ResultSet rs, List<AccessHistoryDTO> archived) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * Uma solicitação por linha; as entradas de histórico da mesma solicitação
+     * chegam em sequência e são acrescentadas ao array "history" aberto.
+     */
+    private static final class NdjsonExportWriter implements ExportWriter {
+
+        private final JsonGenerator generator;
+        private final Map<Long, String> moduleNames;
+        private long currentRequestId = -1;
+
+        NdjsonExportWriter(ObjectMapper objectMapper, OutputStream output, Map<Long, String> moduleNames) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(output);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.moduleNames = moduleNames;
+        }
+
+        @Override
+        public void row(ResultSet rs, List<AccessHistoryDTO> archived) throws SQLException, IOException {
+            long requestId = rs.getLong("id");
+            if (requestId != currentRequestId) {
+                closeRequest();
+                currentRequestId = requestId;
+                generator.writeStartObject();
+                generator.writeStringField("protocol", rs.getString("protocol"));
+                generator.writeStringField("status", rs.getString("status"));
+                generator.writeBooleanField("urgent", rs.getBoolean("urgent"));
+                generator.writeStringField("requestDate", timestamp(rs, "request_date"));
+                generator.writeStringField("expirationDate", timestamp(rs, "expiration_date"));
+                generator.writeStringField("justification", rs.getString("justification"));
+                generator.writeStringField("denialReason", rs.getString("denial_reason"));
+                generator.writeArrayFieldStart("modules");
+                for (String module : modules(rs.getString("module_ids"), moduleNames)) {
+                    generator.writeString(module);
+                }
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("history");
+            }
+            for (AccessHistoryDTO entry : archived) {
+                writeHistory(entry.getChangeDate().toString(), name(entry.getPreviousStatus()),
+                        entry.getNewStatus().name(), entry.getReason());
+            }
+            String changeDate = timestamp(rs, "change_date");
+            if (changeDate != null) {
+                writeHistory(changeDate, rs.getString("previous_status"), rs.getString("new_status"),
+                        historyReason(rs, moduleNames));
+            }
+        }
+
+        private void writeHistory(String changeDate, String previousStatus, String newStatus, String reason)
+                throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("changeDate", changeDate);
+            generator.writeStringField("previousStatus", previousStatus);
+            generator.writeStringField("newStatus", newStatus);
+            generator.writeStringField("reason", reason);
+            generator.writeEndObject();
+        }
+
+        private void closeRequest() throws IOException {
+            if (currentRequestId != -1) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            closeRequest();
+            generator.flush();
+        }
+    }
+
+    /**
+     * Uma linha por entrada de histórico, repetindo os dados da solicitação;
+     * solicitações sem histórico saem numa linha com as colunas de histórico vazias.
+     */
+    private static final class CsvExportWriter implements ExportWriter {
+
+        private final Writer writer;
+        private final Map<Long, String> moduleNames;
+
+        CsvExportWriter(OutputStream output, Map<Long, String> moduleNames) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            this.moduleNames = moduleNames;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void row(ResultSet rs, List<AccessHistoryDTO> archived) throws SQLException, IOException {
+            for (AccessHistoryDTO entry : archived) {
+                writeRequest(rs);
+                write(entry.getChangeDate().toString(), false);
+                write(name(entry.getPreviousStatus()), false);
+                write(entry.getNewStatus().name(), false);
+                write(entry.getReason(), true);
+            }
+            // Sem histórico no banco, a linha vazia só sai se também não houver histórico arquivado
+            if (!archived.isEmpty() && rs.getTimestamp("change_date") == null) {
+                return;
+            }
+            writeRequest(rs);
+            write(timestamp(rs, "change_date"), false);
+            write(rs.getString("previous_status"), false);
+            write(rs.getString("new_status"), false);
+            write(historyReason(rs, moduleNames), true);
+        }
+
+        private void writeRequest(ResultSet rs) throws SQLException, IOException {
+            write(rs.getString("protocol"), false);
+            write(rs.getString("status"), false);
+            write(String.valueOf(rs.getBoolean("urgent")), false);
+            write(timestamp(rs, "request_date"), false);
+            write(timestamp(rs, "expiration_date"), false);
+            write(String.join(";", modules(rs.getString("module_ids"), moduleNames)), false);
+            write(rs.getString("justification"), false);
+            write(rs.getString("denial_reason"), false);
+        }
+
+        private void write(String value, boolean last) throws IOException {
+            if (value != null) {
+                writer.write(escape(value));
+            }
+            writer.write(last ? '\n' : ',');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
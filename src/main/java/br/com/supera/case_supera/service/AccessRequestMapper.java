@@ -0,0 +1,84 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.AccessHistoryDTO;
+import br.com.supera.case_supera.dto.AccessRequestResponseDTO;
+import br.com.supera.case_supera.entity.AccessHistory;
+import br.com.supera.case_supera.entity.AccessRequest;
+import br.com.supera.case_supera.entity.HistoryReason;
+import br.com.supera.case_supera.entity.Module;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Conversões da solicitação usadas pelo {@link AccessRequestService}.
+ * Funções puras, sem acesso ao banco, para que possam ser medidas isoladamente
+ * (ver AccessRequestMappingBenchmark).
+ */
+final class AccessRequestMapper {
+
+    private static final DateTimeFormatter PROTOCOL_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private AccessRequestMapper() {
+    }
+
+    /**
+     * Protocolo no formato SOL-yyyyMMdd-NNNN.
+     */
+    static String protocol(LocalDateTime date, long sequence) {
+        return "SOL-" + date.format(PROTOCOL_DATE) + "-" + String.format("%04d", sequence);
+    }
+
+    static AccessRequestResponseDTO toDTO(AccessRequest request) {
+        return AccessRequestResponseDTO.builder()
+                .id(request.getId())
+                .protocol(request.getProtocol())
+                .requestedModules(request.getRequestedModules().stream()
+                        .map(Module::getName)
+                        .collect(Collectors.toList()))
+                .justification(request.getJustification())
+                .urgent(request.getUrgent())
+                .status(request.getStatus())
+                .requestDate(request.getRequestDate())
+                .expirationDate(request.getExpirationDate())
+                .denialReason(request.getDenialReason())
+                .history(distinctHistory(request).stream()
+                        .map(h -> AccessHistoryDTO.builder()
+                                .previousStatus(h.getPreviousStatus())
+                                .newStatus(h.getNewStatus())
+                                .changeDate(h.getChangeDate())
+                                .reasonCode(h.getReasonCode())
+                                .reason(HistoryReason.render(h.getReasonCode(), h.getReasonParams(), h.getReason(),
+                                        moduleNames(request)))
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Nome pelo id entre os módulos da própria solicitação, os únicos citados no seu histórico.
+     */
+    static Function<Long, String> moduleNames(AccessRequest request) {
+        return id -> request.getRequestedModules().stream()
+                .filter(module -> id.equals(module.getId()))
+                .map(Module::getName)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Histórico sem repetições. Com módulos e histórico no mesmo JOIN FETCH, o
+     * Hibernate repete cada entrada da lista (bag) uma vez por módulo; as
+     * repetições são a mesma instância e a ordem (@OrderBy) é preservada.
+     */
+    private static List<AccessHistory> distinctHistory(AccessRequest request) {
+        Set<AccessHistory> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        return request.getHistory().stream().filter(seen::add).toList();
+    }
+}
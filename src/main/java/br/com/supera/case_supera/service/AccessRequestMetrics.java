@@ -0,0 +1,42 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.entity.DenialRule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Contadores das decisões automáticas sobre solicitações de acesso.
+ * Os contadores de negação são registrados para todas as regras na
+ * inicialização, para que apareçam zerados no Prometheus.
+ */
+@Component
+public class AccessRequestMetrics {
+
+    private final Counter approvals;
+    private final Map<DenialRule, Counter> denials = new EnumMap<>(DenialRule.class);
+
+    public AccessRequestMetrics(MeterRegistry meterRegistry) {
+        this.approvals = Counter.builder("access_requests.approvals")
+                .description("Solicitações e renovações aprovadas automaticamente")
+                .register(meterRegistry);
+        for (DenialRule rule : DenialRule.values()) {
+            denials.put(rule, Counter.builder("access_requests.denials")
+                    .description("Solicitações negadas, por regra")
+                    .tag("rule", rule.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    public void recordApproval() {
+        approvals.increment();
+    }
+
+    public void recordDenial(DenialRule rule) {
+        denials.get(rule).increment();
+    }
+}
@@ -3,9 +3,12 @@ package br.com.supera.case_supera.service;
 import br.com.supera.case_supera.dto.AccessRequestDTO;
 import br.com.supera.case_supera.dto.AccessRequestResponseDTO;
 import br.com.supera.case_supera.dto.AccessHistoryDTO;
+import br.com.supera.case_supera.dto.RequestStatusDTO;
 import br.com.supera.case_supera.entity.AccessHistory;
 import br.com.supera.case_supera.entity.AccessRequest;
-import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.DenialOperation;
+import br.com.supera.case_supera.entity.DenialRule;
+import br.com.supera.case_supera.entity.HistoryReason;
 import br.com.supera.case_supera.entity.Module;
 import br.com.supera.case_supera.entity.RequestStatus;
 import br.com.supera.case_supera.entity.User;
@@ -17,26 +20,24 @@ import br.com.supera.case_supera.repository.AccessRequestRepository;
 import br.com.supera.case_supera.repository.ModuleRepository;
 import br.com.supera.case_supera.repository.UserModuleRepository;
 import br.com.supera.case_supera.repository.UserRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
-import jakarta.persistence.criteria.Join;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -48,61 +49,113 @@ public class AccessRequestService {
     private final ModuleRepository moduleRepository;
     private final UserModuleRepository userModuleRepository;
     private final AccessHistoryRepository accessHistoryRepository;
+    private final AccessRequestEvaluationQueue evaluationQueue;
+    private final AccessRequestMetrics metrics;
+    private final ChangeFeedService changeFeedService;
+    private final DenialLogService denialLogService;
+    private final PartitionArchive partitionArchive;
+    private final RequestSummaryService requestSummaryService;
+    private final ObservationRegistry observationRegistry;
 
-    @PersistenceContext
-    private EntityManager entityManager;
+    @Value("${access-requests.async.enabled:false}")
+    private boolean asyncEnabled;
 
     public AccessRequestService(
             AccessRequestRepository accessRequestRepository,
             UserRepository userRepository,
             ModuleRepository moduleRepository,
             UserModuleRepository userModuleRepository,
-            AccessHistoryRepository accessHistoryRepository) {
+            AccessHistoryRepository accessHistoryRepository,
+            AccessRequestEvaluationQueue evaluationQueue,
+            AccessRequestMetrics metrics,
+            ChangeFeedService changeFeedService,
+            DenialLogService denialLogService,
+            PartitionArchive partitionArchive,
+            RequestSummaryService requestSummaryService,
+            ObservationRegistry observationRegistry) {
         this.accessRequestRepository = accessRequestRepository;
         this.userRepository = userRepository;
         this.moduleRepository = moduleRepository;
         this.userModuleRepository = userModuleRepository;
         this.accessHistoryRepository = accessHistoryRepository;
+        this.evaluationQueue = evaluationQueue;
+        this.metrics = metrics;
+        this.changeFeedService = changeFeedService;
+        this.denialLogService = denialLogService;
+        this.partitionArchive = partitionArchive;
+        this.requestSummaryService = requestSummaryService;
+        this.observationRegistry = observationRegistry;
     }
 
+    @Timed(value = "access_requests.operation", extraTags = {"operation", "create"}, histogram = true)
     public String createAccessRequest(Long userId, AccessRequestDTO dto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
+        User user = phase("load_user", () -> userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado")));
 
         // Validar módulos
-        Set<Module> requestedModules = dto.getModuleIds().stream()
+        Set<Module> requestedModules = phase("resolve_modules", () -> dto.getModuleIds().stream()
                 .map(id -> moduleRepository.findById(id)
                         .orElseThrow(() -> new ResourceNotFoundException("Módulo não encontrado: " + id)))
-                .collect(Collectors.toSet());
-
-        // Validações de negócio
-        validateRequest(user, requestedModules, dto.getJustification());
-
-        // Gerar protocolo
-        String protocol = generateProtocol();
-
-        // Criar solicitação
-        AccessRequest request = AccessRequest.builder()
-                .protocol(protocol)
+                .collect(Collectors.toSet()));
+
+        // Validações de negócio; os módulos ativos do usuário são lidos uma vez e reaproveitados pelas regras
+        List<Module> activeModules = phase("validate", () -> {
+            List<Module> active = userModuleRepository.findActiveModulesByUser(user);
+            validateRequest(requestedModules, active, dto.getJustification());
+            return active;
+        });
+
+        // No modo síncrono as regras são avaliadas antes de gravar (no assíncrono, pelos workers);
+        // com denial-storage=log uma negação vira só uma linha em denial_log, sem protocolo
+        Optional<DenialRule> violation = asyncEnabled ? Optional.empty()
+                : phase("evaluate_rules", () -> evaluateRules(user, requestedModules, activeModules));
+        if (violation.isPresent() && denialLogService.isLogStorage()) {
+            logDenial(user, DenialOperation.CREATE, violation.get(), requestedModules, null);
+            return "Solicitação negada. Motivo: " + violation.get().getMessage();
+        }
+
+        // Gerar protocolo, criar solicitação e salvar primeiro para ter ID (necessário para o histórico)
+        AccessRequest request = phase("persist", () -> accessRequestRepository.save(AccessRequest.builder()
+                .protocol(generateProtocol())
                 .user(user)
                 .requestedModules(requestedModules)
                 .justification(dto.getJustification())
                 .urgent(dto.getUrgent() != null && dto.getUrgent())
+                .status(asyncEnabled ? RequestStatus.PENDENTE : RequestStatus.ATIVO)
                 .requestDate(LocalDateTime.now())
-                .build();
+                .build()));
+        String protocol = request.getProtocol();
 
-        // Salvar request primeiro para ter ID (necessário para o histórico)
-        request = accessRequestRepository.save(request);
+        // Modo assíncrono: as regras são avaliadas depois pelos workers, urgentes primeiro
+        if (asyncEnabled) {
+            addHistory(request, null, RequestStatus.PENDENTE, HistoryReason.REQUEST_RECEIVED, null);
+            accessRequestRepository.save(request);
+            evaluationQueue.enqueueAfterCommit(request.getId(), request.getUrgent());
+            return "Solicitação recebida! Protocolo: " + protocol + ". Acompanhe o status da avaliação pelo protocolo.";
+        }
 
         // Validar e processar automaticamente (adiciona histórico se necessário)
-        String result = processAutomaticValidation(request, user);
+        return phase("grant", () -> {
+            String result = processAutomaticValidation(request, user, violation);
 
-        // Salvar novamente para persistir o histórico adicionado
-        accessRequestRepository.save(request);
-        return result;
+            // Salvar novamente para persistir o histórico adicionado
+            accessRequestRepository.save(request);
+            return result;
+        });
+    }
+
+    /**
+     * Executa uma etapa da criação dentro de um span próprio (tag {@code phase}),
+     * para separar no trace o tempo de cada parte da solicitação.
+     */
+    private <T> T phase(String name, Supplier<T> action) {
+        return Observation.createNotStarted("access_requests.phase", observationRegistry)
+                .contextualName("access-request " + name)
+                .lowCardinalityKeyValue("phase", name)
+                .observe(action);
     }
 
-    private void validateRequest(User user, Set<Module> requestedModules, String justification) {
+    private void validateRequest(Set<Module> requestedModules, List<Module> activeModules, String justification) {
         // Validar módulos ativos
         for (Module module : requestedModules) {
             if (!module.getActive()) {
@@ -114,7 +167,6 @@ public class AccessRequestService {
         // A validação de acesso já existente (via UserModule) abaixo já cobre esse caso
 
         // Validar acesso já existente
-        List<Module> activeModules = userModuleRepository.findActiveModulesByUser(user);
         for (Module module : requestedModules) {
             if (activeModules.contains(module)) {
                 throw new BusinessException("Você já possui acesso ativo ao módulo: " + module.getName());
@@ -122,222 +174,184 @@ public class AccessRequestService {
         }
 
         // Validar justificativa genérica
-        if (isGenericJustification(justification)) {
-            throw new BusinessException("Justificativa insuficiente ou genérica");
+        if (AccessRules.isGenericJustification(justification)) {
+            metrics.recordDenial(DenialRule.GENERIC_JUSTIFICATION);
+            throw new BusinessException(DenialRule.GENERIC_JUSTIFICATION.getMessage());
         }
     }
 
-    private boolean isGenericJustification(String justification) {
-        String lower = justification.toLowerCase().trim();
-        return lower.equals("teste") || 
-               lower.equals("aaa") || 
-               lower.equals("preciso") ||
-               lower.length() < 20 ||
-               lower.matches("^[a-z\\s]{1,20}$");
-    }
+    private Optional<DenialRule> evaluateRules(User user, Set<Module> requestedModules, List<Module> activeModules) {
+        long activeCount = userModuleRepository.countActiveModulesByUser(user);
 
-    private String processAutomaticValidation(AccessRequest request, User user) {
-        // Validar compatibilidade de departamento
-        for (Module module : request.getRequestedModules()) {
-            if (!isDepartmentAllowed(user.getDepartment(), module)) {
-                request.setStatus(RequestStatus.NEGADO);
-                request.setDenialReason("Departamento sem permissão para acessar este módulo");
-                addHistory(request, RequestStatus.ATIVO, RequestStatus.NEGADO, request.getDenialReason());
-                return "Solicitação negada. Motivo: " + request.getDenialReason();
-            }
-        }
+        return AccessRules.evaluate(user.getDepartment(), requestedModules, activeModules, activeCount);
+    }
 
-        // Validar módulos mutuamente exclusivos
-        List<Module> activeModules = userModuleRepository.findActiveModulesByUser(user);
-        for (Module requestedModule : request.getRequestedModules()) {
-            for (Module activeModule : activeModules) {
-                if (areIncompatible(requestedModule, activeModule)) {
-                    request.setStatus(RequestStatus.NEGADO);
-                    request.setDenialReason("Módulo incompatível com outro módulo já ativo em seu perfil");
-                    addHistory(request, RequestStatus.ATIVO, RequestStatus.NEGADO, request.getDenialReason());
-                    return "Solicitação negada. Motivo: " + request.getDenialReason();
-                }
-            }
-        }
+    private void logDenial(User user, DenialOperation operation, DenialRule rule, Set<Module> modules,
+                           Long renewedFromId) {
+        metrics.recordDenial(rule);
+        denialLogService.record(denialLogService.entry(user.getId(), operation, rule, modules, renewedFromId));
+    }
 
-        // Validar módulos mutuamente exclusivos entre os solicitados
-        List<Module> requestedList = List.copyOf(request.getRequestedModules());
-        for (int i = 0; i < requestedList.size(); i++) {
-            for (int j = i + 1; j < requestedList.size(); j++) {
-                if (areIncompatible(requestedList.get(i), requestedList.get(j))) {
-                    request.setStatus(RequestStatus.NEGADO);
-                    request.setDenialReason("Módulo incompatível com outro módulo já ativo em seu perfil");
-                    addHistory(request, RequestStatus.ATIVO, RequestStatus.NEGADO, request.getDenialReason());
-                    return "Solicitação negada. Motivo: " + request.getDenialReason();
-                }
-            }
-        }
+    private String processAutomaticValidation(AccessRequest request, User user, Optional<DenialRule> violation) {
+        // ATIVO no fluxo síncrono; PENDENTE quando avaliada pelos workers assíncronos
+        RequestStatus previousStatus = request.getStatus();
 
-        // Validar limite de módulos
-        long activeCount = userModuleRepository.countActiveModulesByUser(user);
-        int maxModules = user.getDepartment() == Department.TI ? 10 : 5;
-        
-        if (activeCount + request.getRequestedModules().size() > maxModules) {
+        if (violation.isPresent()) {
+            metrics.recordDenial(violation.get());
             request.setStatus(RequestStatus.NEGADO);
-            request.setDenialReason("Limite de módulos ativos atingido");
-            addHistory(request, RequestStatus.ATIVO, RequestStatus.NEGADO, request.getDenialReason());
+            request.setDenialReason(violation.get().getMessage());
+            addHistory(request, previousStatus, RequestStatus.NEGADO, HistoryReason.DENIED,
+                    String.valueOf(violation.get().getCode()));
             return "Solicitação negada. Motivo: " + request.getDenialReason();
         }
 
         // Aprovar e conceder acesso
+        metrics.recordApproval();
         request.setStatus(RequestStatus.ATIVO);
         request.setExpirationDate(LocalDateTime.now().plusDays(180));
-        // Para solicitações novas aprovadas automaticamente, não há status anterior real
+        // Para solicitações síncronas aprovadas automaticamente, não há status anterior real
         // Usamos ATIVO como status "anterior" apenas para satisfazer a constraint NOT NULL do banco
-        addHistory(request, RequestStatus.ATIVO, RequestStatus.ATIVO, "Solicitação aprovada automaticamente");
+        addHistory(request, previousStatus, RequestStatus.ATIVO, HistoryReason.AUTO_APPROVED, null);
 
-        // Conceder acesso aos módulos
+        // Conceder acesso aos módulos; um acesso expirado ou revogado reativa o mesmo
+        // registro, pois existe no máximo um UserModule por (usuário, módulo)
         for (Module module : request.getRequestedModules()) {
-            UserModule userModule = UserModule.builder()
-                    .user(user)
-                    .module(module)
-                    .grantedDate(LocalDateTime.now())
-                    .expirationDate(LocalDateTime.now().plusDays(180))
-                    .active(true)
-                    .build();
+            UserModule userModule = userModuleRepository.findByUserAndModule(user, module)
+                    .orElseGet(() -> UserModule.builder()
+                            .user(user)
+                            .module(module)
+                            .build());
+            userModule.setActive(true);
+            userModule.setGrantedDate(LocalDateTime.now());
+            userModule.setExpirationDate(LocalDateTime.now().plusDays(180));
             userModuleRepository.save(userModule);
+            changeFeedService.recordGrant(userModule);
         }
 
         return "Solicitação criada com sucesso! Protocolo: " + request.getProtocol() + ". Seus acessos já estão disponíveis!";
     }
 
     /**
-     * Processa validação automática para renovação de acesso
-     * Similar ao processAutomaticValidation, mas não valida acesso já existente
-     * (pois estamos renovando acessos que já existem)
+     * Avalia uma solicitação criada no modo assíncrono.
+     * O lock pessimista garante que cada solicitação pendente seja decidida uma
+     * única vez, mesmo que vários nós a tenham enfileirado.
+     *
+     * @return a solicitação decidida, ou vazio se ela não estava mais pendente
      */
-    private String processRenewalValidation(AccessRequest request, User user, AccessRequest originalRequest) {
-        // Validar compatibilidade de departamento
+    public Optional<AccessRequest> evaluatePendingRequest(Long requestId) {
+        Optional<AccessRequest> pending = accessRequestRepository.findPendingByIdForUpdate(requestId);
+        if (pending.isEmpty()) {
+            return Optional.empty();
+        }
+
+        AccessRequest request = pending.get();
+        User user = request.getUser();
+
+        // Outra solicitação pode ter concedido o mesmo módulo enquanto esta aguardava na fila
+        List<Module> activeModules = userModuleRepository.findActiveModulesByUser(user);
         for (Module module : request.getRequestedModules()) {
-            if (!isDepartmentAllowed(user.getDepartment(), module)) {
+            if (activeModules.contains(module)) {
                 request.setStatus(RequestStatus.NEGADO);
-                request.setDenialReason("Departamento sem permissão para acessar este módulo");
-                addHistory(request, RequestStatus.ATIVO, RequestStatus.NEGADO, request.getDenialReason());
-                return "Renovação negada. Motivo: " + request.getDenialReason();
+                request.setDenialReason("Você já possui acesso ativo ao módulo: " + module.getName());
+                addHistory(request, RequestStatus.PENDENTE, RequestStatus.NEGADO, HistoryReason.MODULE_ALREADY_ACTIVE,
+                        String.valueOf(module.getId()));
+                return Optional.of(accessRequestRepository.save(request));
             }
         }
 
+        processAutomaticValidation(request, user, evaluateRules(user, request.getRequestedModules(), activeModules));
+        return Optional.of(accessRequestRepository.save(request));
+    }
+
+    /**
+     * Encerra como NEGADO uma solicitação assíncrona cuja avaliação falhou em
+     * todas as tentativas, para que ela não volte à fila a cada varredura de
+     * pendentes. O usuário vê o motivo e pode enviar uma nova solicitação.
+     *
+     * @return false se a solicitação já não estava mais pendente
+     */
+    public boolean failPendingRequest(Long requestId) {
+        Optional<AccessRequest> pending = accessRequestRepository.findPendingByIdForUpdate(requestId);
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        AccessRequest request = pending.get();
+        request.setStatus(RequestStatus.NEGADO);
+        request.setDenialReason(HistoryReason.render(HistoryReason.EVALUATION_FAILED, null, null, id -> null));
+        addHistory(request, RequestStatus.PENDENTE, RequestStatus.NEGADO, HistoryReason.EVALUATION_FAILED, null);
+        accessRequestRepository.save(request);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public RequestStatusDTO getRequestStatus(Long userId, String protocol) {
+        AccessRequest request = accessRequestRepository.findByProtocol(protocol)
+                .orElseThrow(() -> new ResourceNotFoundException("Solicitação não encontrada"));
+
+        if (!request.getUser().getId().equals(userId)) {
+            throw new BusinessException("Você não tem permissão para acessar esta solicitação");
+        }
+
+        return RequestStatusDTO.builder()
+                .id(request.getId())
+                .protocol(request.getProtocol())
+                .status(request.getStatus())
+                .denialReason(request.getDenialReason())
+                .expirationDate(request.getExpirationDate())
+                .build();
+    }
+
+    /**
+     * Avalia as regras para renovação de acesso
+     * Similar ao evaluateRules, mas não valida acesso já existente
+     * (pois estamos renovando acessos que já existem)
+     */
+    private Optional<DenialRule> evaluateRenewalRules(User user, Set<Module> modulesToRenew, AccessRequest originalRequest) {
         // Na renovação, não validamos se há outras solicitações ativas porque:
         // 1. Estamos renovando uma solicitação existente (a original)
-        // 2. A nova solicitação de renovação acabou de ser criada e também está ativa
+        // 2. A nova solicitação de renovação também ficará ativa
         // Isso é o comportamento esperado para renovações
 
-        // Validar módulos mutuamente exclusivos com outros módulos ativos
-        // (excluindo os módulos que estão sendo renovados)
+        // Validar departamento e módulos mutuamente exclusivos com outros módulos ativos
+        // (excluindo os módulos que estão sendo renovados, da solicitação original)
         List<Module> activeModules = userModuleRepository.findActiveModulesByUser(user);
-        Set<Module> modulesBeingRenewed = request.getRequestedModules();
-        
-        // Obter IDs dos módulos da solicitação original para excluir da validação
         Set<Long> originalModuleIds = originalRequest.getRequestedModules().stream()
                 .map(Module::getId)
                 .collect(Collectors.toSet());
-        
-        for (Module requestedModule : request.getRequestedModules()) {
-            for (Module activeModule : activeModules) {
-                // Ignorar se o módulo ativo é um dos que está sendo renovado (da solicitação original)
-                if (originalModuleIds.contains(activeModule.getId())) {
-                    continue;
-                }
-                if (areIncompatible(requestedModule, activeModule)) {
-                    request.setStatus(RequestStatus.NEGADO);
-                    request.setDenialReason("Módulo incompatível com outro módulo já ativo em seu perfil");
-                    addHistory(request, RequestStatus.ATIVO, RequestStatus.NEGADO, request.getDenialReason());
-                    return "Renovação negada. Motivo: " + request.getDenialReason();
-                }
-            }
-        }
 
-        // Validar módulos mutuamente exclusivos entre os solicitados
-        List<Module> requestedList = List.copyOf(request.getRequestedModules());
-        for (int i = 0; i < requestedList.size(); i++) {
-            for (int j = i + 1; j < requestedList.size(); j++) {
-                if (areIncompatible(requestedList.get(i), requestedList.get(j))) {
-                    request.setStatus(RequestStatus.NEGADO);
-                    request.setDenialReason("Módulo incompatível com outro módulo já ativo em seu perfil");
-                    addHistory(request, RequestStatus.ATIVO, RequestStatus.NEGADO, request.getDenialReason());
-                    return "Renovação negada. Motivo: " + request.getDenialReason();
-                }
-            }
+        return AccessRules.evaluateRenewal(user.getDepartment(), modulesToRenew, activeModules, originalModuleIds);
+    }
+
+    private String processRenewalValidation(AccessRequest request, Optional<DenialRule> violation) {
+        if (violation.isPresent()) {
+            metrics.recordDenial(violation.get());
+            request.setStatus(RequestStatus.NEGADO);
+            request.setDenialReason(violation.get().getMessage());
+            addHistory(request, RequestStatus.ATIVO, RequestStatus.NEGADO, HistoryReason.DENIED,
+                    String.valueOf(violation.get().getCode()));
+            return "Renovação negada. Motivo: " + request.getDenialReason();
         }
 
         // Para renovação, não validamos limite de módulos pois estamos apenas estendendo acessos existentes
-        // Aprovar renovação
+        // Aprovar renovação (o histórico é gravado por renewAccess, já com a nova data de expiração)
+        metrics.recordApproval();
         request.setStatus(RequestStatus.ATIVO);
-        addHistory(request, RequestStatus.ATIVO, RequestStatus.ATIVO, "Renovação aprovada automaticamente");
 
         return "Renovação aprovada";
     }
 
-    private boolean isDepartmentAllowed(Department department, Module module) {
-        if (department == Department.TI) {
-            return true; // TI pode acessar todos os módulos
-        }
-
-        Set<Department> allowed = module.getAllowedDepartments();
-        if (allowed.isEmpty()) {
-            // Se não especificado, apenas Portal e Relatórios
-            return module.getName().equals("Portal do Colaborador") || 
-                   module.getName().equals("Relatórios Gerenciais");
-        }
-
-        return allowed.contains(department);
-    }
-
-    /**
-     * Verifica se dois módulos são mutuamente exclusivos
-     * Validação baseada nas regras de negócio:
-     * - Aprovador Financeiro e Solicitante Financeiro são incompatíveis
-     * - Administrador RH e Colaborador RH são incompatíveis
-     */
-    private boolean areIncompatible(Module module1, Module module2) {
-        if (module1 == null || module2 == null) {
-            return false;
-        }
-        
-        String name1 = module1.getName();
-        String name2 = module2.getName();
-        
-        // Aprovador Financeiro <-> Solicitante Financeiro
-        boolean isAprovadorFinanceiro = name1.equals("Aprovador Financeiro");
-        boolean isSolicitanteFinanceiro = name1.equals("Solicitante Financeiro");
-        boolean isOtherAprovadorFinanceiro = name2.equals("Aprovador Financeiro");
-        boolean isOtherSolicitanteFinanceiro = name2.equals("Solicitante Financeiro");
-        
-        if ((isAprovadorFinanceiro && isOtherSolicitanteFinanceiro) ||
-            (isSolicitanteFinanceiro && isOtherAprovadorFinanceiro)) {
-            return true;
-        }
-        
-        // Administrador RH <-> Colaborador RH
-        boolean isAdminRH = name1.equals("Administrador RH");
-        boolean isColaboradorRH = name1.equals("Colaborador RH");
-        boolean isOtherAdminRH = name2.equals("Administrador RH");
-        boolean isOtherColaboradorRH = name2.equals("Colaborador RH");
-        
-        if ((isAdminRH && isOtherColaboradorRH) ||
-            (isColaboradorRH && isOtherAdminRH)) {
-            return true;
-        }
-        
-        // Também verifica na tabela do banco (caso tenha sido populada)
-        return module1.getIncompatibleModules().contains(module2) ||
-               module2.getIncompatibleModules().contains(module1);
+    private String generateProtocol() {
+        return AccessRequestMapper.protocol(LocalDateTime.now(), accessRequestRepository.count() + 1);
     }
 
-    private String generateProtocol() {
-        LocalDateTime now = LocalDateTime.now();
-        String datePart = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = accessRequestRepository.count();
-        String sequence = String.format("%04d", count + 1);
-        return "SOL-" + datePart + "-" + sequence;
+    private void addHistory(AccessRequest request, RequestStatus previousStatus, RequestStatus newStatus,
+                            HistoryReason reasonCode, String reasonParams) {
+        addHistory(request, previousStatus, newStatus, reasonCode, reasonParams, null);
     }
 
-    private void addHistory(AccessRequest request, RequestStatus previousStatus, RequestStatus newStatus, String reason) {
+    private void addHistory(AccessRequest request, RequestStatus previousStatus, RequestStatus newStatus,
+                            HistoryReason reasonCode, String reasonParams, String reason) {
         // Só adiciona histórico se o request já tiver ID (já foi persistido)
         if (request.getId() != null) {
             AccessHistory history = AccessHistory.builder()
@@ -345,11 +359,15 @@ public class AccessRequestService {
                     .previousStatus(previousStatus)
                     .newStatus(newStatus)
                     .changeDate(LocalDateTime.now())
+                    .reasonCode(reasonCode)
+                    .reasonParams(reasonParams)
                     .reason(reason)
                     .build();
             // Salva explicitamente já que o request tem ID
             accessHistoryRepository.save(history);
             request.getHistory().add(history);
+            changeFeedService.recordStatusChange(request, newStatus);
+            requestSummaryService.record(request, history);
         } else {
             // Se não tem ID ainda, apenas adiciona à lista (será salvo pelo cascade depois)
             AccessHistory history = AccessHistory.builder()
@@ -357,131 +375,53 @@ public class AccessRequestService {
                     .previousStatus(previousStatus)
                     .newStatus(newStatus)
                     .changeDate(LocalDateTime.now())
+                    .reasonCode(reasonCode)
+                    .reasonParams(reasonParams)
                     .reason(reason)
                     .build();
             request.getHistory().add(history);
         }
     }
 
+    @Timed(value = "access_requests.operation", extraTags = {"operation", "list"}, histogram = true)
+    @Transactional(readOnly = true)
     public Page<AccessRequestResponseDTO> getUserRequests(Long userId, String searchText, RequestStatus status,
                                                            Boolean urgent, LocalDateTime startDate,
                                                            LocalDateTime endDate, Pageable pageable) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
-
-        // Usar Criteria API para construir query dinamicamente
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<AccessRequest> query = cb.createQuery(AccessRequest.class);
-        Root<AccessRequest> root = query.from(AccessRequest.class);
-        
-        List<Predicate> predicates = new ArrayList<>();
-        
-        // Filtro obrigatório: usuário
-        predicates.add(cb.equal(root.get("user"), user));
-        
-        // Filtro: searchText (protocolo ou nome do módulo)
-        if (searchText != null && !searchText.trim().isEmpty()) {
-            String searchPattern = "%" + searchText.trim() + "%";
-            Predicate protocolMatch = cb.like(root.get("protocol"), searchPattern);
-            
-            // Buscar por nome do módulo
-            Join<AccessRequest, Module> moduleJoin = root.join("requestedModules");
-            Predicate moduleNameMatch = cb.like(moduleJoin.get("name"), searchPattern);
-            
-            predicates.add(cb.or(protocolMatch, moduleNameMatch));
-        }
-        
-        // Filtro: status
-        if (status != null) {
-            predicates.add(cb.equal(root.get("status"), status));
-        }
-        
-        // Filtro: urgent
-        if (urgent != null) {
-            predicates.add(cb.equal(root.get("urgent"), urgent));
-        }
-        
-        // Filtro: startDate
-        if (startDate != null) {
-            predicates.add(cb.greaterThanOrEqualTo(root.get("requestDate"), startDate));
-        }
-        
-        // Filtro: endDate
-        if (endDate != null) {
-            predicates.add(cb.lessThanOrEqualTo(root.get("requestDate"), endDate));
-        }
-        
-        query.where(predicates.toArray(new Predicate[0]));
-        query.orderBy(cb.desc(root.get("requestDate")));
-        
-        // Contar total (usar DISTINCT para evitar duplicatas por causa do join com módulos)
-        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
-        Root<AccessRequest> countRoot = countQuery.from(AccessRequest.class);
-        countQuery.select(cb.countDistinct(countRoot));
-        
-        List<Predicate> countPredicates = new ArrayList<>();
-        countPredicates.add(cb.equal(countRoot.get("user"), user));
-        
-        if (searchText != null && !searchText.trim().isEmpty()) {
-            String searchPattern = "%" + searchText.trim() + "%";
-            Predicate protocolMatch = cb.like(countRoot.get("protocol"), searchPattern);
-            Join<AccessRequest, Module> moduleJoin = countRoot.join("requestedModules");
-            Predicate moduleNameMatch = cb.like(moduleJoin.get("name"), searchPattern);
-            countPredicates.add(cb.or(protocolMatch, moduleNameMatch));
-        }
-        
-        if (status != null) {
-            countPredicates.add(cb.equal(countRoot.get("status"), status));
-        }
-        
-        if (urgent != null) {
-            countPredicates.add(cb.equal(countRoot.get("urgent"), urgent));
-        }
-        
-        if (startDate != null) {
-            countPredicates.add(cb.greaterThanOrEqualTo(countRoot.get("requestDate"), startDate));
-        }
-        
-        if (endDate != null) {
-            countPredicates.add(cb.lessThanOrEqualTo(countRoot.get("requestDate"), endDate));
-        }
-        
-        countQuery.where(countPredicates.toArray(new Predicate[0]));
-        
-        Long total = entityManager.createQuery(countQuery).getSingleResult();
-        
-        // Buscar resultados paginados
-        TypedQuery<AccessRequest> typedQuery = entityManager.createQuery(query);
-        typedQuery.setFirstResult((int) pageable.getOffset());
-        typedQuery.setMaxResults(pageable.getPageSize());
-        
-        List<AccessRequest> requests = typedQuery.getResultList();
-        
-        Page<AccessRequest> page = new PageImpl<>(requests, pageable, total);
-        
-        return page.map(this::toDTO);
+        // Servida pelo modelo de leitura request_summary: uma tabela, sem joins com módulos e histórico
+        return requestSummaryService.findUserRequests(userId, searchText, status, urgent, startDate, endDate, pageable);
     }
 
+    @Timed(value = "access_requests.operation", extraTags = {"operation", "details"}, histogram = true)
+    @Transactional(readOnly = true)
     public AccessRequestResponseDTO getRequestDetails(Long userId, Long requestId) {
-        AccessRequest request = accessRequestRepository.findById(requestId)
+        // Uma consulta: solicitação, módulos e histórico, só se for do usuário
+        AccessRequest request = accessRequestRepository.findByIdAndUserIdWithDetails(requestId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Solicitação não encontrada"));
 
-        if (!request.getUser().getId().equals(userId)) {
-            throw new BusinessException("Você não tem permissão para acessar esta solicitação");
-        }
-
-        return toDTO(request);
+        AccessRequestResponseDTO dto = AccessRequestMapper.toDTO(request);
+        // O histórico começa no mês da solicitação: com uma entrada desse mês no banco, nada foi arquivado
+        YearMonth requestMonth = YearMonth.from(request.getRequestDate());
+        if (dto.getHistory().stream().anyMatch(h -> YearMonth.from(h.getChangeDate()).equals(requestMonth))) {
+            return dto;
+        }
+        // Entradas de histórico em partições já arquivadas (ver PartitionMaintenanceService), sempre as mais antigas
+        List<AccessHistoryDTO> archived = partitionArchive.findHistory(request.getId(), request.getRequestDate(),
+                AccessRequestMapper.moduleNames(request));
+        if (!archived.isEmpty()) {
+            List<AccessHistoryDTO> history = new ArrayList<>(archived);
+            history.addAll(dto.getHistory());
+            dto.setHistory(history);
+        }
+        return dto;
     }
 
     @Transactional
+    @Timed(value = "access_requests.operation", extraTags = {"operation", "renew"}, histogram = true)
     public String renewAccess(Long userId, Long requestId) {
-        AccessRequest originalRequest = accessRequestRepository.findById(requestId)
+        AccessRequest originalRequest = accessRequestRepository.findByIdAndUserIdWithModules(requestId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Solicitação não encontrada"));
 
-        if (!originalRequest.getUser().getId().equals(userId)) {
-            throw new BusinessException("Você não tem permissão para renovar esta solicitação");
-        }
-
         if (originalRequest.getStatus() != RequestStatus.ATIVO) {
             throw new BusinessException("Apenas solicitações ativas podem ser renovadas");
         }
@@ -517,6 +457,14 @@ public class AccessRequestService {
             }
         }
 
+        // Reaplicar regras de negócio (validações) - versão para renovação
+        // Esta validação não verifica se já existe solicitação ativa (pois estamos renovando)
+        Optional<DenialRule> violation = evaluateRenewalRules(user, modulesToRenew, originalRequest);
+        if (violation.isPresent() && denialLogService.isLogStorage()) {
+            logDenial(user, DenialOperation.RENEWAL, violation.get(), modulesToRenew, originalRequest.getId());
+            return "Renovação negada. Motivo: " + violation.get().getMessage();
+        }
+
         // Gerar novo protocolo
         String newProtocol = generateProtocol();
 
@@ -534,9 +482,7 @@ public class AccessRequestService {
         // Salvar request primeiro para ter ID
         newRequest = accessRequestRepository.save(newRequest);
 
-        // Reaplicar regras de negócio (validações) - versão para renovação
-        // Esta validação não verifica se já existe solicitação ativa (pois estamos renovando)
-        String validationResult = processRenewalValidation(newRequest, user, originalRequest);
+        String validationResult = processRenewalValidation(newRequest, violation);
 
         // Se foi negado, retornar o motivo
         if (newRequest.getStatus() == RequestStatus.NEGADO) {
@@ -548,25 +494,31 @@ public class AccessRequestService {
         LocalDateTime newExpirationDate = LocalDateTime.now().plusDays(180);
         newRequest.setExpirationDate(newExpirationDate);
         
-        // Atualizar histórico com mensagem mais detalhada sobre a renovação
-        if (!newRequest.getHistory().isEmpty()) {
-            AccessHistory lastHistory = newRequest.getHistory().get(newRequest.getHistory().size() - 1);
-            lastHistory.setReason("Renovação aprovada automaticamente - acesso estendido por 180 dias até " + 
-                                     newExpirationDate.format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            accessHistoryRepository.save(lastHistory);
-        }
+        // Uma única entrada de histórico, com a nova data de expiração como parâmetro
+        addHistory(newRequest, RequestStatus.ATIVO, RequestStatus.ATIVO, HistoryReason.RENEWAL_EXTENDED,
+                newExpirationDate.toLocalDate().toString());
 
         // Estender validade dos UserModules existentes
         for (Module module : modulesToRenew) {
-            userModuleRepository.findByUserAndModuleAndActiveTrue(user, module)
+            userModuleRepository.findByUserAndModule(user, module)
                     .ifPresentOrElse(
                             userModule -> {
-                                // Estender validade do acesso existente
-                                userModule.setExpirationDate(newExpirationDate);
-                                userModuleRepository.save(userModule);
+                                if (userModule.getActive()) {
+                                    // Estender validade do acesso existente
+                                    userModule.setExpirationDate(newExpirationDate);
+                                    userModuleRepository.save(userModule);
+                                    changeFeedService.recordExtension(userModule);
+                                } else {
+                                    // Acesso expirado ou revogado: reativa o mesmo registro (único por usuário e módulo)
+                                    userModule.setActive(true);
+                                    userModule.setGrantedDate(LocalDateTime.now());
+                                    userModule.setExpirationDate(newExpirationDate);
+                                    userModuleRepository.save(userModule);
+                                    changeFeedService.recordGrant(userModule);
+                                }
                             },
                             () -> {
-                                // Se não existe UserModule ativo, criar novo (caso tenha sido desativado)
+                                // Se não existe UserModule, criar novo
                                 UserModule newUserModule = UserModule.builder()
                                         .user(user)
                                         .module(module)
@@ -575,6 +527,7 @@ public class AccessRequestService {
                                         .active(true)
                                         .build();
                                 userModuleRepository.save(newUserModule);
+                                changeFeedService.recordGrant(newUserModule);
                             }
                     );
         }
@@ -585,55 +538,80 @@ public class AccessRequestService {
         return "Renovação realizada com sucesso! Protocolo: " + newProtocol + ". Seus acessos foram estendidos por mais 180 dias até " + newExpirationDate.format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy")) + ".";
     }
 
+    @Timed(value = "access_requests.operation", extraTags = {"operation", "cancel"}, histogram = true)
     public void cancelRequest(Long userId, Long requestId, String reason) {
-        AccessRequest request = accessRequestRepository.findById(requestId)
+        AccessRequest request = accessRequestRepository.findByIdAndUserIdWithModules(requestId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Solicitação não encontrada"));
 
-        if (!request.getUser().getId().equals(userId)) {
-            throw new BusinessException("Você não tem permissão para cancelar esta solicitação");
+        markCancelled(request, reason);
+
+        // Revogar acessos
+        revokeModules(userId, moduleIdsOf(request));
+
+        accessRequestRepository.save(request);
+    }
+
+    /**
+     * Cancela várias solicitações do usuário de uma só vez.
+     * A operação é atômica: se qualquer solicitação for inválida, nenhuma é cancelada.
+     * Solicitações de outro usuário são tratadas como inexistentes (404), como no cancelamento individual.
+     * Os acessos de todas as solicitações são revogados em um único UPDATE.
+     */
+    public int cancelRequests(Long userId, List<Long> requestIds, String reason) {
+        Set<Long> ids = new LinkedHashSet<>(requestIds);
+        List<AccessRequest> requests = accessRequestRepository.findAllByIdInAndUserIdWithModules(ids, userId);
+
+        if (requests.size() != ids.size()) {
+            Set<Long> found = requests.stream().map(AccessRequest::getId).collect(Collectors.toSet());
+            Long missing = ids.stream().filter(id -> !found.contains(id)).findFirst().orElse(null);
+            throw new ResourceNotFoundException("Solicitação não encontrada: " + missing);
         }
 
+        Set<Long> moduleIds = new HashSet<>();
+        for (AccessRequest request : requests) {
+            markCancelled(request, reason);
+            moduleIds.addAll(moduleIdsOf(request));
+        }
+
+        revokeModules(userId, moduleIds);
+
+        accessRequestRepository.saveAll(requests);
+        return requests.size();
+    }
+
+    private void markCancelled(AccessRequest request, String reason) {
         if (request.getStatus() != RequestStatus.ATIVO) {
             throw new BusinessException("Apenas solicitações ativas podem ser canceladas");
         }
 
         request.setStatus(RequestStatus.CANCELADO);
-        addHistory(request, RequestStatus.ATIVO, RequestStatus.CANCELADO, reason);
-
-        // Revogar acessos
-        List<UserModule> userModules = userModuleRepository.findByUserAndActiveTrue(request.getUser());
-        for (UserModule userModule : userModules) {
-            if (request.getRequestedModules().contains(userModule.getModule())) {
-                userModule.setActive(false);
-                userModuleRepository.save(userModule);
-            }
-        }
+        addHistory(request, RequestStatus.ATIVO, RequestStatus.CANCELADO, HistoryReason.CANCELLED, null, reason);
+    }
 
-        accessRequestRepository.save(request);
+    private Set<Long> moduleIdsOf(AccessRequest request) {
+        return request.getRequestedModules().stream()
+                .map(Module::getId)
+                .collect(Collectors.toSet());
     }
 
-    private AccessRequestResponseDTO toDTO(AccessRequest request) {
-        return AccessRequestResponseDTO.builder()
-                .id(request.getId())
-                .protocol(request.getProtocol())
-                .requestedModules(request.getRequestedModules().stream()
-                        .map(Module::getName)
-                        .collect(Collectors.toList()))
-                .justification(request.getJustification())
-                .urgent(request.getUrgent())
-                .status(request.getStatus())
-                .requestDate(request.getRequestDate())
-                .expirationDate(request.getExpirationDate())
-                .denialReason(request.getDenialReason())
-                .history(request.getHistory().stream()
-                        .map(h -> AccessHistoryDTO.builder()
-                                .previousStatus(h.getPreviousStatus())
-                                .newStatus(h.getNewStatus())
-                                .changeDate(h.getChangeDate())
-                                .reason(h.getReason())
-                                .build())
-                        .collect(Collectors.toList()))
-                .build();
+    /**
+     * Revoga os acessos com um único UPDATE por (usuário, módulos). Antes, os
+     * acessos ainda ativos são lidos com lock: módulos já expirados, revogados
+     * por outra solicitação ou nunca concedidos ficam de fora do UPDATE e do
+     * feed, que só recebe ACCESS_REVOKED do que mudou de ativo para inativo.
+     */
+    private void revokeModules(Long userId, Set<Long> moduleIds) {
+        if (moduleIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> active = userModuleRepository.findActiveForUpdate(userId, moduleIds).stream()
+                .map(userModule -> userModule.getModule().getId())
+                .collect(Collectors.toSet());
+        if (active.isEmpty()) {
+            return;
+        }
+        userModuleRepository.deactivateActiveModules(userId, active);
+        changeFeedService.recordRevocations(userId, active);
     }
 }
-
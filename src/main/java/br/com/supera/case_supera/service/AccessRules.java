@@ -0,0 +1,168 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.DenialRule;
+import br.com.supera.case_supera.entity.Module;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Regras de negócio das solicitações de acesso.
+ * Funções puras sobre os módulos já carregados, sem acesso ao banco, para que
+ * possam ser avaliadas tanto por solicitação quanto em lote sobre snapshots em memória.
+ */
+public final class AccessRules {
+
+    private AccessRules() {
+    }
+
+    /**
+     * Avalia uma nova solicitação e retorna a primeira regra violada, na mesma
+     * ordem aplicada pela validação automática: departamento, incompatibilidade
+     * com módulos ativos, incompatibilidade entre os solicitados e limite de módulos.
+     */
+    public static Optional<DenialRule> evaluate(Department department, Collection<Module> requestedModules,
+                                                Collection<Module> activeModules, long activeCount) {
+        return allViolations(department, requestedModules, activeModules, activeCount).stream().findFirst();
+    }
+
+    /**
+     * Todas as regras violadas por uma nova solicitação, na ordem de {@link #evaluate}.
+     * Usado na simulação, que mostra de uma vez tudo o que impediria a aprovação.
+     */
+    public static List<DenialRule> allViolations(Department department, Collection<Module> requestedModules,
+                                                 Collection<Module> activeModules, long activeCount) {
+        List<DenialRule> violations = compatibilityViolations(department, requestedModules, activeModules);
+
+        if (activeCount + requestedModules.size() > maxModules(department)) {
+            violations.add(DenialRule.MODULE_LIMIT_REACHED);
+        }
+
+        return violations;
+    }
+
+    /**
+     * Avalia uma renovação. Os módulos que estão sendo renovados são ignorados na
+     * checagem de incompatibilidade e o limite de módulos não é aplicado, pois a
+     * renovação apenas estende acessos existentes.
+     */
+    public static Optional<DenialRule> evaluateRenewal(Department department, Collection<Module> requestedModules,
+                                                       Collection<Module> activeModules, Set<Long> renewedModuleIds) {
+        List<Module> otherActiveModules = activeModules.stream()
+                .filter(module -> !renewedModuleIds.contains(module.getId()))
+                .toList();
+        return compatibilityViolations(department, requestedModules, otherActiveModules).stream().findFirst();
+    }
+
+    private static List<DenialRule> compatibilityViolations(Department department, Collection<Module> requestedModules,
+                                                            Collection<Module> activeModules) {
+        List<DenialRule> violations = new ArrayList<>();
+
+        // Validar compatibilidade de departamento
+        if (requestedModules.stream().anyMatch(module -> !isDepartmentAllowed(department, module))) {
+            violations.add(DenialRule.DEPARTMENT_NOT_ALLOWED);
+        }
+
+        if (hasIncompatibleModules(requestedModules, activeModules)) {
+            violations.add(DenialRule.INCOMPATIBLE_MODULE);
+        }
+
+        return violations;
+    }
+
+    private static boolean hasIncompatibleModules(Collection<Module> requestedModules, Collection<Module> activeModules) {
+        // Validar módulos mutuamente exclusivos com os módulos ativos
+        for (Module requestedModule : requestedModules) {
+            for (Module activeModule : activeModules) {
+                if (areIncompatible(requestedModule, activeModule)) {
+                    return true;
+                }
+            }
+        }
+
+        // Validar módulos mutuamente exclusivos entre os solicitados
+        List<Module> requestedList = List.copyOf(requestedModules);
+        for (int i = 0; i < requestedList.size(); i++) {
+            for (int j = i + 1; j < requestedList.size(); j++) {
+                if (areIncompatible(requestedList.get(i), requestedList.get(j))) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    public static int maxModules(Department department) {
+        return department == Department.TI ? 10 : 5;
+    }
+
+    public static boolean isGenericJustification(String justification) {
+        String lower = justification.toLowerCase().trim();
+        return lower.equals("teste") ||
+               lower.equals("aaa") ||
+               lower.equals("preciso") ||
+               lower.length() < 20 ||
+               lower.matches("^[a-z\\s]{1,20}$");
+    }
+
+    public static boolean isDepartmentAllowed(Department department, Module module) {
+        if (department == Department.TI) {
+            return true; // TI pode acessar todos os módulos
+        }
+
+        Set<Department> allowed = module.getAllowedDepartments();
+        if (allowed.isEmpty()) {
+            // Se não especificado, apenas Portal e Relatórios
+            return module.getName().equals("Portal do Colaborador") ||
+                   module.getName().equals("Relatórios Gerenciais");
+        }
+
+        return allowed.contains(department);
+    }
+
+    /**
+     * Verifica se dois módulos são mutuamente exclusivos
+     * Validação baseada nas regras de negócio:
+     * - Aprovador Financeiro e Solicitante Financeiro são incompatíveis
+     * - Administrador RH e Colaborador RH são incompatíveis
+     */
+    public static boolean areIncompatible(Module module1, Module module2) {
+        if (module1 == null || module2 == null) {
+            return false;
+        }
+
+        String name1 = module1.getName();
+        String name2 = module2.getName();
+
+        // Aprovador Financeiro <-> Solicitante Financeiro
+        boolean isAprovadorFinanceiro = name1.equals("Aprovador Financeiro");
+        boolean isSolicitanteFinanceiro = name1.equals("Solicitante Financeiro");
+        boolean isOtherAprovadorFinanceiro = name2.equals("Aprovador Financeiro");
+        boolean isOtherSolicitanteFinanceiro = name2.equals("Solicitante Financeiro");
+
+        if ((isAprovadorFinanceiro && isOtherSolicitanteFinanceiro) ||
+            (isSolicitanteFinanceiro && isOtherAprovadorFinanceiro)) {
+            return true;
+        }
+
+        // Administrador RH <-> Colaborador RH
+        boolean isAdminRH = name1.equals("Administrador RH");
+        boolean isColaboradorRH = name1.equals("Colaborador RH");
+        boolean isOtherAdminRH = name2.equals("Administrador RH");
+        boolean isOtherColaboradorRH = name2.equals("Colaborador RH");
+
+        if ((isAdminRH && isOtherColaboradorRH) ||
+            (isColaboradorRH && isOtherAdminRH)) {
+            return true;
+        }
+
+        // Também verifica na tabela do banco (caso tenha sido populada)
+        return module1.getIncompatibleModules().contains(module2) ||
+               module2.getIncompatibleModules().contains(module1);
+    }
+}
@@ -5,6 +5,7 @@ import br.com.supera.case_supera.dto.LoginRequest;
 import br.com.supera.case_supera.dto.LoginResponse;
 import br.com.supera.case_supera.entity.User;
 import br.com.supera.case_supera.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -26,6 +27,7 @@ public class AuthService {
         this.userRepository = userRepository;
     }
 
+    @Timed(value = "auth.login", histogram = true)
     public LoginResponse login(LoginRequest request) {
         try {
             Authentication authentication = authenticationManager.authenticate(
@@ -33,7 +35,7 @@ public class AuthService {
             );
 
             String token = tokenProvider.generateToken(authentication);
-            User user = userRepository.findByEmail(request.getEmail())
+            User user = userRepository.findByEmail(User.normalizeEmail(request.getEmail()))
                     .orElseThrow(() -> new BadCredentialsException("Usuário não encontrado"));
 
             return LoginResponse.builder()
@@ -0,0 +1,341 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.BulkAccessRequestEntryDTO;
+import br.com.supera.case_supera.dto.BulkAccessRequestResultDTO;
+import br.com.supera.case_supera.entity.AccessHistory;
+import br.com.supera.case_supera.entity.AccessRequest;
+import br.com.supera.case_supera.entity.DenialLogEntry;
+import br.com.supera.case_supera.entity.DenialOperation;
+import br.com.supera.case_supera.entity.DenialRule;
+import br.com.supera.case_supera.entity.HistoryReason;
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.entity.User;
+import br.com.supera.case_supera.entity.UserModule;
+import br.com.supera.case_supera.repository.AccessRequestRepository;
+import br.com.supera.case_supera.repository.ModuleRepository;
+import br.com.supera.case_supera.repository.UserModuleRepository;
+import br.com.supera.case_supera.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Submissão em lote de solicitações de acesso (onboarding de equipes).
+ *
+ * Usuários, módulos e acessos ativos são carregados com um número fixo de
+ * consultas, as regras são avaliadas sobre esses snapshots em memória e as
+ * solicitações são gravadas em blocos de tamanho limitado, cada bloco na sua
+ * própria transação. Cada entrada recebe um resultado individual.
+ */
+@Service
+public class BulkAccessRequestService {
+
+    private final AccessRequestRepository accessRequestRepository;
+    private final UserRepository userRepository;
+    private final ModuleRepository moduleRepository;
+    private final UserModuleRepository userModuleRepository;
+    private final EntityManager entityManager;
+    private final AccessRequestMetrics metrics;
+    private final ChangeFeedService changeFeedService;
+    private final DenialLogService denialLogService;
+    private final RequestSummaryService requestSummaryService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${access-requests.bulk.chunk-size:100}")
+    private int chunkSize = 100;
+
+    public BulkAccessRequestService(
+            AccessRequestRepository accessRequestRepository,
+            UserRepository userRepository,
+            ModuleRepository moduleRepository,
+            UserModuleRepository userModuleRepository,
+            EntityManager entityManager,
+            AccessRequestMetrics metrics,
+            ChangeFeedService changeFeedService,
+            DenialLogService denialLogService,
+            RequestSummaryService requestSummaryService,
+            PlatformTransactionManager transactionManager) {
+        this.accessRequestRepository = accessRequestRepository;
+        this.userRepository = userRepository;
+        this.moduleRepository = moduleRepository;
+        this.userModuleRepository = userModuleRepository;
+        this.entityManager = entityManager;
+        this.metrics = metrics;
+        this.changeFeedService = changeFeedService;
+        this.denialLogService = denialLogService;
+        this.requestSummaryService = requestSummaryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public List<BulkAccessRequestResultDTO> createAccessRequests(List<BulkAccessRequestEntryDTO> entries) {
+        // Snapshots carregados uma única vez para todo o lote
+        Map<String, User> usersByEmail = userRepository.findByEmailIn(entries.stream()
+                        .map(entry -> User.normalizeEmail(entry.getEmail()))
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getEmail, Function.identity()));
+
+        Map<Long, Module> modulesById = moduleRepository.findAllWithRulesByIdIn(entries.stream()
+                        .flatMap(entry -> entry.getModuleIds().stream())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Module::getId, Function.identity()));
+
+        Map<Long, List<Module>> activeModulesByUser = new HashMap<>();
+        usersByEmail.values().forEach(user -> activeModulesByUser.put(user.getId(), new ArrayList<>()));
+        if (!usersByEmail.isEmpty()) {
+            for (UserModule userModule : userModuleRepository.findActiveWithModuleByUserIdIn(activeModulesByUser.keySet())) {
+                activeModulesByUser.get(userModule.getUser().getId()).add(userModule.getModule());
+            }
+        }
+
+        BulkContext context = new BulkContext(usersByEmail, modulesById, activeModulesByUser,
+                LocalDateTime.now(), accessRequestRepository.count());
+
+        BulkAccessRequestResultDTO[] results = new BulkAccessRequestResultDTO[entries.size()];
+        for (int start = 0; start < entries.size(); start += chunkSize) {
+            processChunk(entries, start, Math.min(start + chunkSize, entries.size()), context, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void processChunk(List<BulkAccessRequestEntryDTO> entries, int start, int end,
+                              BulkContext context, BulkAccessRequestResultDTO[] results) {
+        List<AccessRequest> requests = new ArrayList<>();
+        List<UserModule> grants = new ArrayList<>();
+        List<DenialLogEntry> denials = new ArrayList<>();
+        List<Integer> persistedIndexes = new ArrayList<>();
+
+        for (int i = start; i < end; i++) {
+            BulkAccessRequestEntryDTO entry = entries.get(i);
+            String rejection = validate(entry, context);
+            if (rejection != null) {
+                results[i] = result(i, entry, null, null, rejection);
+                continue;
+            }
+
+            User user = context.usersByEmail().get(User.normalizeEmail(entry.getEmail()));
+            Set<Module> requestedModules = entry.getModuleIds().stream()
+                    .map(context.modulesById()::get)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            List<Module> activeModules = context.activeModulesByUser().get(user.getId());
+
+            Optional<DenialRule> violation = AccessRules.evaluate(
+                    user.getDepartment(), requestedModules, activeModules, activeModules.size());
+            if (violation.isPresent() && denialLogService.isLogStorage()) {
+                // Negação só no log compacto: sem protocolo nem linha em access_requests
+                metrics.recordDenial(violation.get());
+                denials.add(denialLogService.entry(user.getId(), DenialOperation.BULK, violation.get(),
+                        requestedModules, null));
+                results[i] = result(i, entry, null, RequestStatus.NEGADO,
+                        "Solicitação negada. Motivo: " + violation.get().getMessage());
+                persistedIndexes.add(i);
+                continue;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            AccessRequest request = AccessRequest.builder()
+                    .protocol(context.nextProtocol())
+                    .user(user)
+                    .requestedModules(requestedModules)
+                    .justification(entry.getJustification())
+                    .urgent(entry.getUrgent() != null && entry.getUrgent())
+                    .requestDate(now)
+                    .build();
+
+            if (violation.isPresent()) {
+                metrics.recordDenial(violation.get());
+                request.setStatus(RequestStatus.NEGADO);
+                request.setDenialReason(violation.get().getMessage());
+                addHistory(request, RequestStatus.NEGADO, HistoryReason.DENIED, String.valueOf(violation.get().getCode()), now);
+                results[i] = result(i, entry, request.getProtocol(), RequestStatus.NEGADO,
+                        "Solicitação negada. Motivo: " + request.getDenialReason());
+            } else {
+                metrics.recordApproval();
+                request.setStatus(RequestStatus.ATIVO);
+                request.setExpirationDate(now.plusDays(180));
+                addHistory(request, RequestStatus.ATIVO, HistoryReason.AUTO_APPROVED, null, now);
+                for (Module module : requestedModules) {
+                    grants.add(UserModule.builder()
+                            .user(user)
+                            .module(module)
+                            .grantedDate(now)
+                            .expirationDate(now.plusDays(180))
+                            .active(true)
+                            .build());
+                }
+                // Entradas seguintes do mesmo usuário enxergam os acessos recém-concedidos
+                activeModules.addAll(requestedModules);
+                results[i] = result(i, entry, request.getProtocol(), RequestStatus.ATIVO,
+                        "Solicitação criada com sucesso! Protocolo: " + request.getProtocol());
+            }
+
+            requests.add(request);
+            persistedIndexes.add(i);
+        }
+
+        if (persistedIndexes.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                accessRequestRepository.saveAll(requests);
+                List<UserModule> granted = applyGrants(grants);
+                // Eventos do feed na mesma transação do bloco (os ids já foram gerados no INSERT)
+                requests.forEach(request -> changeFeedService.recordStatusChange(request, request.getStatus()));
+                granted.forEach(changeFeedService::recordGrant);
+                requestSummaryService.recordAll(requests);
+                if (!denials.isEmpty()) {
+                    denialLogService.recordAll(denials);
+                }
+                // Libera as entidades do bloco; os snapshots já têm as coleções inicializadas
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            // O bloco inteiro foi revertido: desfaz os acessos no snapshot e reporta a falha
+            for (UserModule grant : grants) {
+                context.activeModulesByUser().get(grant.getUser().getId()).remove(grant.getModule());
+            }
+            for (Integer index : persistedIndexes) {
+                results[index] = result(index, entries.get(index), null, null,
+                        "Erro ao gravar solicitação: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Grava os acessos do bloco. O par (usuário, módulo) é único: um acesso que o
+     * usuário já teve (expirado ou revogado) é reativado em vez de inserido de novo.
+     */
+    private List<UserModule> applyGrants(List<UserModule> grants) {
+        if (grants.isEmpty()) {
+            return grants;
+        }
+        Set<Long> userIds = grants.stream().map(grant -> grant.getUser().getId()).collect(Collectors.toSet());
+        Set<Long> moduleIds = grants.stream().map(grant -> grant.getModule().getId()).collect(Collectors.toSet());
+        Map<List<Long>, UserModule> existing = userModuleRepository.findByUserIdInAndModuleIdIn(userIds, moduleIds)
+                .stream()
+                .collect(Collectors.toMap(um -> List.of(um.getUser().getId(), um.getModule().getId()),
+                        Function.identity()));
+
+        List<UserModule> granted = new ArrayList<>(grants.size());
+        List<UserModule> inserts = new ArrayList<>();
+        for (UserModule grant : grants) {
+            UserModule current = existing.get(List.of(grant.getUser().getId(), grant.getModule().getId()));
+            if (current == null) {
+                inserts.add(grant);
+                granted.add(grant);
+            } else {
+                // Entidade gerenciada pela transação do bloco: o UPDATE sai no flush
+                current.setActive(true);
+                current.setGrantedDate(grant.getGrantedDate());
+                current.setExpirationDate(grant.getExpirationDate());
+                granted.add(current);
+            }
+        }
+        userModuleRepository.saveAll(inserts);
+        return granted;
+    }
+
+    private String validate(BulkAccessRequestEntryDTO entry, BulkContext context) {
+        User user = context.usersByEmail().get(User.normalizeEmail(entry.getEmail()));
+        if (user == null) {
+            return "Usuário não encontrado: " + entry.getEmail();
+        }
+
+        List<Module> activeModules = context.activeModulesByUser().get(user.getId());
+        for (Long moduleId : entry.getModuleIds()) {
+            Module module = context.modulesById().get(moduleId);
+            if (module == null) {
+                return "Módulo não encontrado: " + moduleId;
+            }
+            if (!module.getActive()) {
+                return "Módulo não está ativo: " + module.getName();
+            }
+            if (activeModules.contains(module)) {
+                return "Você já possui acesso ativo ao módulo: " + module.getName();
+            }
+        }
+
+        if (AccessRules.isGenericJustification(entry.getJustification())) {
+            metrics.recordDenial(DenialRule.GENERIC_JUSTIFICATION);
+            return DenialRule.GENERIC_JUSTIFICATION.getMessage();
+        }
+        return null;
+    }
+
+    private void addHistory(AccessRequest request, RequestStatus newStatus, HistoryReason reasonCode, String reasonParams,
+                            LocalDateTime date) {
+        // Salvo em cascata junto com a solicitação
+        request.getHistory().add(AccessHistory.builder()
+                .accessRequest(request)
+                .previousStatus(RequestStatus.ATIVO)
+                .newStatus(newStatus)
+                .changeDate(date)
+                .reasonCode(reasonCode)
+                .reasonParams(reasonParams)
+                .build());
+    }
+
+    private BulkAccessRequestResultDTO result(int index, BulkAccessRequestEntryDTO entry, String protocol,
+                                              RequestStatus status, String message) {
+        return BulkAccessRequestResultDTO.builder()
+                .index(index)
+                .email(entry.getEmail())
+                .protocol(protocol)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private static final class BulkContext {
+        private final Map<String, User> usersByEmail;
+        private final Map<Long, Module> modulesById;
+        private final Map<Long, List<Module>> activeModulesByUser;
+        private final LocalDateTime protocolDate;
+        private long sequence;
+
+        BulkContext(Map<String, User> usersByEmail, Map<Long, Module> modulesById,
+                    Map<Long, List<Module>> activeModulesByUser, LocalDateTime protocolDate, long sequence) {
+            this.usersByEmail = usersByEmail;
+            this.modulesById = modulesById;
+            this.activeModulesByUser = activeModulesByUser;
+            this.protocolDate = protocolDate;
+            this.sequence = sequence;
+        }
+
+        Map<String, User> usersByEmail() {
+            return usersByEmail;
+        }
+
+        Map<Long, Module> modulesById() {
+            return modulesById;
+        }
+
+        Map<Long, List<Module>> activeModulesByUser() {
+            return activeModulesByUser;
+        }
+
+        String nextProtocol() {
+            sequence++;
+            return AccessRequestMapper.protocol(protocolDate, sequence);
+        }
+    }
+}
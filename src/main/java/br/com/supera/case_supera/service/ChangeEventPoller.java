@@ -0,0 +1,50 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import br.com.supera.case_supera.dto.ChangeFeedDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lê o feed de alterações (change_events) a partir da última sequência vista e
+ * publica cada evento como evento da aplicação ({@link ChangeEventDTO}). Roda em
+ * todos os nós, então os listeners locais (SSE, invalidação de caches) recebem
+ * também as alterações feitas pelos outros nós.
+ */
+@Component
+public class ChangeEventPoller {
+
+    private final ChangeFeedService changeFeedService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Última sequência publicada; -1 até a primeira leitura do feed
+    private volatile long cursor = -1;
+
+    @Value("${change-stream.poll-batch-size:500}")
+    private int pollBatchSize = 500;
+
+    public ChangeEventPoller(ChangeFeedService changeFeedService, ApplicationEventPublisher eventPublisher) {
+        this.changeFeedService = changeFeedService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${change-stream.poll-interval:PT0.5S}")
+    public void poll() {
+        if (cursor < 0) {
+            // Começa do momento atual: o histórico anterior não é republicado
+            cursor = changeFeedService.getLatestSequence();
+            return;
+        }
+
+        ChangeFeedDTO feed;
+        do {
+            feed = changeFeedService.getChanges(cursor, pollBatchSize);
+            for (ChangeEventDTO event : feed.getEvents()) {
+                eventPublisher.publishEvent(event);
+            }
+            cursor = feed.getNextAfter();
+        } while (feed.isHasMore());
+    }
+}
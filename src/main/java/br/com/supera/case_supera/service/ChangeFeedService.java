@@ -0,0 +1,260 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import br.com.supera.case_supera.dto.ChangeFeedDTO;
+import br.com.supera.case_supera.entity.AccessRequest;
+import br.com.supera.case_supera.entity.ChangeEvent;
+import br.com.supera.case_supera.entity.ChangeEventSequence;
+import br.com.supera.case_supera.entity.ChangeEventType;
+import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.entity.UserModule;
+import br.com.supera.case_supera.exception.BusinessException;
+import br.com.supera.case_supera.repository.ChangeEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Feed de alterações de solicitações e acessos para sincronização incremental.
+ *
+ * Os eventos são gravados na tabela change_events dentro da transação que faz
+ * a alteração (outbox transacional): ou a alteração e o evento são confirmados
+ * juntos, ou nenhum dos dois. Os consumidores leem em lotes a partir do último
+ * número de sequência recebido.
+ *
+ * A sequência não vem de IDENTITY, que é reservado no INSERT e deixaria o id
+ * 10 visível antes do 9 de uma transação mais lenta. Os eventos ficam em
+ * memória até o beforeCommit da transação, que bloqueia o contador
+ * {@link ChangeEventSequence}, numera e grava os eventos; o lock é liberado no
+ * commit. Quem confirma depois espera só por esse trecho final e recebe
+ * sequências maiores, que portanto ficam visíveis depois. O resto da transação
+ * roda sem o contador, então gravações concorrentes não são serializadas. Um
+ * rollback não chega a numerar nada: o feed não tem lacunas e o consumidor
+ * nunca pula eventos.
+ *
+ * Depois do commit, {@link Committed} informa a maior sequência gravada pela
+ * transação (usada pelo read-your-writes da réplica de leitura).
+ */
+@Service
+public class ChangeFeedService {
+
+    private final ChangeEventRepository changeEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${change-feed.max-limit:1000}")
+    private int maxLimit = 1000;
+
+    public ChangeFeedService(ChangeEventRepository changeEventRepository,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher) {
+        this.changeEventRepository = changeEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Publicado depois do commit de uma transação que gravou eventos no feed.
+     *
+     * @param lastSequence maior sequência atribuída pela transação
+     */
+    public record Committed(long lastSequence) {
+    }
+
+    /**
+     * Cria o contador na primeira subida, continuando da maior sequência já gravada.
+     */
+    @PostConstruct
+    void initSequence() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (entityManager.find(ChangeEventSequence.class, ChangeEventSequence.FEED) == null) {
+                    entityManager.persist(new ChangeEventSequence(ChangeEventSequence.FEED,
+                            changeEventRepository.findMaxId()));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Outro nó criou o contador ao mesmo tempo
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(AccessRequest request, RequestStatus newStatus) {
+        append(ChangeEvent.builder()
+                .type(ChangeEventType.REQUEST_STATUS_CHANGED)
+                .userId(request.getUser().getId())
+                .requestId(request.getId())
+                .status(newStatus)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordGrant(UserModule userModule) {
+        recordAccess(ChangeEventType.ACCESS_GRANTED, userModule);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExtension(UserModule userModule) {
+        recordAccess(ChangeEventType.ACCESS_EXTENDED, userModule);
+    }
+
+    /**
+     * Um evento por módulo. Recebe só os módulos cujo acesso estava ativo e foi
+     * de fato revogado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRevocations(Long userId, Collection<Long> moduleIds) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long moduleId : moduleIds) {
+            append(ChangeEvent.builder()
+                    .type(ChangeEventType.ACCESS_REVOKED)
+                    .userId(userId)
+                    .moduleId(moduleId)
+                    .createdAt(now)
+                    .build());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpiration(UserModule userModule) {
+        recordAccess(ChangeEventType.ACCESS_EXPIRED, userModule);
+    }
+
+    private void recordAccess(ChangeEventType type, UserModule userModule) {
+        append(ChangeEvent.builder()
+                .type(type)
+                .userId(userModule.getUser().getId())
+                .moduleId(userModule.getModule().getId())
+                .expirationDate(userModule.getExpirationDate())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void append(ChangeEvent event) {
+        // Procura nas sincronizações da transação corrente: uma transação suspensa (REQUIRES_NEW) tem as suas
+        PendingEvents pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingEvents.class::isInstance)
+                .map(PendingEvents.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingEvents created = new PendingEvents();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    return created;
+                });
+        pending.events.add(event);
+    }
+
+    /**
+     * Eventos da transação corrente, numerados e gravados no beforeCommit.
+     */
+    private final class PendingEvents implements TransactionSynchronization {
+
+        private final List<ChangeEvent> events = new ArrayList<>();
+        private long lastSequence;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Grava o resto da transação antes de pegar o contador: com ele em mãos, só os eventos e o commit
+            entityManager.flush();
+            ChangeEventSequence sequence = entityManager.find(ChangeEventSequence.class, ChangeEventSequence.FEED,
+                    LockModeType.PESSIMISTIC_WRITE);
+            if (sequence == null) {
+                throw new IllegalStateException("Contador do feed de alterações não inicializado");
+            }
+            for (ChangeEvent event : events) {
+                sequence.setLastValue(sequence.getLastValue() + 1);
+                event.setId(sequence.getLastValue());
+                entityManager.persist(event);
+            }
+            lastSequence = sequence.getLastValue();
+            entityManager.flush();
+        }
+
+        @Override
+        public void afterCommit() {
+            eventPublisher.publishEvent(new Committed(lastSequence));
+        }
+    }
+
+    /**
+     * @param after último número de sequência já processado pelo consumidor (0 na primeira chamada)
+     * @param limit tamanho máximo do lote, limitado a {@code change-feed.max-limit}
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedDTO getChanges(long after, int limit) {
+        if (after < 0) {
+            throw new BusinessException("O parâmetro after não pode ser negativo");
+        }
+        if (limit < 1) {
+            throw new BusinessException("O parâmetro limit deve ser maior que zero");
+        }
+
+        int batchSize = Math.min(limit, maxLimit);
+        // Um evento a mais para saber se há outro lote sem uma consulta de contagem
+        List<ChangeEvent> candidates = changeEventRepository.findByIdGreaterThanOrderByIdAsc(
+                after, PageRequest.of(0, batchSize + 1));
+
+        List<ChangeEventDTO> events = candidates.stream()
+                .limit(batchSize)
+                .map(this::toDTO)
+                .toList();
+
+        return ChangeFeedDTO.builder()
+                .events(events)
+                .nextAfter(events.isEmpty() ? after : events.get(events.size() - 1).getSequence())
+                .hasMore(candidates.size() > batchSize)
+                .build();
+    }
+
+    /**
+     * Eventos de um usuário no intervalo (after, upTo], para reenviar o que um
+     * cliente de SSE perdeu enquanto estava desconectado.
+     */
+    @Transactional(readOnly = true)
+    public List<ChangeEventDTO> getUserChanges(Long userId, long after, long upTo, int limit) {
+        return changeEventRepository.findByUserIdAndIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                        userId, after, upTo, PageRequest.of(0, limit))
+                .stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public long getLatestSequence() {
+        return changeEventRepository.findMaxId();
+    }
+
+    private ChangeEventDTO toDTO(ChangeEvent event) {
+        return ChangeEventDTO.builder()
+                .sequence(event.getId())
+                .type(event.getType())
+                .userId(event.getUserId())
+                .requestId(event.getRequestId())
+                .moduleId(event.getModuleId())
+                .status(event.getStatus())
+                .expirationDate(event.getExpirationDate())
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+}
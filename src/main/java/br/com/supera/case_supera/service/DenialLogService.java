@@ -0,0 +1,119 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.DenialLogEntryDTO;
+import br.com.supera.case_supera.entity.DenialLogEntry;
+import br.com.supera.case_supera.entity.DenialOperation;
+import br.com.supera.case_supera.entity.DenialRule;
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.exception.BusinessException;
+import br.com.supera.case_supera.repository.DenialLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Política de armazenamento das solicitações negadas pelas regras automáticas.
+ *
+ * Com {@code access-requests.denial-storage=full} (padrão) a negação é gravada
+ * como qualquer solicitação: AccessRequest com protocolo, módulos e histórico.
+ * Com {@code log}, vira uma linha em denial_log (usuário, operação, código da
+ * regra e ids dos módulos), e access_requests e seus índices só recebem
+ * solicitações que de fato concederam ou alteraram acessos.
+ *
+ * No modo assíncrono a solicitação já foi gravada como PENDENTE antes da
+ * avaliação, então a negação continua sendo registrada nela.
+ */
+@Service
+public class DenialLogService {
+
+    public static final String STORAGE_FULL = "full";
+    public static final String STORAGE_LOG = "log";
+
+    private final DenialLogRepository denialLogRepository;
+
+    @Value("${access-requests.denial-storage:" + STORAGE_FULL + "}")
+    private String storage = STORAGE_FULL;
+
+    @Value("${access-requests.denial-log.max-page-size:500}")
+    private int maxPageSize = 500;
+
+    public DenialLogService(DenialLogRepository denialLogRepository) {
+        this.denialLogRepository = denialLogRepository;
+    }
+
+    /**
+     * Indica se as negações devem ir para o log em vez de access_requests.
+     */
+    public boolean isLogStorage() {
+        return STORAGE_LOG.equalsIgnoreCase(storage);
+    }
+
+    public DenialLogEntry entry(Long userId, DenialOperation operation, DenialRule rule,
+                                Collection<Module> modules, Long renewedFromId) {
+        return DenialLogEntry.builder()
+                .userId(userId)
+                .operation(operation)
+                .rule(rule)
+                .moduleIds(modules.stream()
+                        .map(Module::getId)
+                        .sorted()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(",")))
+                .renewedFromId(renewedFromId)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Transactional
+    public void record(DenialLogEntry entry) {
+        denialLogRepository.save(entry);
+    }
+
+    @Transactional
+    public void recordAll(List<DenialLogEntry> entries) {
+        denialLogRepository.saveAll(entries);
+    }
+
+    /**
+     * Consulta de auditoria, mais recentes primeiro. Sem período informado,
+     * considera os últimos 30 dias.
+     */
+    @Transactional(readOnly = true)
+    public Page<DenialLogEntryDTO> search(Long userId, DenialRule rule, LocalDateTime from, LocalDateTime to,
+                                          int page, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new BusinessException("O tamanho da página deve estar entre 1 e " + maxPageSize);
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(30);
+        if (!start.isBefore(end)) {
+            throw new BusinessException("A data inicial deve ser anterior à data final");
+        }
+
+        return denialLogRepository.search(userId, rule, start, end, PageRequest.of(page, size))
+                .map(this::toDTO);
+    }
+
+    private DenialLogEntryDTO toDTO(DenialLogEntry entry) {
+        return DenialLogEntryDTO.builder()
+                .id(entry.getId())
+                .userId(entry.getUserId())
+                .operation(entry.getOperation())
+                .rule(entry.getRule())
+                .reason(entry.getRule().getMessage())
+                .moduleIds(entry.getModuleIds().isEmpty() ? List.of() : Arrays.stream(entry.getModuleIds().split(","))
+                        .map(Long::valueOf)
+                        .toList())
+                .renewedFromId(entry.getRenewedFromId())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.entity.IdempotencyKey;
+import br.com.supera.case_supera.exception.BusinessException;
+import br.com.supera.case_supera.exception.IdempotencyConflictException;
+import br.com.supera.case_supera.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Garante que requisições repetidas com o mesmo header Idempotency-Key sejam
+ * executadas uma única vez. A chave é reservada no banco (compartilhado entre
+ * os nós) antes da execução; duplicatas recebem a resposta original.
+ *
+ * A reserva é confirmada em transação própria, antes da operação; a resposta
+ * é gravada na mesma transação da operação. Assim, uma chave sem resposta
+ * significa que a operação não foi confirmada: se o nó cair no meio, quando o
+ * prazo {@code idempotency.lease} vence outra tentativa assume a chave e
+ * executa de novo, sem duplicar. Quem perdeu a chave por estourar o prazo não
+ * consegue gravar a resposta e a sua operação é desfeita.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter canonicalWriter;
+
+    @Value("${idempotency.ttl:PT24H}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${idempotency.lease:PT30S}")
+    private Duration lease = Duration.ofSeconds(30);
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    }
+
+    /**
+     * Corpo da requisição em forma canônica para o fingerprint: JSON com os
+     * campos em ordem alfabética. Quem chama normaliza os valores equivalentes
+     * (lista usada como conjunto, booleano ausente), para que o mesmo pedido
+     * escrito de outra forma não seja tratado como conflito.
+     */
+    public String canonicalPayload(Map<String, ?> fields) {
+        try {
+            return canonicalWriter.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o corpo da requisição", e);
+        }
+    }
+
+    public String execute(Long userId, String key, String operation, String payload, Supplier<String> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key deve ter no máximo " + MAX_KEY_LENGTH + " caracteres");
+        }
+
+        String fingerprint = fingerprint(operation, payload);
+        IdempotencyKey claim = IdempotencyKey.builder()
+                .userId(userId)
+                .idempotencyKey(key)
+                .fingerprint(fingerprint)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .inProgressUntil(newLease())
+                .build();
+
+        try {
+            claim = idempotencyKeyRepository.saveAndFlush(claim);
+        } catch (DataIntegrityViolationException e) {
+            return replay(userId, key, fingerprint, operation, payload, action);
+        }
+
+        return run(claim, action);
+    }
+
+    private String run(IdempotencyKey claim, Supplier<String> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                String response = action.get();
+                if (idempotencyKeyRepository.complete(claim.getId(), claim.getInProgressUntil(), response) == 0) {
+                    // Outra tentativa assumiu a chave: desfaz esta execução para não aplicar a operação duas vezes
+                    throw new IdempotencyConflictException(
+                            "Requisição com esta Idempotency-Key ainda está em processamento");
+                }
+                return response;
+            });
+        } catch (IdempotencyConflictException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Libera a chave para que o cliente possa tentar novamente, se ainda for desta execução
+            idempotencyKeyRepository.release(claim.getId(), claim.getInProgressUntil());
+            throw e;
+        }
+    }
+
+    private String replay(Long userId, String key, String fingerprint, String operation, String payload,
+                          Supplier<String> action) {
+        Optional<IdempotencyKey> existing = idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, key);
+
+        if (existing.isEmpty()) {
+            // A execução original falhou e liberou a chave nesse meio tempo
+            throw new IdempotencyConflictException("Requisição com esta Idempotency-Key ainda está em processamento");
+        }
+
+        IdempotencyKey stored = existing.get();
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            idempotencyKeyRepository.delete(stored);
+            return execute(userId, key, operation, payload, action);
+        }
+
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyConflictException("Idempotency-Key já utilizada em outra requisição");
+        }
+
+        if (stored.getResponse() == null) {
+            LocalDateTime now = LocalDateTime.now();
+            if (stored.getInProgressUntil() != null && stored.getInProgressUntil().isAfter(now)) {
+                throw new IdempotencyConflictException("Requisição com esta Idempotency-Key ainda está em processamento");
+            }
+            // A execução original não terminou no prazo (nó caiu ou falhou antes do commit) e nada foi confirmado
+            LocalDateTime newLease = newLease();
+            if (idempotencyKeyRepository.reclaim(stored.getId(), newLease, now) == 0) {
+                throw new IdempotencyConflictException("Requisição com esta Idempotency-Key ainda está em processamento");
+            }
+            stored.setInProgressUntil(newLease);
+            return run(stored, action);
+        }
+
+        return stored.getResponse();
+    }
+
+    // Precisão de microssegundos, a mesma do banco, para que a comparação em complete() seja exata
+    private LocalDateTime newLease() {
+        return LocalDateTime.now().plus(lease).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:PT10M}")
+    public void evictExpiredKeys() {
+        idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    static String fingerprint(String operation, String payload) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((operation + ":" + payload).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -5,11 +5,14 @@ import br.com.supera.case_supera.entity.Department;
 import br.com.supera.case_supera.entity.Module;
 import br.com.supera.case_supera.entity.User;
 import br.com.supera.case_supera.repository.ModuleRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +25,7 @@ public class ModuleService {
         this.moduleRepository = moduleRepository;
     }
 
+    @Cacheable(cacheNames = "modules", key = "'all'")
     public List<ModuleResponseDTO> getAllModules() {
         List<Module> modules = moduleRepository.findAll();
         return modules.stream()
@@ -29,6 +33,17 @@ public class ModuleService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Catálogo completo, com departamentos e incompatibilidades já carregados,
+     * para avaliar as regras de acesso em memória (fora de transação).
+     */
+    @Cacheable(cacheNames = "moduleCatalog", key = "'all'")
+    public Map<Long, Module> getModuleCatalog() {
+        return moduleRepository.findAllWithRules().stream()
+                .collect(Collectors.toUnmodifiableMap(Module::getId, Function.identity()));
+    }
+
+    @Cacheable(cacheNames = "availableModules", key = "#user.department")
     public List<ModuleResponseDTO> getAvailableModules(User user) {
         List<Module> modules = moduleRepository.findByActiveTrue();
         Department userDepartment = user.getDepartment();
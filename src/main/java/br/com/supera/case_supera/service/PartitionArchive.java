@@ -0,0 +1,322 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.AccessHistoryDTO;
+import br.com.supera.case_supera.entity.HistoryReason;
+import br.com.supera.case_supera.entity.RequestStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Arquivo frio das partições mensais removidas do banco: um arquivo NDJSON
+ * compactado (gzip) por partição, em {@code partitioning.archive-dir}/tabela/.
+ * Em mais de um nó o diretório deve ser compartilhado (volume), pois a
+ * manutenção roda em um nó e a leitura em qualquer um.
+ *
+ * O histórico é gravado em ordem de solicitação, com um membro gzip por
+ * solicitação (a concatenação continua sendo um gzip válido), e um índice
+ * {@code .idx} ao lado: entradas de tamanho fixo (request_id, posição,
+ * tamanho) ordenadas por request_id. A leitura de uma solicitação é uma busca
+ * binária no índice e a descompressão só do seu membro.
+ */
+@Service
+public class PartitionArchive {
+
+    static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    // Tabelas arquivadas agrupadas por uma coluna, com índice
+    private static final Map<String, String> GROUP_COLUMNS = Map.of("access_history", "request_id");
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final ObjectMapper objectMapper;
+    private final Path archiveDir;
+
+    public PartitionArchive(ObjectMapper objectMapper,
+                            @Value("${partitioning.archive-dir:archive}") Path archiveDir) {
+        this.objectMapper = objectMapper;
+        this.archiveDir = archiveDir;
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    Path file(String table, YearMonth month) {
+        return archiveDir.resolve(table).resolve(partitionName(table, month) + ".ndjson.gz");
+    }
+
+    Path index(String table, YearMonth month) {
+        return archiveDir.resolve(table).resolve(partitionName(table, month) + ".idx");
+    }
+
+    /**
+     * Grava todas as linhas da partição, em ordem de id (ou agrupadas com
+     * índice, ver a classe). O arquivo só aparece com o nome final depois de
+     * completo, e depois do índice, então um arquivo existente é sempre uma
+     * cópia integral.
+     */
+    public Path write(JdbcTemplate jdbcTemplate, String table, YearMonth month) {
+        Path target = file(table, month);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        String groupColumn = GROUP_COLUMNS.get(table);
+        try {
+            Files.createDirectories(target.getParent());
+            if (groupColumn == null) {
+                try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(temp));
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                    jdbcTemplate.query("SELECT * FROM " + partitionName(table, month) + " ORDER BY id",
+                            (RowCallbackHandler) rs -> writeRow(generator, rs));
+                }
+            } else {
+                Path index = index(table, month);
+                Path indexTemp = index.resolveSibling(index.getFileName() + ".tmp");
+                try (GroupedWriter writer = new GroupedWriter(temp, indexTemp)) {
+                    jdbcTemplate.query("SELECT * FROM " + partitionName(table, month)
+                                    + " ORDER BY " + groupColumn + ", id",
+                            (RowCallbackHandler) rs -> writer.row(rs.getLong(groupColumn), rs));
+                }
+                Files.move(indexTemp, index, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao arquivar a partição " + partitionName(table, month), e);
+        }
+    }
+
+    private static void writeRow(JsonGenerator generator, ResultSet rs) throws SQLException {
+        try {
+            ResultSetMetaData metaData = rs.getMetaData();
+            generator.writeStartObject();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                Object value = rs.getObject(i);
+                if (value instanceof Timestamp timestamp) {
+                    value = timestamp.toLocalDateTime().toString();
+                }
+                generator.writeObjectField(metaData.getColumnLabel(i).toLowerCase(), value);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Linhas em ordem de grupo: cada grupo é compactado em memória como um
+     * membro gzip próprio e anotado no índice com a posição no arquivo.
+     */
+    private final class GroupedWriter implements AutoCloseable {
+
+        private final OutputStream output;
+        private final DataOutputStream index;
+        private final ByteArrayOutputStream member = new ByteArrayOutputStream();
+        private JsonGenerator generator;
+        private long currentKey;
+        private long offset;
+
+        GroupedWriter(Path file, Path indexFile) throws IOException {
+            this.output = new BufferedOutputStream(Files.newOutputStream(file));
+            this.index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)));
+        }
+
+        void row(long key, ResultSet rs) throws SQLException {
+            try {
+                if (generator == null || key != currentKey) {
+                    finishMember();
+                    currentKey = key;
+                    generator = objectMapper.getFactory().createGenerator(new GZIPOutputStream(member));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            writeRow(generator, rs);
+        }
+
+        private void finishMember() throws IOException {
+            if (generator == null) {
+                return;
+            }
+            generator.close(); // fecha o gzip, que termina o membro
+            member.writeTo(output);
+            index.writeLong(currentKey);
+            index.writeLong(offset);
+            index.writeInt(member.size());
+            offset += member.size();
+            member.reset();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (output; index) {
+                finishMember();
+            }
+        }
+    }
+
+    /**
+     * Histórico arquivado de uma solicitação. O histórico começa no mês da
+     * solicitação e os meses são arquivados do mais antigo para o mais novo:
+     * sem arquivo desse mês, nada da solicitação saiu do banco. Caso contrário,
+     * lê os meses seguintes que tenham arquivo.
+     *
+     * @param moduleNames nome dos módulos da solicitação pelo id, para montar os motivos
+     */
+    public List<AccessHistoryDTO> findHistory(Long requestId, LocalDateTime requestDate,
+                                              Function<Long, String> moduleNames) {
+        YearMonth first = YearMonth.from(requestDate);
+        if (!Files.exists(file("access_history", first))) {
+            return List.of();
+        }
+        List<AccessHistoryDTO> history = new ArrayList<>();
+        YearMonth last = YearMonth.now();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            Path file = file("access_history", month);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            Path index = index("access_history", month);
+            if (Files.exists(index)) {
+                readIndexedHistory(file, index, requestId, moduleNames, history);
+            } else {
+                readHistory(file, requestId, moduleNames, history);
+            }
+        }
+        history.sort(Comparator.comparing(AccessHistoryDTO::getChangeDate));
+        return history;
+    }
+
+    private void readIndexedHistory(Path file, Path index, long requestId, Function<Long, String> moduleNames,
+                                    List<AccessHistoryDTO> history) {
+        try (FileChannel indexChannel = FileChannel.open(index, StandardOpenOption.READ)) {
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+            long low = 0;
+            long high = indexChannel.size() / INDEX_ENTRY_BYTES - 1;
+            while (low <= high) {
+                long middle = (low + high) >>> 1;
+                entry.clear();
+                readFully(indexChannel, entry, middle * INDEX_ENTRY_BYTES);
+                entry.flip();
+                long key = entry.getLong();
+                if (key < requestId) {
+                    low = middle + 1;
+                } else if (key > requestId) {
+                    high = middle - 1;
+                } else {
+                    long offset = entry.getLong();
+                    ByteBuffer member = ByteBuffer.allocate(entry.getInt());
+                    try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                        readFully(fileChannel, member, offset);
+                    }
+                    // Só as linhas da solicitação
+                    readLines(new GZIPInputStream(new ByteArrayInputStream(member.array())), file, requestId,
+                            moduleNames, history);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o índice " + index, e);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Arquivo truncado");
+            }
+        }
+    }
+
+    // Arquivos gravados antes do índice: o mês inteiro é descompactado
+    private void readHistory(Path file, Long requestId, Function<Long, String> moduleNames,
+                             List<AccessHistoryDTO> history) {
+        try {
+            readLines(new GZIPInputStream(Files.newInputStream(file)), file, requestId, moduleNames, history);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o arquivo " + file, e);
+        }
+    }
+
+    private void readLines(InputStream input, Path file, long requestId, Function<Long, String> moduleNames,
+                           List<AccessHistoryDTO> history) {
+        String needle = "\"request_id\":" + requestId;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Só as linhas candidatas passam pelo parser de JSON
+                if (!mentions(line, needle)) {
+                    continue;
+                }
+                JsonNode row = objectMapper.readTree(line);
+                if (row.path("request_id").asLong() != requestId) {
+                    continue;
+                }
+                HistoryReason reasonCode = row.path("reason_code").isNull() || row.path("reason_code").isMissingNode()
+                        ? null : HistoryReason.fromCode(row.path("reason_code").asInt());
+                history.add(AccessHistoryDTO.builder()
+                        .previousStatus(row.path("previous_status").isTextual()
+                                ? RequestStatus.valueOf(row.path("previous_status").asText()) : null)
+                        .newStatus(RequestStatus.valueOf(row.path("new_status").asText()))
+                        .changeDate(LocalDateTime.parse(row.path("change_date").asText()))
+                        .reasonCode(reasonCode)
+                        .reason(HistoryReason.render(reasonCode, row.path("reason_params").textValue(),
+                                row.path("reason").textValue(), moduleNames))
+                        .build());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o arquivo " + file, e);
+        }
+    }
+
+    /**
+     * Filtro textual: {@code "request_id":7} seguido de vírgula ou fim do objeto
+     * (o arquivo é gravado pelo próprio {@link #write}, sem espaços). Um texto
+     * livre com a mesma sequência só custa a leitura do JSON, que confirma o id.
+     */
+    static boolean mentions(String line, String needle) {
+        for (int index = line.indexOf(needle); index >= 0; index = line.indexOf(needle, index + 1)) {
+            int end = index + needle.length();
+            if (end < line.length() && (line.charAt(end) == ',' || line.charAt(end) == '}')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
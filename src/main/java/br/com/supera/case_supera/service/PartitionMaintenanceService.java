@@ -0,0 +1,310 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Particionamento mensal por faixa (PostgreSQL) das tabelas append-only de
+ * maior volume: access_history (change_date) e denial_log (created_at).
+ *
+ * A tabela criada pelo Hibernate só vira particionada pelo comando explícito
+ * {@link #convert(String)}, que copia as linhas em lotes; até lá a manutenção
+ * a ignora. Depois, diariamente: cria as partições do mês corrente e dos
+ * próximos {@code partitioning.premake-months}, e arquiva em arquivo
+ * compactado ({@link PartitionArchive}), desanexa e remove as partições com
+ * mais de {@code partitioning.retention-months}.
+ *
+ * access_requests não é particionada: o PostgreSQL exige a coluna de partição
+ * em toda chave primária e única, e a tabela é referenciada por chave
+ * estrangeira (request_modules, access_history, renewed_from_id) e tem
+ * protocolo único. As consultas quentes dela já usam os índices por usuário.
+ *
+ * Roda em todos os nós; um advisory lock garante uma manutenção por vez.
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    // Chave do advisory lock da manutenção e da conversão
+    private static final long LOCK_KEY = 4_700_047L;
+
+    static final List<PartitionedTable> TABLES = List.of(
+            new PartitionedTable("access_history", "change_date"),
+            new PartitionedTable("denial_log", "created_at"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionArchive partitionArchive;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${partitioning.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${partitioning.premake-months:3}")
+    private int premakeMonths = 3;
+
+    @Value("${partitioning.retention-months:24}")
+    private int retentionMonths = 24;
+
+    @Value("${partitioning.convert-batch-size:50000}")
+    private int convertBatchSize = 50_000;
+
+    private volatile Boolean postgres;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       PartitionArchive partitionArchive,
+                                       PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionArchive = partitionArchive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${partitioning.cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!enabled || !isPostgres()) {
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        for (PartitionedTable table : TABLES) {
+            // Uma transação por tabela: o arquivamento é DDL transacional no PostgreSQL
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    return;
+                }
+                String kind = relkind(table.name());
+                if (kind == null) {
+                    return;
+                }
+                if (!"p".equals(kind)) {
+                    log.warn("{} ainda não é particionada; converta com POST /api/partitions/{}/convert",
+                            table.name(), table.name());
+                    return;
+                }
+                for (int i = 0; i <= premakeMonths; i++) {
+                    createPartition(table, current.plusMonths(i));
+                }
+                archiveExpired(table, current.minusMonths(retentionMonths));
+            });
+        }
+    }
+
+    /**
+     * Converte a tabela criada pelo Hibernate em tabela particionada, com a
+     * aplicação no ar. Comando explícito (POST /api/partitions/{tabela}/convert),
+     * nunca automático: a tabela nova é montada ao lado, já com CHECK, chave
+     * primária, índices e chaves estrangeiras, e recebe as linhas em lotes por id,
+     * uma transação por lote. Só o que chegou depois do último lote é copiado sob
+     * ACCESS EXCLUSIVE, junto com a troca de nomes.
+     *
+     * @return número de linhas copiadas; 0 se a tabela já é particionada
+     */
+    public long convert(String tableName) {
+        PartitionedTable table = TABLES.stream()
+                .filter(candidate -> candidate.name().equals(tableName))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("Tabela não particionável: " + tableName));
+        if (!isPostgres()) {
+            throw new BusinessException("Particionamento disponível apenas no PostgreSQL");
+        }
+
+        // Lock de sessão numa conexão presa durante a conversão; a manutenção diária usa a mesma chave e é pulada
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(?)")) {
+                throw new BusinessException("Manutenção de partições em andamento");
+            }
+            try {
+                return copyIntoPartitioned(table);
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)");
+            }
+        });
+        return copied == null ? 0 : copied;
+    }
+
+    private long copyIntoPartitioned(PartitionedTable table) {
+        String name = table.name();
+        String kind = relkind(name);
+        if (kind == null) {
+            throw new BusinessException("Tabela não encontrada: " + name);
+        }
+        if ("p".equals(kind)) {
+            return 0;
+        }
+        String target = name + "_partitioned";
+        log.info("Convertendo {} em tabela particionada por mês ({}), em lotes de {}", name, table.column(),
+                convertBatchSize);
+
+        List<String> indexes = transactionTemplate.execute(status -> prepare(table, target));
+
+        long copied = 0;
+        long total = 0;
+        while (true) {
+            // SHARE espera as inserções em andamento: todo id até o máximo lido já está confirmado
+            Long high = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("LOCK TABLE " + name + " IN SHARE MODE");
+                return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + name, Long.class);
+            });
+            if (high - copied <= convertBatchSize) {
+                break;
+            }
+            for (long after = copied; after < high; after += convertBatchSize) {
+                long from = after;
+                long to = Math.min(after + convertBatchSize, high);
+                total += transactionTemplate.execute(status -> jdbcTemplate.update("INSERT INTO " + target +
+                        " SELECT * FROM " + name + " WHERE id > ? AND id <= ?", from, to));
+            }
+            copied = high;
+            log.info("{}: {} linhas copiadas", name, total);
+        }
+
+        long from = copied;
+        total += transactionTemplate.execute(status -> swap(table, target, indexes, from));
+        log.info("{} convertida em tabela particionada: {} linhas copiadas", name, total);
+        return total;
+    }
+
+    /**
+     * Cria a tabela particionada ao lado da original. Os índices recebem o
+     * sufixo _new até a troca, pois o nome de índice é único no schema.
+     *
+     * @return nomes originais dos índices copiados
+     */
+    private List<String> prepare(PartitionedTable table, String target) {
+        String name = table.name();
+        // Sobra de uma conversão interrompida: recomeça do zero
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + target);
+        // INCLUDING CONSTRAINTS leva os CHECK (ex.: valores dos enums); NOT NULL sempre é copiado
+        jdbcTemplate.execute("CREATE TABLE " + target + " (LIKE " + name +
+                " INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING IDENTITY) PARTITION BY RANGE (" + table.column() + ")");
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(" + table.column() + ") FROM " + name, Timestamp.class);
+        YearMonth first = oldest == null ? YearMonth.now() : YearMonth.from(oldest.toLocalDateTime());
+        YearMonth last = YearMonth.now().plusMonths(premakeMonths);
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            createPartition(target, PartitionArchive.partitionName(name, month), month);
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + target + " ADD CONSTRAINT " + target + "_pkey " +
+                "PRIMARY KEY (id, " + table.column() + ")");
+        List<Map<String, Object>> indexes = jdbcTemplate.queryForList("SELECT c.relname::text AS name, " +
+                "substring(pg_get_indexdef(i.indexrelid) from ' USING .*$') AS definition FROM pg_index i " +
+                "JOIN pg_class c ON c.oid = i.indexrelid " +
+                "WHERE i.indrelid = ?::regclass AND NOT i.indisprimary AND NOT i.indisunique", name);
+        for (Map<String, Object> index : indexes) {
+            jdbcTemplate.execute("CREATE INDEX " + index.get("name") + "_new ON " + target + index.get("definition"));
+        }
+        // Nome de chave estrangeira é único por tabela: já recebe o nome definitivo
+        jdbcTemplate.queryForList("SELECT 'ALTER TABLE " + target + " ADD CONSTRAINT ' " +
+                "|| quote_ident(conname) || ' ' || pg_get_constraintdef(oid) FROM pg_constraint " +
+                "WHERE conrelid = ?::regclass AND contype = 'f'", String.class, name)
+                .forEach(jdbcTemplate::execute);
+        return indexes.stream().map(index -> (String) index.get("name")).toList();
+    }
+
+    /**
+     * Copia o restante e troca as tabelas sob ACCESS EXCLUSIVE.
+     *
+     * @return linhas copiadas neste passo
+     */
+    private long swap(PartitionedTable table, String target, List<String> indexes, long copiedUpTo) {
+        String name = table.name();
+        jdbcTemplate.execute("LOCK TABLE " + name + " IN ACCESS EXCLUSIVE MODE");
+        long rows = jdbcTemplate.update("INSERT INTO " + target + " SELECT * FROM " + name + " WHERE id > ?", copiedUpTo);
+
+        jdbcTemplate.execute("DROP TABLE " + name);
+        jdbcTemplate.execute("ALTER TABLE " + target + " RENAME TO " + name);
+        // Mesmos nomes da tabela original, para o ddl-auto não recriá-los
+        jdbcTemplate.execute("ALTER TABLE " + name + " RENAME CONSTRAINT " + target + "_pkey TO " + name + "_pkey");
+        for (String index : indexes) {
+            jdbcTemplate.execute("ALTER INDEX " + index + "_new RENAME TO " + index);
+        }
+        jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('" + name + "', 'id'), " +
+                "(SELECT COALESCE(MAX(id), 1) FROM " + name + "))", Long.class);
+        return rows;
+    }
+
+    private String relkind(String table) {
+        List<String> kind = jdbcTemplate.queryForList("SELECT c.relkind::text FROM pg_class c " +
+                "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE n.nspname = current_schema() AND c.relname = ?", String.class, table);
+        return kind.isEmpty() ? null : kind.get(0);
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private void createPartition(PartitionedTable table, YearMonth month) {
+        createPartition(table.name(), PartitionArchive.partitionName(table.name(), month), month);
+    }
+
+    private void createPartition(String parent, String partition, YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + parent +
+                " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    /**
+     * Arquiva e remove as partições de meses anteriores a {@code cutoff}.
+     */
+    private void archiveExpired(PartitionedTable table, YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname::text FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = ?::regclass", String.class, table.name());
+        String prefix = table.name() + "_p";
+        for (String partition : partitions) {
+            if (!partition.startsWith(prefix)) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(partition.substring(prefix.length()), PartitionArchive.PARTITION_SUFFIX);
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+            partitionArchive.write(jdbcTemplate, table.name(), month);
+            jdbcTemplate.execute("ALTER TABLE " + table.name() + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("Partição {} arquivada e removida", partition);
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return postgres;
+    }
+
+    record PartitionedTable(String name, String column) {
+    }
+}
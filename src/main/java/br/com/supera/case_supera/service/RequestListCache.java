@@ -0,0 +1,136 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Primeira página padrão de GET /api/requests (sem filtros, página 0 e
+ * {@code access-requests.list-cache.page-size} itens) de cada usuário, já
+ * serializada em JSON.
+ *
+ * Carga única por usuário: quem pede uma página que já está sendo carregada
+ * espera essa carga em vez de consultar o banco de novo. A carga roda na
+ * thread de quem pediu (mantém o contexto de segurança usado no roteamento
+ * para a réplica), fora de qualquer lock do cache.
+ *
+ * Invalidação: quem grava o resumo da solicitação descarta a página do usuário
+ * na hora e de novo após o commit, para que uma carga que leu o estado anterior
+ * não permaneça no cache. Os demais nós (e o próprio) descartam ao receber os
+ * eventos do feed pelo {@link ChangeEventPoller}.
+ */
+@Component
+public class RequestListCache {
+
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<Long, byte[]> firstPages;
+    private final boolean enabled;
+    private final int pageSize;
+
+    public RequestListCache(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${access-requests.list-cache.enabled:true}") boolean enabled,
+                            @Value("${access-requests.list-cache.page-size:10}") int pageSize,
+                            @Value("${access-requests.list-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${access-requests.list-cache.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+        this.firstPages = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, firstPages, "requestListFirstPage");
+    }
+
+    /**
+     * Indica se a consulta é a primeira página padrão, a única mantida em cache.
+     */
+    public boolean isCacheable(boolean hasFilters, int page, int size) {
+        return enabled && !hasFilters && page == 0 && size == pageSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @param loader consulta a página no banco; chamado no máximo uma vez por
+     *               usuário enquanto a página não estiver em cache
+     */
+    public byte[] getFirstPage(Long userId, Supplier<?> loader) {
+        CompletableFuture<byte[]> loading = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = firstPages.asMap().putIfAbsent(userId, loading);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                // A falha da carga é de quem carregou; o erro é repassado a quem esperava
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(loader.get());
+            loading.complete(json);
+            return json;
+        } catch (JsonProcessingException e) {
+            fail(userId, loading, e);
+            throw new UncheckedIOException("Falha ao serializar a lista de solicitações", e);
+        } catch (RuntimeException e) {
+            fail(userId, loading, e);
+            throw e;
+        }
+    }
+
+    private void fail(Long userId, CompletableFuture<byte[]> loading, Exception e) {
+        firstPages.asMap().remove(userId, loading);
+        loading.completeExceptionally(e);
+    }
+
+    /**
+     * Descarta as páginas agora e novamente após o commit da transação corrente.
+     */
+    public void evictAfterCommit(Collection<Long> userIds) {
+        evict(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userIds);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        firstPages.synchronous().invalidateAll();
+    }
+
+    @EventListener
+    public void onChange(ChangeEventDTO event) {
+        // Alterações feitas em qualquer nó, inclusive a expiração de acessos
+        firstPages.synchronous().invalidate(event.getUserId());
+    }
+
+    private void evict(Collection<Long> userIds) {
+        firstPages.synchronous().invalidateAll(userIds);
+    }
+}
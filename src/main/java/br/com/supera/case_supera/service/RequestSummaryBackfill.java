@@ -0,0 +1,96 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.repository.AccessRequestRepository;
+import br.com.supera.case_supera.repository.RequestSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Preenche o resumo (request_summary) na subida quando ele tem menos linhas que
+ * access_requests: primeiro deploy sobre um banco existente ou carga feita fora
+ * da aplicação. Sem isso a listagem ficaria vazia até alguém chamar
+ * POST /api/request-summary/rebuild.
+ *
+ * Roda no ApplicationReadyEvent, antes de o nó ficar pronto para tráfego. No
+ * PostgreSQL os nós disputam um advisory lock de sessão: o primeiro reconstrói
+ * e os demais esperam e, ao conseguir o lock, encontram as contagens iguais.
+ */
+@Service
+public class RequestSummaryBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestSummaryBackfill.class);
+
+    // Chave do pg_advisory_lock do preenchimento
+    private static final long LOCK_KEY = 4_800_048L;
+
+    private final AccessRequestRepository accessRequestRepository;
+    private final RequestSummaryRepository requestSummaryRepository;
+    private final RequestSummaryService requestSummaryService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${request-summary.backfill-on-startup:true}")
+    private boolean enabled = true;
+
+    public RequestSummaryBackfill(AccessRequestRepository accessRequestRepository,
+                                  RequestSummaryRepository requestSummaryRepository,
+                                  RequestSummaryService requestSummaryService,
+                                  JdbcTemplate jdbcTemplate) {
+        this.accessRequestRepository = accessRequestRepository;
+        this.requestSummaryRepository = requestSummaryRepository;
+        this.requestSummaryService = requestSummaryService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled) {
+            return;
+        }
+        // A conexão do lock fica presa durante a reconstrução; os lotes usam outras conexões do pool
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+            if (!postgres) {
+                backfillIfMissing();
+                return null;
+            }
+            advisoryLock(connection, "SELECT pg_advisory_lock(?)");
+            try {
+                backfillIfMissing();
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)");
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @return true se o resumo foi reconstruído
+     */
+    boolean backfillIfMissing() {
+        long requests = accessRequestRepository.count();
+        long summaries = requestSummaryRepository.count();
+        if (summaries >= requests) {
+            return false;
+        }
+        log.info("Resumo com {} de {} solicitações; reconstruindo antes de receber tráfego", summaries, requests);
+        requestSummaryService.rebuild();
+        return true;
+    }
+
+    private static void advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, LOCK_KEY);
+            statement.executeQuery().close();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.AccessHistoryDTO;
+import br.com.supera.case_supera.dto.AccessRequestResponseDTO;
+import br.com.supera.case_supera.entity.AccessHistory;
+import br.com.supera.case_supera.entity.AccessRequest;
+import br.com.supera.case_supera.entity.HistoryReason;
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.entity.RequestSummary;
+import br.com.supera.case_supera.repository.AccessHistoryRepository;
+import br.com.supera.case_supera.repository.AccessRequestRepository;
+import br.com.supera.case_supera.repository.RequestSummaryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém e consulta o modelo de leitura request_summary ({@link RequestSummary}).
+ *
+ * Toda alteração de solicitação grava a linha correspondente na mesma transação
+ * (como o feed de alterações), então a listagem nunca vê um estado que não foi
+ * confirmado em access_requests. {@link #rebuild()} recria as linhas a partir
+ * das tabelas normalizadas: usado na subida quando faltam linhas
+ * ({@link RequestSummaryBackfill}), depois de cargas feitas fora da aplicação e
+ * para corrigir divergências. Cada gravação
+ * descarta a primeira página em cache do usuário ({@link RequestListCache}).
+ */
+@Service
+public class RequestSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestSummaryService.class);
+
+    private final RequestSummaryRepository requestSummaryRepository;
+    private final AccessRequestRepository accessRequestRepository;
+    private final AccessHistoryRepository accessHistoryRepository;
+    private final RequestListCache requestListCache;
+    private final ModuleService moduleService;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${request-summary.rebuild-batch-size:500}")
+    private int rebuildBatchSize = 500;
+
+    public RequestSummaryService(RequestSummaryRepository requestSummaryRepository,
+                                 AccessRequestRepository accessRequestRepository,
+                                 AccessHistoryRepository accessHistoryRepository,
+                                 RequestListCache requestListCache,
+                                 ModuleService moduleService,
+                                 PlatformTransactionManager transactionManager) {
+        this.requestSummaryRepository = requestSummaryRepository;
+        this.accessRequestRepository = accessRequestRepository;
+        this.accessHistoryRepository = accessHistoryRepository;
+        this.requestListCache = requestListCache;
+        this.moduleService = moduleService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Grava o resumo da solicitação com {@code lastHistory} como última entrada do histórico.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(AccessRequest request, AccessHistory lastHistory) {
+        requestSummaryRepository.save(toSummary(request, lastHistory));
+        requestListCache.evictAfterCommit(List.of(request.getUser().getId()));
+    }
+
+    /**
+     * Versão em lote para solicitações recém-criadas, cujo histórico já está em
+     * memória. Como a linha ainda não existe, insere direto, sem o SELECT do merge.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<AccessRequest> requests) {
+        for (AccessRequest request : requests) {
+            List<AccessHistory> history = request.getHistory();
+            entityManager.persist(toSummary(request, history.isEmpty() ? null : history.get(history.size() - 1)));
+        }
+        requestListCache.evictAfterCommit(requests.stream()
+                .map(request -> request.getUser().getId())
+                .collect(Collectors.toSet()));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<AccessRequestResponseDTO> findUserRequests(Long userId, String searchText, RequestStatus status,
+                                                           Boolean urgent, LocalDateTime startDate,
+                                                           LocalDateTime endDate, Pageable pageable) {
+        String search = searchText != null && !searchText.trim().isEmpty() ? "%" + searchText.trim() + "%" : null;
+        Pageable ordered = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                RequestSummaryRepository.LISTING_ORDER);
+        return requestSummaryRepository.findAll(
+                        RequestSummaryRepository.userRequests(userId, search, status, urgent, startDate, endDate), ordered)
+                .map(this::toDTO);
+    }
+
+    /**
+     * Recria o resumo de todas as solicitações, em lotes por id com uma
+     * transação por lote. As solicitações do lote ficam bloqueadas enquanto ele
+     * é gravado, para que uma alteração concorrente não seja sobrescrita com o
+     * estado anterior; pode rodar com a aplicação no ar.
+     *
+     * @return número de solicitações processadas
+     */
+    public long rebuild() {
+        long start = System.nanoTime();
+        long total = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            long lastId = afterId;
+            ids = accessRequestRepository.findIdsAfter(lastId, PageRequest.of(0, rebuildBatchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> batch = ids;
+            transactionTemplate.executeWithoutResult(status -> rebuildBatch(batch));
+            total += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == rebuildBatchSize);
+        // Só o cache deste nó; nos demais as páginas expiram pelo tempo
+        requestListCache.evictAll();
+
+        log.info("Resumo de {} solicitações reconstruído em {}ms", total, (System.nanoTime() - start) / 1_000_000);
+        return total;
+    }
+
+    private void rebuildBatch(List<Long> ids) {
+        accessRequestRepository.findAllByIdInForUpdate(ids);
+        // Inicializa os módulos das solicitações já carregadas em uma única consulta
+        List<AccessRequest> requests = accessRequestRepository.findAllWithModulesByIdIn(ids);
+        Map<Long, AccessHistory> lastHistory = accessHistoryRepository.findLatestByRequestIds(ids).stream()
+                .collect(Collectors.toMap(history -> history.getAccessRequest().getId(), Function.identity()));
+
+        // Linhas existentes carregadas de uma vez: o merge não faz SELECT por linha e as novas vão direto para INSERT
+        Set<Long> existing = requestSummaryRepository.findAllById(ids).stream()
+                .map(RequestSummary::getRequestId)
+                .collect(Collectors.toSet());
+        for (AccessRequest request : requests) {
+            RequestSummary summary = toSummary(request, lastHistory.get(request.getId()));
+            if (existing.contains(request.getId())) {
+                entityManager.merge(summary);
+            } else {
+                entityManager.persist(summary);
+            }
+        }
+    }
+
+    private RequestSummary toSummary(AccessRequest request, AccessHistory lastHistory) {
+        RequestSummary summary = RequestSummary.builder()
+                .requestId(request.getId())
+                .userId(request.getUser().getId())
+                .protocol(request.getProtocol())
+                .moduleNames(request.getRequestedModules().stream()
+                        .map(Module::getName)
+                        .sorted()
+                        .collect(Collectors.joining(RequestSummary.MODULE_SEPARATOR)))
+                .justification(request.getJustification())
+                .urgent(request.getUrgent())
+                .status(request.getStatus())
+                .requestDate(request.getRequestDate())
+                .expirationDate(request.getExpirationDate())
+                .denialReason(request.getDenialReason())
+                .build();
+        if (lastHistory != null) {
+            summary.setLastPreviousStatus(lastHistory.getPreviousStatus());
+            summary.setLastNewStatus(lastHistory.getNewStatus());
+            summary.setLastChangeDate(lastHistory.getChangeDate());
+            summary.setLastReasonCode(lastHistory.getReasonCode());
+            summary.setLastReasonParams(lastHistory.getReasonParams());
+            summary.setLastReason(lastHistory.getReason());
+        }
+        return summary;
+    }
+
+    // Catálogo em cache; só consultado para motivos que citam um módulo pelo id
+    private String moduleName(Long moduleId) {
+        Module module = moduleService.getModuleCatalog().get(moduleId);
+        return module != null ? module.getName() : null;
+    }
+
+    /**
+     * O histórico da listagem traz só a última entrada; o completo está em GET /api/requests/{id}.
+     */
+    AccessRequestResponseDTO toDTO(RequestSummary summary) {
+        return AccessRequestResponseDTO.builder()
+                .id(summary.getRequestId())
+                .protocol(summary.getProtocol())
+                .requestedModules(summary.getModuleNames().isEmpty() ? List.of()
+                        : Arrays.asList(summary.getModuleNames().split(RequestSummary.MODULE_SEPARATOR)))
+                .justification(summary.getJustification())
+                .urgent(summary.getUrgent())
+                .status(summary.getStatus())
+                .requestDate(summary.getRequestDate())
+                .expirationDate(summary.getExpirationDate())
+                .denialReason(summary.getDenialReason())
+                .history(summary.getLastNewStatus() == null ? List.of() : List.of(AccessHistoryDTO.builder()
+                        .previousStatus(summary.getLastPreviousStatus())
+                        .newStatus(summary.getLastNewStatus())
+                        .changeDate(summary.getLastChangeDate())
+                        .reasonCode(summary.getLastReasonCode())
+                        .reason(HistoryReason.render(summary.getLastReasonCode(), summary.getLastReasonParams(),
+                                summary.getLastReason(), this::moduleName))
+                        .build()))
+                .build();
+    }
+}
@@ -0,0 +1,247 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia por Server-Sent Events as alterações das solicitações e dos acessos do
+ * usuário autenticado (decisão, concessão, extensão, revogação e expiração).
+ *
+ * A fonte é a tabela change_events, lida em cada nó pelo {@link ChangeEventPoller}:
+ * os eventos são distribuídos às conexões locais do usuário. Como o feed é
+ * gravado na transação de cada escrita, os três nós recebem tudo, independente
+ * de qual nó fez a alteração.
+ *
+ * Nenhuma thread fica presa a uma conexão: a requisição é assíncrona e os envios
+ * são feitos por threads virtuais só quando há eventos na fila. Cada conexão tem
+ * uma fila limitada; um cliente que não acompanha é desconectado e, ao reconectar
+ * com Last-Event-ID, recebe do banco o que perdeu.
+ *
+ * Na reconexão a conexão entra na fila antes do reenvio, que vai até a maior
+ * sequência do banco lida depois disso: um evento publicado antes do registro
+ * já estava confirmado e entra no reenvio, e um publicado depois chega pela
+ * fila. O que vier pelos dois caminhos é descartado pela sequência.
+ */
+@Service
+public class UserEventStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventStreamService.class);
+
+    private static final String RESYNC_EVENT = "RESYNC";
+
+    private final ChangeFeedService changeFeedService;
+    private final Map<Long, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter overflows;
+
+    @Value("${change-stream.connection-timeout:PT30M}")
+    private Duration connectionTimeout = Duration.ofMinutes(30);
+
+    @Value("${change-stream.reconnect-delay:PT3S}")
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+
+    @Value("${change-stream.queue-capacity:100}")
+    private int queueCapacity = 100;
+
+    @Value("${change-stream.replay-limit:500}")
+    private int replayLimit = 500;
+
+    public UserEventStreamService(ChangeFeedService changeFeedService, MeterRegistry meterRegistry) {
+        this.changeFeedService = changeFeedService;
+        Gauge.builder("access_requests.stream.connections", connectionCount, AtomicInteger::get)
+                .description("Conexões SSE abertas neste nó")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("access_requests.stream.overflows")
+                .description("Conexões SSE encerradas por não acompanharem os eventos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param lastEventId sequência do último evento recebido pelo cliente (header Last-Event-ID), ou nulo
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        return subscribe(userId, lastEventId, new SseEmitter(connectionTimeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Long userId, Long lastEventId, SseEmitter emitter) {
+        Connection connection = new Connection(userId, emitter);
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unregister(connection));
+
+        // Registrada antes do reenvio: o que chegar durante o reenvio fica na fila
+        register(connection);
+        try {
+            emitter.send(SseEmitter.event().reconnectTime(reconnectDelay.toMillis()).comment("conectado"));
+            if (lastEventId != null) {
+                // Lida depois do registro; não o cursor do poller, que só avança ao fim de cada lote publicado
+                replay(connection, lastEventId, changeFeedService.getLatestSequence());
+            }
+        } catch (IOException e) {
+            // Cliente desconectou durante o reenvio; o container encerra a requisição
+            unregister(connection);
+            return emitter;
+        }
+        connection.start();
+        return emitter;
+    }
+
+    private void replay(Connection connection, long lastEventId, long upTo) throws IOException {
+        List<ChangeEventDTO> missed = changeFeedService.getUserChanges(
+                connection.userId, lastEventId, upTo, replayLimit);
+        for (ChangeEventDTO event : missed) {
+            connection.sendNow(event);
+        }
+        if (missed.size() == replayLimit) {
+            // Desconectado por tempo demais: o cliente deve recarregar o estado via GET /api/requests
+            connection.emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON));
+        }
+        // Tudo até upTo já foi reenviado (ou coberto pelo RESYNC): a fila descarta essas sequências
+        connection.lastSentSequence = Math.max(connection.lastSentSequence, upTo);
+    }
+
+    @EventListener
+    public void publish(ChangeEventDTO event) {
+        Set<Connection> connections = connectionsByUser.get(event.getUserId());
+        if (connections != null) {
+            connections.forEach(connection -> connection.offer(new Outgoing(event.getSequence(), event)));
+        }
+    }
+
+    /**
+     * Comentário periódico para manter a conexão aberta em proxies e detectar clientes que saíram.
+     */
+    @Scheduled(fixedDelayString = "${change-stream.heartbeat-interval:PT20S}")
+    public void heartbeat() {
+        connectionsByUser.values().forEach(connections ->
+                connections.forEach(connection -> connection.offer(Outgoing.HEARTBEAT)));
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionsByUser.values().forEach(connections ->
+                connections.forEach(connection -> connection.emitter.complete()));
+        sender.shutdown();
+    }
+
+    private void register(Connection connection) {
+        connectionsByUser.computeIfAbsent(connection.userId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        connectionCount.incrementAndGet();
+    }
+
+    private void unregister(Connection connection) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return;
+        }
+        connectionsByUser.computeIfPresent(connection.userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        connectionCount.decrementAndGet();
+    }
+
+    private record Outgoing(long sequence, ChangeEventDTO event) {
+        static final Outgoing HEARTBEAT = new Outgoing(-1, null);
+    }
+
+    private final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Outgoing> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean started;
+        // Só alterada pelo reenvio (antes de start) e pela thread que esvazia a fila
+        private long lastSentSequence;
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void start() {
+            started = true;
+            scheduleDrain();
+        }
+
+        private void offer(Outgoing outgoing) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(outgoing)) {
+                // Heartbeat descartado não faz falta: a fila cheia já indica tráfego
+                if (outgoing != Outgoing.HEARTBEAT) {
+                    overflows.increment();
+                    log.warn("Conexão SSE do usuário {} encerrada: fila de {} eventos cheia", userId, queueCapacity);
+                    emitter.complete();
+                }
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (started && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Outgoing next;
+                while (!closed.get() && (next = queue.poll()) != null) {
+                    if (next == Outgoing.HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else if (next.sequence() > lastSentSequence) {
+                        // Eventos já entregues pelo reenvio são ignorados
+                        sendNow(next.event());
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado ou emitter já encerrado
+                unregister(this);
+            } finally {
+                draining.set(false);
+            }
+            scheduleDrain();
+        }
+
+        private void sendNow(ChangeEventDTO event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.getSequence()))
+                    .name(event.getType().name())
+                    .data(event, MediaType.APPLICATION_JSON));
+            lastSentSequence = event.getSequence();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import br.com.supera.case_supera.repository.UserModuleRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Snapshot em cache dos módulos ativos de cada usuário, usado na simulação de
+ * solicitações. É invalidado pelos eventos do feed de alterações, que chegam a
+ * todos os nós pelo {@link ChangeEventPoller}; a criação de solicitações continua
+ * validando direto no banco.
+ */
+@Component
+public class UserGrantCache {
+
+    private final UserModuleRepository userModuleRepository;
+
+    public UserGrantCache(UserModuleRepository userModuleRepository) {
+        this.userModuleRepository = userModuleRepository;
+    }
+
+    @Cacheable(cacheNames = "userGrants", key = "#userId")
+    @Transactional(readOnly = true)
+    public List<Long> getActiveModuleIds(Long userId) {
+        return List.copyOf(userModuleRepository.findActiveModuleIdsByUserId(userId));
+    }
+
+    @EventListener
+    @CacheEvict(cacheNames = "userGrants", key = "#event.userId")
+    public void onChange(ChangeEventDTO event) {
+        // Qualquer alteração do usuário descarta o snapshot; o próximo acesso recarrega
+    }
+}
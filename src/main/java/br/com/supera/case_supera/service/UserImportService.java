@@ -0,0 +1,268 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.UserImportResultDTO;
+import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.User;
+import br.com.supera.case_supera.exception.BusinessException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Importação de usuários a partir do cadastro de RH (CSV ou NDJSON).
+ *
+ * A entrada é lida linha a linha e processada em lotes de tamanho fixo, então
+ * a memória usada não depende do tamanho do arquivo. As senhas de cada lote são
+ * criptografadas em paralelo num pool limitado e os usuários são inseridos ou
+ * atualizados pelo email com um único batch JDBC por lote.
+ */
+@Service
+public class UserImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final String CSV_HEADER = "email,name,department,password";
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO users (email, password, name, department) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (email) DO UPDATE SET password = EXCLUDED.password, name = EXCLUDED.name, " +
+            "department = EXCLUDED.department";
+    private static final String H2_UPSERT =
+            "MERGE INTO users (email, password, name, department) KEY (email) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool hashingPool;
+
+    @Value("${user-import.batch-size:500}")
+    private int batchSize = 500;
+
+    private volatile String upsertSql;
+
+    public UserImportService(
+            JdbcTemplate jdbcTemplate,
+            PasswordEncoder passwordEncoder,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${user-import.hash-parallelism:0}") int hashParallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // BCrypt é intencionalmente caro: o pool fica limitado aos núcleos disponíveis
+        // para que uma importação não dispute CPU com o login dos usuários
+        this.hashingPool = new ForkJoinPool(hashParallelism > 0
+                ? hashParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public UserImportResultDTO importUsers(InputStream input, String format) {
+        boolean csv = FORMAT_CSV.equals(format);
+        if (!csv && !FORMAT_NDJSON.equals(format)) {
+            throw new BusinessException("Formato de importação não suportado: " + format);
+        }
+
+        ImportProgress progress = new ImportProgress();
+        List<UserRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String line;
+            if (csv) {
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null || !CSV_HEADER.equals(stripBom(line).trim().toLowerCase(Locale.ROOT))) {
+                    throw new BusinessException("Cabeçalho CSV esperado: " + CSV_HEADER);
+                }
+            }
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.processed++;
+                try {
+                    batch.add(csv ? parseCsv(line, lineNumber) : parseJson(line, lineNumber));
+                } catch (IllegalArgumentException e) {
+                    progress.fail("Linha " + lineNumber + ": " + e.getMessage(), 1);
+                }
+                if (batch.size() >= batchSize) {
+                    flush(batch, progress);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler arquivo de importação", e);
+        }
+
+        flush(batch, progress);
+
+        return UserImportResultDTO.builder()
+                .processed(progress.processed)
+                .imported(progress.imported)
+                .failed(progress.failed)
+                .errors(progress.errors)
+                .build();
+    }
+
+    private void flush(List<UserRow> batch, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> parameters = hashingPool.submit(() -> batch.parallelStream()
+                        .map(row -> new Object[]{row.email(), hash(row.password()), row.name(), row.department().name()})
+                        .toList())
+                .join();
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(upsertSql(), parameters));
+            progress.imported += batch.size();
+        } catch (RuntimeException e) {
+            progress.fail("Linhas " + batch.get(0).lineNumber() + "-" + batch.get(batch.size() - 1).lineNumber()
+                    + ": erro ao gravar lote: " + e.getMessage(), batch.size());
+        }
+        batch.clear();
+    }
+
+    private String hash(String password) {
+        // Mesma regra de User.hashPassword: senhas já criptografadas são mantidas
+        return password.startsWith("$2a$") ? password : passwordEncoder.encode(password);
+    }
+
+    private String upsertSql() {
+        if (upsertSql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            upsertSql = "H2".equalsIgnoreCase(product) ? H2_UPSERT : POSTGRES_UPSERT;
+        }
+        return upsertSql;
+    }
+
+    private UserRow parseCsv(String line, int lineNumber) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != 4) {
+            throw new IllegalArgumentException("esperados 4 campos, encontrados " + fields.size());
+        }
+        return toRow(fields.get(0), fields.get(1), fields.get(2), fields.get(3), lineNumber);
+    }
+
+    private UserRow parseJson(String line, int lineNumber) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON inválido");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("JSON inválido");
+        }
+        return toRow(node.path("email").asText(null), node.path("name").asText(null),
+                node.path("department").asText(null), node.path("password").asText(null), lineNumber);
+    }
+
+    private UserRow toRow(String email, String name, String department, String password, int lineNumber) {
+        if (email == null || !email.trim().contains("@")) {
+            throw new IllegalArgumentException("email inválido");
+        }
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("nome é obrigatório");
+        }
+        if (password == null || password.isBlank()) {
+            throw new IllegalArgumentException("senha é obrigatória");
+        }
+
+        Department parsedDepartment;
+        try {
+            parsedDepartment = Department.valueOf(department == null ? "" : department.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("departamento inválido: " + department);
+        }
+
+        return new UserRow(User.normalizeEmail(email), name.trim(), parsedDepartment, password, lineNumber);
+    }
+
+    /**
+     * Divide uma linha CSV respeitando campos entre aspas (com "" como aspas escapadas).
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("aspas não fechadas");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    private record UserRow(String email, String name, Department department, String password, int lineNumber) {
+    }
+
+    private static final class ImportProgress {
+        private long processed;
+        private long imported;
+        private long failed;
+        private final List<String> errors = new ArrayList<>();
+
+        void fail(String error, int rows) {
+            failed += rows;
+            // Limita o relatório para não acumular memória em arquivos muito ruins
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+}
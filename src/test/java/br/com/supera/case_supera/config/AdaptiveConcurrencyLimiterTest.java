@@ -0,0 +1,77 @@
+package br.com.supera.case_supera.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(4, 2, 6, Duration.ofMillis(500), 0.5);
+    }
+
+    @Test
+    void testRejectsAboveLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+    }
+
+    @Test
+    void testSlowRequestReducesLimit() {
+        assertTrue(limiter.tryAcquire());
+        limiter.release(SLOW, false);
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testFailedRequestReducesLimitDownToMinimum() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, true);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void testFastRequestsGrowLimitOnlyWhenInUse() {
+        // Uma requisição por vez com limite 4: limite ocioso não cresce
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, false);
+        assertEquals(4, limiter.getLimit());
+
+        // Três simultâneas: mais da metade do limite em uso, cresce até o máximo
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertTrue(limiter.tryAcquire());
+            }
+            for (int j = 0; j < 3; j++) {
+                limiter.release(FAST, false);
+            }
+        }
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void testInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(1, 2, 6, Duration.ofMillis(500), 0.5));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(4, 2, 6, Duration.ofMillis(500), 1.0));
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.supera.case_supera.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AdmissionControlFilter(new ObjectMapper(), new SimpleMeterRegistry(), true, 20, 4, 100,
+                Duration.ofMillis(500), 0.9, Duration.ofSeconds(1));
+    }
+
+    private boolean admitted(String method, String path) {
+        return !filter.shouldNotFilter(new MockHttpServletRequest(method, path));
+    }
+
+    @Test
+    void testOnlyCreateAndRenewAreAdmissionControlled() {
+        assertTrue(admitted("POST", "/api/requests"));
+        assertTrue(admitted("POST", "/api/requests/42/renew"));
+
+        assertFalse(admitted("GET", "/api/requests"));
+        assertFalse(admitted("POST", "/api/requests/evaluate"));
+        assertFalse(admitted("POST", "/api/requests/bulk"));
+        assertFalse(admitted("POST", "/api/requests/cancel"));
+        assertFalse(admitted("POST", "/api/requests/42/cancel"));
+    }
+}
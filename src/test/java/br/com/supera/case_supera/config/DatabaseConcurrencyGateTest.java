@@ -0,0 +1,109 @@
+package br.com.supera.case_supera.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseConcurrencyGateTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void testCloseReleasesPermitOnlyOnce() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        DatabaseConcurrencyGate gate = new DatabaseConcurrencyGate(pool, 2, Duration.ofMillis(50));
+
+        Connection borrowed = gate.getConnection();
+        assertEquals(1, gate.getAvailablePermits());
+
+        borrowed.close();
+        borrowed.close();
+
+        // close() repetido continua chegando ao pool, mas não devolve uma segunda permissão
+        assertEquals(2, gate.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testTimesOutWhenAllPermitsAreInUse() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        DatabaseConcurrencyGate gate = new DatabaseConcurrencyGate(pool, 1, Duration.ofMillis(50));
+
+        Connection borrowed = gate.getConnection();
+        assertThrows(SQLTransientConnectionException.class, gate::getConnection);
+        assertEquals(0, gate.getAvailablePermits());
+        verify(pool, times(1)).getConnection();
+
+        borrowed.close();
+        assertNotNull(gate.getConnection());
+    }
+
+    @Test
+    void testFailedGetConnectionReturnsPermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool esgotado"));
+        DatabaseConcurrencyGate gate = new DatabaseConcurrencyGate(pool, 1, Duration.ofMillis(50));
+
+        assertThrows(SQLException.class, gate::getConnection);
+        assertThrows(SQLException.class, gate::getConnection);
+
+        assertEquals(1, gate.getAvailablePermits());
+    }
+
+    @Test
+    void testWaitingCallerGetsReleasedPermit() throws Exception {
+        when(pool.getConnection()).thenReturn(connection);
+        DatabaseConcurrencyGate gate = new DatabaseConcurrencyGate(pool, 1, Duration.ofSeconds(5));
+
+        Connection borrowed = gate.getConnection();
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return gate.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gate.getWaiting() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, gate.getWaiting());
+
+        borrowed.close();
+
+        assertNotNull(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(0, gate.getAvailablePermits());
+    }
+
+    @Test
+    void testDelegatesCallsAndRethrowsOriginalException() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        doThrow(new SQLException("deadlock")).when(connection).commit();
+        DatabaseConcurrencyGate gate = new DatabaseConcurrencyGate(pool, 1, Duration.ofMillis(50));
+
+        Connection borrowed = gate.getConnection();
+        borrowed.setAutoCommit(false);
+        SQLException ex = assertThrows(SQLException.class, borrowed::commit);
+
+        assertEquals("deadlock", ex.getMessage());
+        verify(connection).setAutoCommit(false);
+        // Erro dentro da transação não devolve a permissão; só o close()
+        assertEquals(0, gate.getAvailablePermits());
+    }
+}
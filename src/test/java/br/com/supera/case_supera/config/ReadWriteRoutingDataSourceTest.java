@@ -0,0 +1,130 @@
+package br.com.supera.case_supera.config;
+
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import br.com.supera.case_supera.service.ChangeFeedService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    private ReadYourWritesTracker tracker;
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ReadYourWritesTracker(Duration.ofSeconds(60));
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replica, tracker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testReadOnlyTransactionGoesToReplica() {
+        bind(new MockHttpServletRequest(), new MockHttpServletResponse());
+
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routeIn(true));
+    }
+
+    @Test
+    void testReadWriteTransactionGoesToPrimary() {
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routeIn(false));
+    }
+
+    @Test
+    void testNoTransactionGoesToPrimary() {
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testCommittedWriteReturnsSequenceAndPinsRequestToPrimary() {
+        // Arrange
+        tracker.onReplicated(replicated(9));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        bind(new MockHttpServletRequest(), response);
+
+        // Act
+        tracker.onCommitted(new ChangeFeedService.Committed(10));
+
+        // Assert: sequência devolvida ao cliente e leituras da mesma requisição no primário
+        assertEquals("10", response.getHeader(ReadYourWritesTracker.HEADER));
+        assertTrue(response.getHeader(HttpHeaders.SET_COOKIE).startsWith(ReadYourWritesTracker.COOKIE + "=10"));
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routeIn(true));
+    }
+
+    @Test
+    void testSequenceFromAnotherNodeRoutesToPrimaryUntilReplicaCatchesUp() {
+        // Arrange: cookie emitido por outra instância
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesTracker.COOKIE, "10"));
+        bind(request, new MockHttpServletResponse());
+        tracker.onReplicated(replicated(9));
+
+        // Réplica atrás da escrita do cliente
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routeIn(true));
+
+        // Réplica alcançou a escrita
+        tracker.onReplicated(replicated(10));
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routeIn(true));
+    }
+
+    @Test
+    void testSequenceHeaderWithoutCookie() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReadYourWritesTracker.HEADER, "5");
+        bind(request, new MockHttpServletResponse());
+
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routeIn(true));
+    }
+
+    @Test
+    void testCommitOutsideRequestGoesToReplica() {
+        // Worker assíncrono: nenhuma requisição para marcar
+        tracker.onCommitted(new ChangeFeedService.Committed(10));
+
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routeIn(true));
+    }
+
+    private ReadWriteRoutingDataSource.Route routeIn(boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return routingDataSource.determineCurrentLookupKey();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private static void bind(MockHttpServletRequest request, MockHttpServletResponse response) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    private static ChangeEventDTO replicated(long sequence) {
+        return ChangeEventDTO.builder().sequence(sequence).build();
+    }
+}
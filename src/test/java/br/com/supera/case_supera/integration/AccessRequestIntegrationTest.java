@@ -1,12 +1,18 @@
 package br.com.supera.case_supera.integration;
 
 import br.com.supera.case_supera.dto.AccessRequestDTO;
+import br.com.supera.case_supera.entity.DenialLogEntry;
+import br.com.supera.case_supera.entity.DenialOperation;
+import br.com.supera.case_supera.entity.DenialRule;
 import br.com.supera.case_supera.entity.Department;
 import br.com.supera.case_supera.entity.Module;
 import br.com.supera.case_supera.entity.User;
+import br.com.supera.case_supera.repository.DenialLogRepository;
 import br.com.supera.case_supera.repository.ModuleRepository;
 import br.com.supera.case_supera.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,9 +24,12 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashSet;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -42,9 +51,15 @@ class AccessRequestIntegrationTest {
     @Autowired
     private ModuleRepository moduleRepository;
 
+    @Autowired
+    private DenialLogRepository denialLogRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User testUser;
     private Module testModule;
 
@@ -119,7 +134,345 @@ class AccessRequestIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray());
     }
+
+    @Test
+    void testGetUserRequestsWithinSqlBudget() throws Exception {
+        String loginJson = "{\"email\":\"test@supera.com\",\"password\":\"senha123\"}";
+        String tokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String token = extractTokenFromResponse(tokenResponse);
+
+        AccessRequestDTO dto = new AccessRequestDTO();
+        dto.setModuleIds(Arrays.asList(testModule.getId()));
+        dto.setJustification("Preciso deste módulo para realizar minhas atividades profissionais diárias");
+        dto.setUrgent(false);
+        mockMvc.perform(post("/api/requests")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        // A criação participa da transação do teste: sem o flush, as gravações pendentes sairiam na listagem
+        entityManager.flush();
+
+        // Usuário na autenticação JWT e no controller + página de request_summary (uma linha: sem contagem)
+        mockMvc.perform(get("/api/requests")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.exactly(3))
+                .andExpect(SqlStatementBudget.noRepeatedStatements(5));
+    }
+
+    @Test
+    void testGetRequestDetailsOfAnotherUserIsNotFound() throws Exception {
+        String loginJson = "{\"email\":\"test@supera.com\",\"password\":\"senha123\"}";
+        String tokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String token = extractTokenFromResponse(tokenResponse);
+
+        AccessRequestDTO dto = new AccessRequestDTO();
+        dto.setModuleIds(Arrays.asList(testModule.getId()));
+        dto.setJustification("Preciso deste módulo para realizar minhas atividades profissionais diárias");
+        dto.setUrgent(false);
+        mockMvc.perform(post("/api/requests")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+        Long requestId = entityManager.createQuery(
+                        "SELECT r.id FROM AccessRequest r WHERE r.user.id = :userId", Long.class)
+                .setParameter("userId", testUser.getId())
+                .getSingleResult();
+        entityManager.flush();
+
+        // Dono: solicitação, módulos e histórico em uma única consulta
+        mockMvc.perform(get("/api/requests/" + requestId)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.history.length()").value(1))
+                // Usuário na autenticação JWT e no controller + solicitação com módulos e histórico
+                .andExpect(SqlStatementBudget.exactly(3))
+                .andExpect(SqlStatementBudget.noRepeatedStatements(3));
+
+        userRepository.save(User.builder()
+                .email("outro@supera.com")
+                .password(passwordEncoder.encode("senha123"))
+                .name("Outro Usuário")
+                .department(Department.TI)
+                .build());
+        String otherTokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"outro@supera.com\",\"password\":\"senha123\"}"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        mockMvc.perform(get("/api/requests/" + requestId)
+                        .header("Authorization", "Bearer " + extractTokenFromResponse(otherTokenResponse)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCachedFirstPageIsInvalidatedOnCreate() throws Exception {
+        String loginJson = "{\"email\":\"test@supera.com\",\"password\":\"senha123\"}";
+        String tokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String token = extractTokenFromResponse(tokenResponse);
+
+        // Primeira página padrão: vai para o cache, ainda vazia
+        mockMvc.perform(get("/api/requests")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content").isEmpty());
+
+        AccessRequestDTO dto = new AccessRequestDTO();
+        dto.setModuleIds(Arrays.asList(testModule.getId()));
+        dto.setJustification("Preciso deste módulo para realizar minhas atividades profissionais diárias");
+        dto.setUrgent(false);
+        mockMvc.perform(post("/api/requests")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/requests")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void testGetUserRequestsFromSummary() throws Exception {
+        String loginJson = "{\"email\":\"test@supera.com\",\"password\":\"senha123\"}";
+        String tokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String token = extractTokenFromResponse(tokenResponse);
+
+        AccessRequestDTO dto = new AccessRequestDTO();
+        dto.setModuleIds(Arrays.asList(testModule.getId()));
+        dto.setJustification("Preciso deste módulo para realizar minhas atividades profissionais diárias");
+        dto.setUrgent(false);
+        mockMvc.perform(post("/api/requests")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/requests")
+                        .param("searchText", "Portal")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].status").value("ATIVO"))
+                .andExpect(jsonPath("$.content[0].requestedModules[0]").value("Portal do Colaborador"))
+                .andExpect(jsonPath("$.content[0].history.length()").value(1))
+                .andExpect(jsonPath("$.content[0].history[0].reasonCode").value("AUTO_APPROVED"));
+
+        mockMvc.perform(get("/api/requests")
+                        .param("searchText", "Inexistente")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+
+        // A reconstrução regrava as mesmas linhas
+        mockMvc.perform(post("/api/request-summary/rebuild")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").isNumber());
+
+        mockMvc.perform(get("/api/requests")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].history[0].newStatus").value("ATIVO"));
+    }
     
+    @Test
+    void testExportRequests() throws Exception {
+        String loginJson = "{\"email\":\"test@supera.com\",\"password\":\"senha123\"}";
+        String tokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String token = extractTokenFromResponse(tokenResponse);
+
+        AccessRequestDTO dto = new AccessRequestDTO();
+        dto.setModuleIds(Arrays.asList(testModule.getId()));
+        dto.setJustification("Preciso deste módulo para realizar minhas atividades profissionais diárias");
+        dto.setUrgent(false);
+        mockMvc.perform(post("/api/requests")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+        // A exportação lê via JDBC: as gravações do JPA precisam estar no banco
+        entityManager.flush();
+
+        String ndjson = mockMvc.perform(get("/api/requests/export")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = ndjson.split("\n");
+        assertEquals(1, lines.length);
+        JsonNode exported = objectMapper.readTree(lines[0]);
+        assertEquals("ATIVO", exported.path("status").asText());
+        assertEquals("Portal do Colaborador", exported.path("modules").get(0).asText());
+        assertEquals(1, exported.path("history").size());
+
+        String csv = mockMvc.perform(get("/api/requests/export")
+                        .param("format", "csv")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"solicitacoes.csv\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        String[] rows = csv.split("\n");
+        assertEquals(2, rows.length);
+        assertTrue(rows[0].startsWith("protocol,status,urgent"));
+        assertTrue(rows[1].contains(",ATIVO,false,"));
+    }
+
+    @Test
+    void testExportRequestsUnsupportedFormat() throws Exception {
+        String loginJson = "{\"email\":\"test@supera.com\",\"password\":\"senha123\"}";
+        String tokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        mockMvc.perform(get("/api/requests/export")
+                        .param("format", "xlsx")
+                        .header("Authorization", "Bearer " + extractTokenFromResponse(tokenResponse)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchDenialLog() throws Exception {
+        String loginJson = "{\"email\":\"test@supera.com\",\"password\":\"senha123\"}";
+        String tokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String token = extractTokenFromResponse(tokenResponse);
+
+        denialLogRepository.save(DenialLogEntry.builder()
+                .userId(testUser.getId())
+                .operation(DenialOperation.CREATE)
+                .rule(DenialRule.MODULE_LIMIT_REACHED)
+                .moduleIds(String.valueOf(testModule.getId()))
+                .createdAt(LocalDateTime.now().minusMinutes(1))
+                .build());
+
+        JsonNode page = objectMapper.readTree(mockMvc.perform(get("/api/denials")
+                        .param("userId", String.valueOf(testUser.getId()))
+                        .param("rule", "MODULE_LIMIT_REACHED")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+        JsonNode content = page.path("content");
+        assertEquals(1, content.size());
+        assertEquals("MODULE_LIMIT_REACHED", content.get(0).path("rule").asText());
+        assertEquals(testModule.getId().longValue(), content.get(0).path("moduleIds").get(0).asLong());
+
+        mockMvc.perform(get("/api/denials")
+                        .param("rule", "INCOMPATIBLE_MODULE")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    @Test
+    void testStreamEventsStartsAsyncSse() throws Exception {
+        String loginJson = "{\"email\":\"test@supera.com\",\"password\":\"senha123\"}";
+        String tokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        mockMvc.perform(get("/api/requests/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Authorization", "Bearer " + extractTokenFromResponse(tokenResponse)))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testEvaluateRequestWritesNothing() throws Exception {
+        String loginJson = "{\"email\":\"test@supera.com\",\"password\":\"senha123\"}";
+        String tokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Long requestsBefore = entityManager.createQuery("SELECT COUNT(r) FROM AccessRequest r", Long.class)
+                .getSingleResult();
+
+        String body = "{\"moduleIds\":[" + testModule.getId() + ",999999],\"justification\":\"teste\"}";
+        mockMvc.perform(post("/api/requests/evaluate")
+                        .header("Authorization", "Bearer " + extractTokenFromResponse(tokenResponse))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.approved").value(false))
+                .andExpect(jsonPath("$.violations[0].rule").value("MODULE_NOT_FOUND"))
+                .andExpect(jsonPath("$.violations[0].moduleId").value(999999))
+                .andExpect(jsonPath("$.violations[1].rule").value("GENERIC_JUSTIFICATION"));
+
+        Long requestsAfter = entityManager.createQuery("SELECT COUNT(r) FROM AccessRequest r", Long.class)
+                .getSingleResult();
+        assertEquals(requestsBefore, requestsAfter);
+    }
+
     private String extractTokenFromResponse(String response) {
         // Extrai o token do JSON de resposta
         int start = response.indexOf("\"token\":\"") + 9;
@@ -16,6 +16,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -62,6 +64,19 @@ class AuthIntegrationTest {
                 .andExpect(jsonPath("$.email").value("test@supera.com"));
     }
 
+    @Test
+    void testLoginIgnoresEmailCase() throws Exception {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("Test@Supera.COM");
+        request.setPassword("senha123");
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("test@supera.com"));
+    }
+
     @Test
     void testLoginInvalidCredentials() throws Exception {
         LoginRequest request = new LoginRequest();
@@ -73,5 +88,19 @@ class AuthIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isUnauthorized());
     }
-}
 
+    @Test
+    void testMetricsRequireScrapeCredentials() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+
+        // Usuário da aplicação não é o coletor
+        mockMvc.perform(get("/actuator/metrics")
+                        .with(httpBasic("test@supera.com", "senha123")))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/metrics")
+                        .with(httpBasic("prometheus", "scrape-test")))
+                .andExpect(status().isOk());
+    }
+}
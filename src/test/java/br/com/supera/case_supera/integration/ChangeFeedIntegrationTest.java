@@ -0,0 +1,171 @@
+package br.com.supera.case_supera.integration;
+
+import br.com.supera.case_supera.dto.AccessRequestDTO;
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import br.com.supera.case_supera.dto.ChangeFeedDTO;
+import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.entity.User;
+import br.com.supera.case_supera.repository.ModuleRepository;
+import br.com.supera.case_supera.repository.UserRepository;
+import br.com.supera.case_supera.service.ChangeFeedService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        // Banco próprio: os eventos são confirmados de verdade, sem o rollback dos testes transacionais
+        "spring.datasource.url=jdbc:h2:mem:changefeeddb;LOCK_TIMEOUT=10000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChangeFeedIntegrationTest {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void testSlowTransactionDoesNotBlockWritersAndIsNotSkipped() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = changeFeedService.getLatestSequence();
+        CountDownLatch slowRecorded = new CountDownLatch(1);
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+
+        // Transação lenta: registra o evento e demora a confirmar
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            changeFeedService.recordRevocations(901L, List.of(1L));
+            slowRecorded.countDown();
+            await(releaseSlow);
+        }));
+        assertTrue(slowRecorded.await(5, TimeUnit.SECONDS));
+
+        // Escrita posterior, de outro usuário: não espera a lenta, que só pega o contador no commit
+        transactionTemplate.executeWithoutResult(status -> changeFeedService.recordRevocations(902L, List.of(2L)));
+        ChangeFeedDTO during = changeFeedService.getChanges(start, 100);
+        assertEquals(List.of(902L), during.getEvents().stream().map(ChangeEventDTO::getUserId).toList());
+        assertEquals(start + 1, during.getNextAfter());
+
+        releaseSlow.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        // A lenta recebe a sequência seguinte ao confirmar: quem já leu até start + 1 não a perde
+        ChangeFeedDTO after = changeFeedService.getChanges(during.getNextAfter(), 100);
+        assertEquals(List.of(901L), after.getEvents().stream().map(ChangeEventDTO::getUserId).toList());
+        assertEquals(start + 2, after.getNextAfter());
+    }
+
+    @Test
+    void testRolledBackTransactionLeavesNoGap() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = changeFeedService.getLatestSequence();
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            changeFeedService.recordRevocations(903L, List.of(3L));
+            throw new IllegalStateException("falha depois do evento");
+        }));
+        transactionTemplate.executeWithoutResult(status -> changeFeedService.recordRevocations(904L, List.of(4L)));
+
+        ChangeFeedDTO feed = changeFeedService.getChanges(start, 100);
+        assertEquals(1, feed.getEvents().size());
+        assertEquals(904L, feed.getEvents().get(0).getUserId());
+        assertEquals(start + 1, feed.getEvents().get(0).getSequence());
+    }
+
+    @Test
+    void testChangeFeedAfterCreateRequest() throws Exception {
+        // Os eventos são numerados no commit: a criação precisa ser confirmada de verdade para aparecer no feed
+        User user = userRepository.save(User.builder()
+                .email("feed@supera.com")
+                .password(passwordEncoder.encode("senha123"))
+                .name("Feed User")
+                .department(Department.TI)
+                .build());
+        Module module = moduleRepository.findByName("Portal do Colaborador").orElseThrow();
+
+        String loginJson = "{\"email\":\"feed@supera.com\",\"password\":\"senha123\"}";
+        String tokenResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String token = objectMapper.readTree(tokenResponse).path("token").asText();
+
+        long after = changeFeedService.getLatestSequence();
+
+        AccessRequestDTO dto = new AccessRequestDTO();
+        dto.setModuleIds(List.of(module.getId()));
+        dto.setJustification("Preciso deste módulo para realizar minhas atividades profissionais diárias");
+        dto.setUrgent(false);
+        mockMvc.perform(post("/api/requests")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        JsonNode feed = objectMapper.readTree(mockMvc.perform(get("/api/changes")
+                        .param("after", String.valueOf(after))
+                        .param("limit", "10")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+        JsonNode events = feed.path("events");
+        assertEquals(2, events.size());
+        assertEquals("REQUEST_STATUS_CHANGED", events.get(0).path("type").asText());
+        assertEquals("ATIVO", events.get(0).path("status").asText());
+        assertEquals("ACCESS_GRANTED", events.get(1).path("type").asText());
+        assertEquals(module.getId().longValue(), events.get(1).path("moduleId").asLong());
+        assertEquals(user.getId().longValue(), events.get(1).path("userId").asLong());
+        assertEquals(after + 2, feed.path("nextAfter").asLong());
+        assertFalse(feed.path("hasMore").asBoolean());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
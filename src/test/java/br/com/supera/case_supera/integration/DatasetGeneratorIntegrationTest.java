@@ -0,0 +1,83 @@
+package br.com.supera.case_supera.integration;
+
+import br.com.supera.case_supera.config.DatasetGenerator;
+import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.User;
+import br.com.supera.case_supera.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        // Banco próprio para não interferir nos demais testes de integração
+        "spring.datasource.url=jdbc:h2:mem:datasetdb",
+        "dataset.users=300",
+        "dataset.extra-modules=5",
+        "dataset.batch-size=100"
+})
+@ActiveProfiles({"test", "dataset"})
+class DatasetGeneratorIntegrationTest {
+
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    @Test
+    void testGeneratedDataset() {
+        assertEquals(300, count("SELECT COUNT(*) FROM users WHERE email LIKE '%@dataset.supera.com'"));
+        assertEquals(5, count("SELECT COUNT(*) FROM modules WHERE name LIKE 'Módulo Sintético%'"));
+
+        long requests = count("SELECT COUNT(*) FROM access_requests");
+        assertTrue(requests > 300);
+        assertTrue(count("SELECT COUNT(*) FROM access_history") >= requests);
+        assertEquals(0, count("SELECT COUNT(*) FROM access_requests r WHERE NOT EXISTS " +
+                "(SELECT 1 FROM request_modules rm WHERE rm.request_id = r.id)"));
+        assertEquals(0, count("SELECT COUNT(*) FROM access_requests WHERE status = 'ATIVO' AND expiration_date IS NULL"));
+        assertEquals(0, count("SELECT COUNT(*) FROM access_requests WHERE status = 'NEGADO' AND denial_reason IS NULL"));
+        assertTrue(count("SELECT COUNT(*) FROM access_requests WHERE urgent = true") > 0);
+        assertTrue(count("SELECT COUNT(*) FROM user_modules WHERE active = true") > 0);
+        assertEquals(requests, count("SELECT COUNT(*) FROM request_summary"));
+        assertEquals(0, count("SELECT COUNT(*) FROM request_summary s JOIN access_requests r ON r.id = s.request_id " +
+                "WHERE s.status <> r.status OR s.last_new_status IS NULL"));
+    }
+
+    @Test
+    void testGeneratorRunsOnlyOnce() throws Exception {
+        long requests = count("SELECT COUNT(*) FROM access_requests");
+
+        datasetGenerator.run(new DefaultApplicationArguments());
+
+        assertEquals(300, count("SELECT COUNT(*) FROM users WHERE email LIKE '%@dataset.supera.com'"));
+        assertEquals(requests, count("SELECT COUNT(*) FROM access_requests"));
+    }
+
+    @Test
+    @Transactional
+    void testIdentitySequencesContinueAfterDataset() {
+        long maxId = count("SELECT MAX(id) FROM users");
+
+        User user = userRepository.saveAndFlush(User.builder()
+                .email("novo@supera.com")
+                .password("senha123")
+                .name("Novo Usuário")
+                .department(Department.TI)
+                .build());
+
+        assertTrue(user.getId() > maxId);
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.supera.case_supera.integration;
+
+import br.com.supera.case_supera.service.PartitionMaintenanceService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DDL do particionamento contra um PostgreSQL real. Executar com: mvn -Ppostgres test
+ */
+@Tag("postgres")
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "partitioning.convert-batch-size=2",
+        "partitioning.retention-months=2",
+        "partitioning.archive-dir=target/partition-archive-test"
+})
+@ActiveProfiles("test")
+class PartitionMaintenancePostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String relkind(String table) {
+        return jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE relname = ?", String.class, table);
+    }
+
+    private static String partition(String table, YearMonth month) {
+        return table + "_p" + month.format(DateTimeFormatter.ofPattern("yyyyMM"));
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    @Test
+    void testConvertCopiesRowsInBatchesAndKeepsConstraints() {
+        // A subida não converte nada sozinha
+        assertEquals("r", relkind("denial_log"));
+
+        // Arrange: 3 negações por mês nos últimos 4 meses
+        YearMonth current = YearMonth.now();
+        for (int back = 3; back >= 0; back--) {
+            LocalDateTime date = current.minusMonths(back).atDay(10).atTime(9, 0);
+            for (int i = 0; i < 3; i++) {
+                jdbcTemplate.update("INSERT INTO denial_log (user_id, operation, reason_code, module_ids, created_at) " +
+                        "VALUES (?, 'CREATE', 1, '1', ?)", 1L, Timestamp.valueOf(date.plusHours(i)));
+            }
+        }
+
+        // Act: lotes de 2 linhas
+        long copied = partitionMaintenanceService.convert("denial_log");
+
+        // Assert: linhas, partições, CHECK, índices e chave primária com os nomes originais
+        assertEquals(12, copied);
+        assertEquals("p", relkind("denial_log"));
+        assertEquals(12, count("SELECT COUNT(*) FROM denial_log"));
+        assertEquals("r", relkind(partition("denial_log", current)));
+        assertTrue(count("SELECT COUNT(*) FROM pg_constraint WHERE conrelid = 'denial_log'::regclass AND contype = 'c'") > 0);
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO denial_log (user_id, operation, reason_code, module_ids, created_at) " +
+                        "VALUES (1, 'INVALIDA', 1, '1', now())"));
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname::text FROM pg_indexes WHERE tablename = 'denial_log'", String.class);
+        assertTrue(indexes.containsAll(List.of("denial_log_pkey", "idx_denial_log_created_at", "idx_denial_log_user_id")));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('denial_log_partitioned')::text", String.class));
+
+        // A identidade continua depois do maior id copiado
+        jdbcTemplate.update("INSERT INTO denial_log (user_id, operation, reason_code, module_ids, created_at) " +
+                "VALUES (2, 'BULK', 1, '1', now())");
+        assertEquals(13, count("SELECT MAX(id) FROM denial_log"));
+
+        // Já convertida: nada a fazer
+        assertEquals(0, partitionMaintenanceService.convert("denial_log"));
+
+        // A manutenção arquiva e remove o mês fora da retenção
+        partitionMaintenanceService.maintain();
+        String expired = partition("denial_log", current.minusMonths(3));
+        assertTrue(Files.exists(Path.of("target/partition-archive-test", "denial_log", expired + ".ndjson.gz")));
+        assertEquals(0, count("SELECT COUNT(*) FROM pg_class WHERE relname = ?", expired));
+        assertEquals(10, count("SELECT COUNT(*) FROM denial_log"));
+    }
+
+    @Test
+    void testConvertKeepsForeignKeysAndStatusCheck() {
+        assertEquals("r", relkind("access_history"));
+
+        // Act
+        partitionMaintenanceService.convert("access_history");
+
+        // Assert
+        assertEquals("p", relkind("access_history"));
+        assertTrue(count("SELECT COUNT(*) FROM pg_constraint WHERE conrelid = 'access_history'::regclass " +
+                "AND contype = 'f'") > 0);
+        List<String> checks = jdbcTemplate.queryForList("SELECT pg_get_constraintdef(oid) FROM pg_constraint " +
+                "WHERE conrelid = 'access_history'::regclass AND contype = 'c'", String.class);
+        assertTrue(checks.stream().anyMatch(check -> check.contains("'PENDENTE'")));
+    }
+}
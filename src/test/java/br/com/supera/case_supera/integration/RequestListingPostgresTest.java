@@ -0,0 +1,79 @@
+package br.com.supera.case_supera.integration;
+
+import br.com.supera.case_supera.dto.AccessRequestResponseDTO;
+import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.entity.RequestSummary;
+import br.com.supera.case_supera.repository.RequestSummaryRepository;
+import br.com.supera.case_supera.service.RequestSummaryService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listagem servida por request_summary contra um PostgreSQL real. Executar com: mvn -Ppostgres test
+ */
+@Tag("postgres")
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+class RequestListingPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private RequestSummaryService requestSummaryService;
+
+    @Autowired
+    private RequestSummaryRepository requestSummaryRepository;
+
+    @Test
+    void testUnfilteredAndFilteredListing() {
+        // Arrange
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 9, 0);
+        requestSummaryRepository.saveAll(List.of(
+                summary(9001L, "SOL-20240301-9001", RequestStatus.ATIVO, base),
+                summary(9002L, "SOL-20240310-9002", RequestStatus.NEGADO, base.plusDays(9))));
+
+        // Act: listagem padrão, sem nenhum filtro (todos os parâmetros nulos)
+        Page<AccessRequestResponseDTO> all = requestSummaryService.findUserRequests(900L, null, null, null,
+                null, null, PageRequest.of(0, 10));
+        Page<AccessRequestResponseDTO> filtered = requestSummaryService.findUserRequests(900L, "9002",
+                RequestStatus.NEGADO, false, base.plusDays(1), base.plusDays(30), PageRequest.of(0, 10));
+
+        // Assert: mais recente primeiro
+        assertEquals(List.of(9002L, 9001L), all.getContent().stream().map(AccessRequestResponseDTO::getId).toList());
+        assertEquals(2, all.getTotalElements());
+        assertEquals(List.of(9002L), filtered.getContent().stream().map(AccessRequestResponseDTO::getId).toList());
+    }
+
+    private RequestSummary summary(Long requestId, String protocol, RequestStatus status, LocalDateTime requestDate) {
+        return RequestSummary.builder()
+                .requestId(requestId)
+                .userId(900L)
+                .protocol(protocol)
+                .moduleNames("Portal do Colaborador")
+                .justification("Preciso do portal para consultar meus dados funcionais")
+                .urgent(false)
+                .status(status)
+                .requestDate(requestDate)
+                .build();
+    }
+}
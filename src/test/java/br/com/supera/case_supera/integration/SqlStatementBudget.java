@@ -0,0 +1,51 @@
+package br.com.supera.case_supera.integration;
+
+import br.com.supera.case_supera.config.SqlStatementFilter;
+import br.com.supera.case_supera.config.SqlStatementStats;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Orçamento de comandos SQL por requisição para testes com MockMvc, a partir
+ * da contagem feita pelo {@link SqlStatementFilter}. A contagem é exata: um
+ * comando a mais (consulta nova, carga lazy) ou a menos falha o teste.
+ *
+ * <pre>
+ * mockMvc.perform(get("/api/requests"))
+ *         .andExpect(SqlStatementBudget.exactly(3));
+ * </pre>
+ */
+final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    static ResultMatcher exactly(int statements) {
+        return result -> {
+            SqlStatementStats stats = stats(result.getRequest().getAttribute(SqlStatementFilter.STATS_ATTRIBUTE));
+            assertEquals(statements, stats.getStatements(), () -> String.format(
+                    "%s %s executou %d comandos SQL, esperados %d: %s",
+                    result.getRequest().getMethod(), result.getRequest().getRequestURI(),
+                    stats.getStatements(), statements, stats.repeatedStatements(1)));
+        };
+    }
+
+    /**
+     * Falha se algum comando idêntico se repetir {@code threshold} vezes ou mais (N+1).
+     */
+    static ResultMatcher noRepeatedStatements(int threshold) {
+        return result -> {
+            SqlStatementStats stats = stats(result.getRequest().getAttribute(SqlStatementFilter.STATS_ATTRIBUTE));
+            assertTrue(stats.repeatedStatements(threshold).isEmpty(),
+                    "Comandos repetidos (N+1): " + stats.repeatedStatements(threshold));
+        };
+    }
+
+    private static SqlStatementStats stats(Object attribute) {
+        assertNotNull(attribute, "Requisição não passou pelo SqlStatementFilter");
+        return (SqlStatementStats) attribute;
+    }
+}
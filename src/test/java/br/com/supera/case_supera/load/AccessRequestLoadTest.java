@@ -0,0 +1,106 @@
+package br.com.supera.case_supera.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga com tráfego misto (login, listagem com filtros, criação,
+ * renovação e cancelamento) contra a aplicação completa no profile de teste,
+ * com a massa do profile dataset. Falha se a vazão, o p99 ou a taxa de erros
+ * ficarem fora dos SLOs de {@link LoadSettings}.
+ *
+ * Executar com: mvn -Pload test
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loaddb",
+        "dataset.users=200",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.br.com.supera=INFO"
+})
+@ActiveProfiles({"test", "dataset"})
+class AccessRequestLoadTest {
+
+    private static final int SESSIONS = 50;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LoadSettings settings = LoadSettings.fromSystemProperties();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final List<ApiSession> sessions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (int i = 0; i < SESSIONS; i++) {
+            ApiSession session = new ApiSession(httpClient, objectMapper, "http://localhost:" + port,
+                    "usuario" + i + "@dataset.supera.com", recorder);
+            session.open();
+            sessions.add(session);
+        }
+
+        // Aquecimento (JIT, pool de conexões, caches) fora da medição
+        LoadGenerator.closedLoop(sessions, settings.users(), settings.warmup());
+        recorder.reset();
+    }
+
+    @Test
+    void testClosedLoopMixedTraffic() throws Exception {
+        Duration elapsed = LoadGenerator.closedLoop(sessions, settings.users(), settings.duration());
+
+        report("closed-loop", elapsed);
+        double throughput = recorder.total() / (elapsed.toMillis() / 1000.0);
+        assertTrue(throughput >= settings.minThroughput(),
+                String.format("Vazão %.1f req/s abaixo do SLO de %.1f req/s", throughput, settings.minThroughput()));
+        assertSlos();
+    }
+
+    @Test
+    void testOpenLoopMixedTraffic() throws Exception {
+        Duration elapsed = LoadGenerator.openLoop(sessions, settings.rate(), settings.duration());
+
+        report("open-loop", elapsed);
+        long expected = (long) (settings.rate() * settings.duration().toMillis() / 1000.0);
+        // Operações de renovação/cancelamento sem solicitação ativa viram listagens: o total não muda.
+        // Chegadas sem resposta contam como descartadas (e erros), não somem do total
+        assertEquals(expected, recorder.total(), "Nem todas as chegadas planejadas foram concluídas");
+        assertSlos();
+    }
+
+    private void assertSlos() {
+        double errorRate = recorder.errors() / (double) recorder.total();
+        assertTrue(errorRate <= settings.maxErrorRate(),
+                String.format("Taxa de erros %.2f%% acima do SLO de %.2f%%", errorRate * 100, settings.maxErrorRate() * 100));
+
+        Histogram overall = recorder.overall();
+        long p99Micros = overall.getValueAtPercentile(99);
+        assertTrue(p99Micros <= settings.p99().toNanos() / 1000,
+                String.format("p99 de %.1fms acima do SLO de %dms", p99Micros / 1000.0, settings.p99().toMillis()));
+    }
+
+    private void report(String scenario, Duration elapsed) throws Exception {
+        recorder.report(Path.of("target", "load-results"), scenario, elapsed);
+    }
+}
@@ -0,0 +1,203 @@
+package br.com.supera.case_supera.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Usuário virtual: mantém o token JWT e os ids vistos na última listagem, e
+ * executa uma operação sorteada do tráfego misto. O tempo de cada operação é
+ * registrado no {@link LatencyRecorder} a partir do instante de início informado:
+ * o início real na malha fechada e o início planejado na malha aberta.
+ */
+class ApiSession {
+
+    private static final String[] STATUS_FILTERS = {"ATIVO", "NEGADO", "CANCELADO"};
+    private static final String[] SEARCH_FILTERS = {"SOL", "Portal", "Relatórios", "Compras"};
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String email;
+    private final LatencyRecorder recorder;
+
+    private volatile String token;
+    private volatile List<Long> moduleIds = List.of();
+    private volatile List<Long> activeRequestIds = List.of();
+
+    ApiSession(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, String email, LatencyRecorder recorder) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Login e carga dos módulos disponíveis, fora da medição.
+     */
+    void open() throws IOException, InterruptedException {
+        HttpResponse<String> login = send(loginRequest());
+        token = objectMapper.readTree(login.body()).path("token").asText();
+        HttpResponse<String> modules = send(authorized("/api/modules").GET().build());
+        List<Long> ids = new ArrayList<>();
+        objectMapper.readTree(modules.body()).forEach(module -> ids.add(module.path("id").asLong()));
+        moduleIds = ids;
+    }
+
+    /**
+     * Executa uma operação do tráfego misto: 50% listagem com filtros,
+     * 20% criação, 10% renovação, 10% cancelamento e 10% login.
+     */
+    void runMixedOperation(long intendedStartNanos) {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < 50) {
+            list(intendedStartNanos);
+        } else if (roll < 70) {
+            create(intendedStartNanos);
+        } else if (roll < 80) {
+            renew(intendedStartNanos);
+        } else if (roll < 90) {
+            cancel(intendedStartNanos);
+        } else {
+            login(intendedStartNanos);
+        }
+    }
+
+    private void list(long intendedStartNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder query = new StringBuilder("/api/requests?size=10&page=").append(random.nextInt(2));
+        if (random.nextBoolean()) {
+            query.append("&status=").append(STATUS_FILTERS[random.nextInt(STATUS_FILTERS.length)]);
+        }
+        if (random.nextInt(4) == 0) {
+            query.append("&urgent=true");
+        }
+        if (random.nextInt(4) == 0) {
+            query.append("&searchText=").append(URLEncoder.encode(
+                    SEARCH_FILTERS[random.nextInt(SEARCH_FILTERS.length)], StandardCharsets.UTF_8));
+        }
+
+        HttpResponse<String> response = execute("list", intendedStartNanos, authorized(query.toString()).GET().build());
+        if (response != null && response.statusCode() == 200) {
+            rememberActiveRequests(response.body());
+        }
+    }
+
+    private void create(long intendedStartNanos) {
+        if (moduleIds.isEmpty()) {
+            list(intendedStartNanos);
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = "{\"moduleIds\":[" + moduleIds.get(random.nextInt(moduleIds.size())) + "]," +
+                "\"justification\":\"Preciso deste módulo para o teste de carga da aplicação\"," +
+                "\"urgent\":" + (random.nextInt(10) == 0) + "}";
+        execute("create", intendedStartNanos, authorized("/api/requests")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private void renew(long intendedStartNanos) {
+        Long requestId = randomActiveRequest();
+        if (requestId == null) {
+            list(intendedStartNanos);
+            return;
+        }
+        execute("renew", intendedStartNanos, authorized("/api/requests/" + requestId + "/renew")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    private void cancel(long intendedStartNanos) {
+        Long requestId = randomActiveRequest();
+        if (requestId == null) {
+            list(intendedStartNanos);
+            return;
+        }
+        execute("cancel", intendedStartNanos, authorized("/api/requests/" + requestId + "/cancel")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"reason\":\"Cancelado pelo teste de carga\"}"))
+                .build());
+    }
+
+    private void login(long intendedStartNanos) {
+        HttpResponse<String> response = execute("login", intendedStartNanos, loginRequest());
+        if (response != null && response.statusCode() == 200) {
+            try {
+                token = objectMapper.readTree(response.body()).path("token").asText();
+            } catch (IOException e) {
+                // Mantém o token anterior
+            }
+        }
+    }
+
+    private HttpResponse<String> execute(String endpoint, long intendedStartNanos, HttpRequest request) {
+        try {
+            HttpResponse<String> response = send(request);
+            recorder.record(endpoint, System.nanoTime() - intendedStartNanos, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - intendedStartNanos, -1);
+            return null;
+        } catch (InterruptedException e) {
+            // Interrompida antes da resposta: descartada, mas contabilizada
+            recorder.recordDropped();
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (RuntimeException e) {
+            // Falha do próprio cliente HTTP: idem
+            recorder.recordDropped();
+            return null;
+        }
+    }
+
+    private void rememberActiveRequests(String body) {
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (JsonNode request : objectMapper.readTree(body).path("content")) {
+                if ("ATIVO".equals(request.path("status").asText())) {
+                    ids.add(request.path("id").asLong());
+                }
+            }
+            if (!ids.isEmpty()) {
+                activeRequestIds = ids;
+            }
+        } catch (IOException e) {
+            // Ignora respostas inválidas; o erro já foi contabilizado pelo status
+        }
+    }
+
+    private Long randomActiveRequest() {
+        List<Long> ids = activeRequestIds;
+        return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private HttpRequest loginRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"senha123\"}"))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
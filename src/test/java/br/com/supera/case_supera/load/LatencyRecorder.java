@@ -0,0 +1,157 @@
+package br.com.supera.case_supera.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências por endpoint em histogramas HdrHistogram (em microssegundos),
+ * com contagem de respostas de negócio (4xx) e erros (5xx ou falha de conexão).
+ * Requisições abandonadas sem resposta (interrompidas, ou com falha no próprio
+ * gerador) entram no total e nos erros como descartadas, para que toda
+ * chegada planejada seja contabilizada.
+ */
+class LatencyRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyRecorder.class);
+
+    private final Map<String, ConcurrentHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * @param status código HTTP, ou -1 se a requisição falhou sem resposta
+     */
+    void record(String endpoint, long latencyNanos, int status) {
+        histograms.computeIfAbsent(endpoint, e -> new ConcurrentHistogram(3))
+                .recordValue(Math.max(1, latencyNanos / 1000));
+        total.increment();
+        if (status < 0 || status >= 500) {
+            errors.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+        } else if (status >= 400) {
+            rejections.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Requisição que não chegou a ter resposta nem falha de conexão: sem latência.
+     */
+    void recordDropped() {
+        dropped.increment();
+        total.increment();
+    }
+
+    /**
+     * Descarta o que foi medido até aqui (ex.: aquecimento).
+     */
+    void reset() {
+        histograms.clear();
+        rejections.clear();
+        errors.clear();
+        dropped.reset();
+        total.reset();
+    }
+
+    long total() {
+        return total.sum();
+    }
+
+    long errors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum() + dropped();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    Histogram overall() {
+        Histogram overall = new Histogram(3);
+        histograms.values().forEach(overall::add);
+        return overall;
+    }
+
+    Map<String, Histogram> byEndpoint() {
+        return new TreeMap<>(histograms);
+    }
+
+    String summary(String title, Duration elapsed) {
+        StringBuilder summary = new StringBuilder(String.format("%n== %s (%.1fs, %.1f req/s) ==%n",
+                title, elapsed.toMillis() / 1000.0, total() / (elapsed.toMillis() / 1000.0)));
+        summary.append(String.format("%-10s %8s %6s %6s %10s %10s %10s %10s%n",
+                "endpoint", "count", "4xx", "erros", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)"));
+        byEndpoint().forEach((endpoint, histogram) -> summary.append(line(endpoint, histogram)));
+        summary.append(line("total", overall()));
+        summary.append(String.format("descartadas: %d%n", dropped()));
+        return summary.toString();
+    }
+
+    private String line(String endpoint, Histogram histogram) {
+        return String.format("%-10s %8d %6d %6d %10.1f %10.1f %10.1f %10.1f%n", endpoint, histogram.getTotalCount(),
+                count(rejections, endpoint), count(errors, endpoint),
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getMaxValue() / 1000.0);
+    }
+
+    private long count(Map<String, LongAdder> counters, String endpoint) {
+        if ("total".equals(endpoint)) {
+            return counters.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+        LongAdder counter = counters.get(endpoint);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Registra o resumo no log do teste e grava {@code <cenário>.txt} (tabela)
+     * e {@code <cenário>.json} (para comparação entre execuções) no diretório.
+     */
+    void report(Path directory, String scenario, Duration elapsed) throws IOException {
+        String summary = summary(scenario, elapsed);
+        log.info("{}", summary);
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(scenario + ".txt"), summary, StandardCharsets.UTF_8);
+        writeJson(directory.resolve(scenario + ".json"), scenario, elapsed);
+    }
+
+    private void writeJson(Path file, String scenario, Duration elapsed) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("scenario", scenario);
+        root.put("elapsedMs", elapsed.toMillis());
+        root.put("requests", total());
+        root.put("errors", errors());
+        root.put("dropped", dropped());
+        root.put("throughput", total() / (elapsed.toMillis() / 1000.0));
+        ObjectNode endpoints = root.putObject("endpoints");
+        byEndpoint().forEach((endpoint, histogram) -> json(endpoints.putObject(endpoint), histogram, endpoint));
+        json(root.putObject("overall"), overall(), "total");
+
+        Files.createDirectories(file.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+    }
+
+    private void json(ObjectNode node, Histogram histogram, String endpoint) {
+        node.put("count", histogram.getTotalCount());
+        node.put("rejected", count(rejections, endpoint));
+        node.put("errors", count(errors, endpoint));
+        node.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        node.put("p90Ms", histogram.getValueAtPercentile(90) / 1000.0);
+        node.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        node.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        node.put("maxMs", histogram.getMaxValue() / 1000.0);
+    }
+}
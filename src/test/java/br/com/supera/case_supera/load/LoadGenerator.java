@@ -0,0 +1,69 @@
+package br.com.supera.case_supera.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Geradores de carga.
+ *
+ * Malha fechada: N usuários virtuais executam operações em sequência, cada um
+ * só envia a próxima requisição quando a anterior responde. Mede a vazão
+ * máxima sustentada com aquela concorrência.
+ *
+ * Malha aberta: requisições chegam numa taxa fixa, independente do tempo de
+ * resposta. A latência é medida a partir do instante planejado de cada
+ * chegada, então um servidor lento acumula fila e isso aparece no p99
+ * (sem o viés de "coordinated omission" da malha fechada).
+ */
+final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    static Duration closedLoop(List<ApiSession> sessions, int users, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Thread> threads = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            ApiSession session = sessions.get(i % sessions.size());
+            threads.add(Thread.ofVirtual().name("load-closed-" + i).start(() -> {
+                while (System.nanoTime() < deadline) {
+                    session.runMixedOperation(System.nanoTime());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    static Duration openLoop(List<ApiSession> sessions, double ratePerSecond, Duration duration) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long arrivals = (long) (ratePerSecond * duration.toMillis() / 1000.0);
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < arrivals; i++) {
+                long intendedStart = start + i * intervalNanos;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                ApiSession session = sessions.get((int) (i % sessions.size()));
+                executor.submit(() -> session.runMixedOperation(intendedStart));
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+                // Interrompidas, as requisições ainda abertas são registradas como descartadas
+                executor.shutdownNow();
+            }
+        }
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+}
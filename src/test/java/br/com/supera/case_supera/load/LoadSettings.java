@@ -0,0 +1,28 @@
+package br.com.supera.case_supera.load;
+
+import java.time.Duration;
+
+/**
+ * Parâmetros e SLOs dos testes de carga, lidos de propriedades de sistema
+ * (ex.: mvn -Pload test -Dload.duration=PT60S -Dload.slo.p99=PT0.3S).
+ */
+record LoadSettings(
+        Duration duration,
+        Duration warmup,
+        int users,
+        double rate,
+        Duration p99,
+        double minThroughput,
+        double maxErrorRate) {
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Duration.parse(System.getProperty("load.duration", "PT20S")),
+                Duration.parse(System.getProperty("load.warmup", "PT5S")),
+                Integer.getInteger("load.users", 16),
+                Double.parseDouble(System.getProperty("load.rate", "100")),
+                Duration.parse(System.getProperty("load.slo.p99", "PT0.5S")),
+                Double.parseDouble(System.getProperty("load.slo.throughput", "50")),
+                Double.parseDouble(System.getProperty("load.slo.error-rate", "0.01")));
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.supera.case_supera.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:threads-platform",
+        "spring.threads.virtual.enabled=false",
+        "server.tomcat.threads.max=32",
+        // Compara só o modo de threads; o controle de admissão recusaria escritas com 200 usuários
+        "access-requests.admission.enabled=false",
+        "dataset.users=200",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.br.com.supera=INFO"
+})
+@ActiveProfiles({"test", "dataset"})
+class PlatformThreadLoadTest extends ThreadModeLoadTest {
+
+    @Override
+    String mode() {
+        return "platform";
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.supera.case_supera.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comparação de vazão entre threads de plataforma e threads virtuais no
+ * Tomcat: mesma massa, mesmo tráfego misto em malha fechada e mais usuários
+ * simultâneos do que threads no pool do Tomcat (server.tomcat.threads.max),
+ * para que o modo de plataforma fique limitado pelas threads e o virtual
+ * pelo portão de conexões do banco.
+ *
+ * Cada modo grava target/load-results/threads-&lt;modo&gt;.json; a comparação é
+ * feita entre os dois arquivos (requests, throughput, overall.p99Ms).
+ *
+ * Executar com: mvn -Pload test -Dtest='*ThreadLoadTest'
+ */
+@Tag("load")
+abstract class ThreadModeLoadTest {
+
+    private static final int SESSIONS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LoadSettings settings = LoadSettings.fromSystemProperties();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final List<ApiSession> sessions = new ArrayList<>();
+
+    abstract String mode();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (int i = 0; i < SESSIONS; i++) {
+            ApiSession session = new ApiSession(httpClient, objectMapper, "http://localhost:" + port,
+                    "usuario" + i + "@dataset.supera.com", recorder);
+            session.open();
+            sessions.add(session);
+        }
+
+        LoadGenerator.closedLoop(sessions, SESSIONS, settings.warmup());
+        recorder.reset();
+    }
+
+    @Test
+    void testClosedLoopThroughput() throws Exception {
+        Duration elapsed = LoadGenerator.closedLoop(sessions, SESSIONS, settings.duration());
+
+        String scenario = "threads-" + mode();
+        recorder.report(Path.of("target", "load-results"), scenario, elapsed);
+
+        // Sem SLO de vazão: o objetivo é comparar os dois modos, não falhar por hardware
+        double errorRate = recorder.errors() / (double) recorder.total();
+        assertTrue(errorRate <= settings.maxErrorRate(),
+                String.format("Taxa de erros %.2f%% acima do SLO de %.2f%%", errorRate * 100, settings.maxErrorRate() * 100));
+    }
+}
@@ -0,0 +1,170 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.AccessEvaluationDTO;
+import br.com.supera.case_supera.dto.AccessEvaluationRequestDTO;
+import br.com.supera.case_supera.dto.AccessViolationDTO;
+import br.com.supera.case_supera.dto.ModuleRequestability;
+import br.com.supera.case_supera.dto.RequestableModuleDTO;
+import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessEvaluationServiceTest {
+
+    @Mock
+    private ModuleService moduleService;
+
+    @Mock
+    private UserGrantCache userGrantCache;
+
+    @InjectMocks
+    private AccessEvaluationService accessEvaluationService;
+
+    private User financeUser;
+    private Module portal;
+    private Module aprovadorFinanceiro;
+    private Module solicitanteFinanceiro;
+    private Module administradorRh;
+
+    @BeforeEach
+    void setUp() {
+        financeUser = User.builder()
+                .id(1L)
+                .email("financeiro@supera.com")
+                .name("Finance User")
+                .department(Department.FINANCEIRO)
+                .build();
+
+        portal = module(1L, "Portal do Colaborador", true, Department.FINANCEIRO);
+        aprovadorFinanceiro = module(2L, "Aprovador Financeiro", true, Department.FINANCEIRO);
+        solicitanteFinanceiro = module(3L, "Solicitante Financeiro", true, Department.FINANCEIRO);
+        administradorRh = module(4L, "Administrador RH", false, Department.RH);
+
+        when(moduleService.getModuleCatalog()).thenReturn(Map.of(
+                1L, portal, 2L, aprovadorFinanceiro, 3L, solicitanteFinanceiro, 4L, administradorRh));
+    }
+
+    private Module module(Long id, String name, boolean active, Department department) {
+        return Module.builder()
+                .id(id)
+                .name(name)
+                .active(active)
+                .allowedDepartments(new HashSet<>(Arrays.asList(department)))
+                .incompatibleModules(new HashSet<>())
+                .build();
+    }
+
+    private AccessEvaluationRequestDTO request(String justification, Long... moduleIds) {
+        AccessEvaluationRequestDTO dto = new AccessEvaluationRequestDTO();
+        dto.setModuleIds(Arrays.asList(moduleIds));
+        dto.setJustification(justification);
+        return dto;
+    }
+
+    @Test
+    void testEvaluateApproved() {
+        // Arrange
+        when(userGrantCache.getActiveModuleIds(eq(1L))).thenReturn(List.of());
+
+        // Act
+        AccessEvaluationDTO result = accessEvaluationService.evaluate(financeUser,
+                request("Preciso deste módulo para aprovar os pagamentos do trimestre", 1L, 2L));
+
+        // Assert
+        assertTrue(result.isApproved());
+        assertTrue(result.getViolations().isEmpty());
+    }
+
+    @Test
+    void testEvaluateReturnsAllViolations() {
+        // Arrange
+        when(userGrantCache.getActiveModuleIds(eq(1L))).thenReturn(List.of(1L, 3L));
+
+        // Act
+        AccessEvaluationDTO result = accessEvaluationService.evaluate(financeUser,
+                request("teste", 1L, 2L, 4L));
+
+        // Assert
+        assertFalse(result.isApproved());
+        List<String> rules = result.getViolations().stream().map(AccessViolationDTO::getRule).toList();
+        assertEquals(List.of(
+                "ACCESS_ALREADY_ACTIVE",
+                "MODULE_INACTIVE",
+                "GENERIC_JUSTIFICATION",
+                "DEPARTMENT_NOT_ALLOWED",
+                "INCOMPATIBLE_MODULE"), rules);
+        assertEquals(1L, result.getViolations().get(0).getModuleId());
+        assertEquals(4L, result.getViolations().get(1).getModuleId());
+    }
+
+    @Test
+    void testEvaluateUnknownModuleAndLimit() {
+        // Arrange: 5 acessos ativos + 1 módulo existente solicitado passa do limite de 5 do Financeiro
+        when(userGrantCache.getActiveModuleIds(eq(1L))).thenReturn(List.of(10L, 11L, 12L, 13L, 14L));
+
+        // Act
+        AccessEvaluationDTO result = accessEvaluationService.evaluate(financeUser, request(null, 2L, 99L));
+
+        // Assert
+        List<String> rules = result.getViolations().stream().map(AccessViolationDTO::getRule).toList();
+        assertEquals(List.of("MODULE_NOT_FOUND", "MODULE_LIMIT_REACHED"), rules);
+        assertEquals(99L, result.getViolations().get(0).getModuleId());
+    }
+
+    @Test
+    void testGetRequestableModules() {
+        // Arrange
+        when(userGrantCache.getActiveModuleIds(eq(1L))).thenReturn(List.of(3L));
+        User rhUser = User.builder().id(2L).department(Department.RH).build();
+
+        // Act
+        List<RequestableModuleDTO> result = accessEvaluationService.getRequestableModules(financeUser);
+
+        // Assert: módulo inativo fica de fora; ordenado por nome
+        assertEquals(List.of("Aprovador Financeiro", "Portal do Colaborador", "Solicitante Financeiro"),
+                result.stream().map(RequestableModuleDTO::getName).toList());
+        assertEquals(ModuleRequestability.INCOMPATIBLE_MODULE, result.get(0).getStatus());
+        assertEquals(List.of("Solicitante Financeiro"), result.get(0).getIncompatibleWith());
+        assertEquals(ModuleRequestability.REQUESTABLE, result.get(1).getStatus());
+        assertNull(result.get(1).getMessage());
+        assertEquals(ModuleRequestability.ALREADY_ACTIVE, result.get(2).getStatus());
+
+        // Act: departamento sem permissão para os módulos do Financeiro
+        when(userGrantCache.getActiveModuleIds(eq(2L))).thenReturn(List.of());
+        List<RequestableModuleDTO> rhResult = accessEvaluationService.getRequestableModules(rhUser);
+
+        // Assert
+        assertTrue(rhResult.stream().allMatch(m -> m.getStatus() == ModuleRequestability.DEPARTMENT_NOT_ALLOWED));
+    }
+
+    @Test
+    void testGetRequestableModulesLimitReached() {
+        // Arrange
+        when(userGrantCache.getActiveModuleIds(eq(1L))).thenReturn(List.of(1L, 10L, 11L, 12L, 13L));
+
+        // Act
+        List<RequestableModuleDTO> result = accessEvaluationService.getRequestableModules(financeUser);
+
+        // Assert
+        assertEquals(ModuleRequestability.MODULE_LIMIT_REACHED, result.get(0).getStatus());
+        assertEquals(ModuleRequestability.ALREADY_ACTIVE, result.get(1).getStatus());
+        assertEquals(ModuleRequestability.MODULE_LIMIT_REACHED, result.get(2).getStatus());
+        verify(moduleService, times(1)).getModuleCatalog();
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.entity.User;
+import br.com.supera.case_supera.entity.UserModule;
+import br.com.supera.case_supera.repository.UserModuleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessExpirationSweeperTest {
+
+    @Mock
+    private UserModuleRepository userModuleRepository;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AccessExpirationSweeper accessExpirationSweeper;
+
+    @Test
+    void testExpireAccessesRecordsOnlyDeactivatedModules() {
+        // Arrange
+        UserModule expired = userModule(1L);
+        UserModule expiredByOtherNode = userModule(2L);
+        when(userModuleRepository.findExpired(any(LocalDateTime.class), eq(PageRequest.of(0, 200))))
+                .thenReturn(List.of(expired, expiredByOtherNode));
+        when(userModuleRepository.deactivateIfActive(eq(1L))).thenReturn(1);
+        when(userModuleRepository.deactivateIfActive(eq(2L))).thenReturn(0);
+
+        // Act
+        accessExpirationSweeper.expireAccesses();
+
+        // Assert
+        verify(changeFeedService).recordExpiration(eq(expired));
+        verify(changeFeedService, never()).recordExpiration(eq(expiredByOtherNode));
+        verify(userModuleRepository, times(1)).findExpired(any(LocalDateTime.class), eq(PageRequest.of(0, 200)));
+    }
+
+    private UserModule userModule(Long id) {
+        return UserModule.builder()
+                .id(id)
+                .user(User.builder().id(1L).build())
+                .module(Module.builder().id(id).build())
+                .grantedDate(LocalDateTime.now().minusDays(181))
+                .expirationDate(LocalDateTime.now().minusDays(1))
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.supera.case_supera.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessRequestEvaluationQueueTest {
+
+    private final AccessRequestEvaluationQueue queue = new AccessRequestEvaluationQueue();
+
+    @Test
+    void testUrgentRequestsAreEvaluatedFirst() throws InterruptedException {
+        // Arrange
+        queue.enqueue(1L, false);
+        queue.enqueue(2L, true);
+        queue.enqueue(3L, false);
+        queue.enqueue(4L, true);
+
+        // Act & Assert
+        assertEquals(4, queue.size());
+        assertEquals(2L, queue.poll(1, TimeUnit.SECONDS).requestId());
+        assertEquals(4L, queue.poll(1, TimeUnit.SECONDS).requestId());
+        assertEquals(1L, queue.poll(1, TimeUnit.SECONDS).requestId());
+        assertEquals(3L, queue.poll(1, TimeUnit.SECONDS).requestId());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void testEnqueueAfterCommitWithoutTransactionEnqueuesImmediately() throws InterruptedException {
+        // Act
+        queue.enqueueAfterCommit(1L, false);
+
+        // Assert
+        AccessRequestEvaluationQueue.PendingEvaluation evaluation = queue.poll(1, TimeUnit.SECONDS);
+        assertNotNull(evaluation);
+        assertEquals(1L, evaluation.requestId());
+        assertEquals(0, evaluation.attempts());
+    }
+
+    @Test
+    void testRetryKeepsPriorityAndCountsAttempts() throws InterruptedException {
+        // Arrange
+        queue.enqueue(1L, true);
+        AccessRequestEvaluationQueue.PendingEvaluation first = queue.poll(1, TimeUnit.SECONDS);
+
+        // Act
+        queue.enqueue(2L, false);
+        queue.retry(first);
+
+        // Assert
+        AccessRequestEvaluationQueue.PendingEvaluation retried = queue.poll(1, TimeUnit.SECONDS);
+        assertEquals(1L, retried.requestId());
+        assertEquals(1, retried.attempts());
+    }
+
+    @Test
+    void testRequestAlreadyQueuedIsNotEnqueuedAgain() throws InterruptedException {
+        // Arrange
+        queue.enqueue(1L, false);
+
+        // Act: a varredura de pendentes antigas encontra a mesma solicitação
+        queue.enqueue(1L, false);
+
+        // Assert
+        assertEquals(1, queue.size());
+        assertEquals(1L, queue.poll(1, TimeUnit.SECONDS).requestId());
+
+        // Depois de retirada da fila pode voltar (ex.: avaliação falhou e ela continua PENDENTE)
+        queue.enqueue(1L, false);
+        assertEquals(1, queue.size());
+    }
+}
@@ -0,0 +1,207 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.BulkAccessRequestEntryDTO;
+import br.com.supera.case_supera.dto.BulkAccessRequestResultDTO;
+import br.com.supera.case_supera.entity.AccessRequest;
+import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.entity.User;
+import br.com.supera.case_supera.entity.UserModule;
+import br.com.supera.case_supera.repository.AccessRequestRepository;
+import br.com.supera.case_supera.repository.ModuleRepository;
+import br.com.supera.case_supera.repository.UserModuleRepository;
+import br.com.supera.case_supera.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkAccessRequestServiceTest {
+
+    @Mock
+    private AccessRequestRepository accessRequestRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ModuleRepository moduleRepository;
+
+    @Mock
+    private UserModuleRepository userModuleRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private AccessRequestMetrics metrics;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @Mock
+    private DenialLogService denialLogService;
+
+    @Mock
+    private RequestSummaryService requestSummaryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BulkAccessRequestService bulkAccessRequestService;
+
+    private User testUser;
+    private Module testModule1;
+    private Module testModule2;
+
+    @BeforeEach
+    void setUp() {
+        testUser = User.builder()
+                .id(1L)
+                .email("test@supera.com")
+                .name("Test User")
+                .department(Department.TI)
+                .build();
+
+        testModule1 = Module.builder()
+                .id(1L)
+                .name("Portal do Colaborador")
+                .active(true)
+                .allowedDepartments(new HashSet<>(Arrays.asList(Department.TI, Department.FINANCEIRO)))
+                .incompatibleModules(new HashSet<>())
+                .build();
+
+        testModule2 = Module.builder()
+                .id(2L)
+                .name("Relatórios Gerenciais")
+                .active(true)
+                .allowedDepartments(new HashSet<>(Arrays.asList(Department.TI, Department.FINANCEIRO)))
+                .incompatibleModules(new HashSet<>())
+                .build();
+    }
+
+    private BulkAccessRequestEntryDTO entry(String email, Long... moduleIds) {
+        BulkAccessRequestEntryDTO entry = new BulkAccessRequestEntryDTO();
+        entry.setEmail(email);
+        entry.setModuleIds(Arrays.asList(moduleIds));
+        entry.setJustification("Preciso deste módulo para realizar minhas atividades profissionais");
+        return entry;
+    }
+
+    @Test
+    void testCreateAccessRequestsReportsEachEntry() {
+        // Arrange
+        when(userRepository.findByEmailIn(eq(Set.of("test@supera.com", "naoexiste@supera.com")))).thenReturn(List.of(testUser));
+        when(moduleRepository.findAllWithRulesByIdIn(eq(Set.of(1L, 2L)))).thenReturn(List.of(testModule1, testModule2));
+        when(userModuleRepository.findActiveWithModuleByUserIdIn(eq(Set.of(1L)))).thenReturn(Collections.emptyList());
+        when(accessRequestRepository.count()).thenReturn(0L);
+
+        List<BulkAccessRequestEntryDTO> entries = List.of(
+                entry("test@supera.com", 1L),
+                entry("naoexiste@supera.com", 1L),
+                entry("test@supera.com", 1L),
+                entry("test@supera.com", 2L));
+
+        // Act
+        List<BulkAccessRequestResultDTO> results = bulkAccessRequestService.createAccessRequests(entries);
+
+        // Assert
+        assertEquals(4, results.size());
+        assertEquals(RequestStatus.ATIVO, results.get(0).getStatus());
+        assertNotNull(results.get(0).getProtocol());
+        assertNull(results.get(1).getStatus());
+        assertTrue(results.get(1).getMessage().contains("Usuário não encontrado"));
+        // A segunda solicitação do mesmo módulo enxerga o acesso concedido pela primeira
+        assertNull(results.get(2).getStatus());
+        assertTrue(results.get(2).getMessage().contains("já possui acesso ativo"));
+        assertEquals(RequestStatus.ATIVO, results.get(3).getStatus());
+        assertNotEquals(results.get(0).getProtocol(), results.get(3).getProtocol());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AccessRequest>> requestsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(accessRequestRepository, times(1)).saveAll(requestsCaptor.capture());
+        assertEquals(2, requestsCaptor.getValue().size());
+        verify(userModuleRepository, times(1)).saveAll(anyList());
+        verify(changeFeedService).recordStatusChange(eq(requestsCaptor.getValue().get(0)), eq(RequestStatus.ATIVO));
+        verify(changeFeedService).recordStatusChange(eq(requestsCaptor.getValue().get(1)), eq(RequestStatus.ATIVO));
+        verify(changeFeedService, times(2)).recordGrant(any(UserModule.class));
+        verify(requestSummaryService).recordAll(eq(requestsCaptor.getValue()));
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void testCreateAccessRequestsReactivatesInactiveGrant() {
+        // Arrange: o usuário já teve o módulo 1 (expirado), nunca teve o módulo 2
+        UserModule expired = UserModule.builder()
+                .id(10L)
+                .user(testUser)
+                .module(testModule1)
+                .active(false)
+                .build();
+        when(userRepository.findByEmailIn(eq(Set.of("test@supera.com")))).thenReturn(List.of(testUser));
+        when(moduleRepository.findAllWithRulesByIdIn(eq(Set.of(1L, 2L)))).thenReturn(List.of(testModule1, testModule2));
+        when(userModuleRepository.findActiveWithModuleByUserIdIn(eq(Set.of(1L)))).thenReturn(Collections.emptyList());
+        when(userModuleRepository.findByUserIdInAndModuleIdIn(eq(Set.of(1L)), eq(Set.of(1L, 2L))))
+                .thenReturn(List.of(expired));
+        when(accessRequestRepository.count()).thenReturn(0L);
+
+        // Act
+        List<BulkAccessRequestResultDTO> results = bulkAccessRequestService.createAccessRequests(
+                List.of(entry("test@supera.com", 1L, 2L)));
+
+        // Assert
+        assertEquals(RequestStatus.ATIVO, results.get(0).getStatus());
+        assertTrue(expired.getActive());
+        assertNotNull(expired.getExpirationDate());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserModule>> insertsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userModuleRepository).saveAll(insertsCaptor.capture());
+        assertEquals(1, insertsCaptor.getValue().size());
+        assertEquals(testModule2, insertsCaptor.getValue().get(0).getModule());
+        verify(changeFeedService).recordGrant(eq(expired));
+        verify(changeFeedService, times(2)).recordGrant(any(UserModule.class));
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void testCreateAccessRequestsChunkFailure() {
+        // Arrange
+        when(userRepository.findByEmailIn(eq(Set.of("test@supera.com")))).thenReturn(List.of(testUser));
+        when(moduleRepository.findAllWithRulesByIdIn(eq(Set.of(1L)))).thenReturn(List.of(testModule1));
+        when(userModuleRepository.findActiveWithModuleByUserIdIn(eq(Set.of(1L)))).thenReturn(Collections.emptyList());
+        when(accessRequestRepository.count()).thenReturn(0L);
+        when(accessRequestRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicado"));
+
+        // Act
+        List<BulkAccessRequestResultDTO> results = bulkAccessRequestService.createAccessRequests(
+                List.of(entry("test@supera.com", 1L)));
+
+        // Assert
+        assertEquals(1, results.size());
+        assertNull(results.get(0).getProtocol());
+        assertTrue(results.get(0).getMessage().contains("Erro ao gravar solicitação"));
+        verify(transactionManager).rollback(any());
+        verify(userModuleRepository, never()).saveAll(anyList());
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import br.com.supera.case_supera.dto.ChangeFeedDTO;
+import br.com.supera.case_supera.entity.ChangeEvent;
+import br.com.supera.case_supera.entity.ChangeEventType;
+import br.com.supera.case_supera.exception.BusinessException;
+import br.com.supera.case_supera.repository.ChangeEventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    @Mock
+    private ChangeEventRepository changeEventRepository;
+
+    @InjectMocks
+    private ChangeFeedService changeFeedService;
+
+    @Test
+    void testGetChangesReturnsBatchWithResumeToken() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(changeEventRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(event(11L, now), event(12L, now), event(13L, now)));
+
+        // Act
+        ChangeFeedDTO feed = changeFeedService.getChanges(10L, 2);
+
+        // Assert
+        assertEquals(List.of(11L, 12L), feed.getEvents().stream().map(ChangeEventDTO::getSequence).toList());
+        assertEquals(12L, feed.getNextAfter());
+        assertTrue(feed.isHasMore());
+    }
+
+    @Test
+    void testGetChangesDoesNotWaitOnSequenceGaps() {
+        // Arrange: lacuna deixada por ids IDENTITY gravados antes do contador de sequência
+        LocalDateTime now = LocalDateTime.now();
+        when(changeEventRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), eq(PageRequest.of(0, 101))))
+                .thenReturn(List.of(event(11L, now), event(13L, now)));
+
+        // Act
+        ChangeFeedDTO feed = changeFeedService.getChanges(10L, 100);
+
+        // Assert
+        assertEquals(List.of(11L, 13L), feed.getEvents().stream().map(ChangeEventDTO::getSequence).toList());
+        assertEquals(13L, feed.getNextAfter());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void testGetChangesEmptyKeepsResumeToken() {
+        // Arrange
+        when(changeEventRepository.findByIdGreaterThanOrderByIdAsc(eq(42L), eq(PageRequest.of(0, 101))))
+                .thenReturn(List.of());
+
+        // Act
+        ChangeFeedDTO feed = changeFeedService.getChanges(42L, 100);
+
+        // Assert
+        assertTrue(feed.getEvents().isEmpty());
+        assertEquals(42L, feed.getNextAfter());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void testGetChangesLimitIsBounded() {
+        // Arrange
+        when(changeEventRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), eq(PageRequest.of(0, 1001))))
+                .thenReturn(List.of());
+
+        // Act
+        changeFeedService.getChanges(0L, 50000);
+
+        // Assert
+        verify(changeEventRepository).findByIdGreaterThanOrderByIdAsc(eq(0L), eq(PageRequest.of(0, 1001)));
+    }
+
+    @Test
+    void testGetChangesInvalidLimit() {
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> changeFeedService.getChanges(0L, 0));
+        assertTrue(exception.getMessage().contains("limit"));
+        verify(changeEventRepository, never()).findByIdGreaterThanOrderByIdAsc(eq(0L), eq(PageRequest.of(0, 1)));
+    }
+
+    private ChangeEvent event(Long id, LocalDateTime createdAt) {
+        return ChangeEvent.builder()
+                .id(id)
+                .type(ChangeEventType.ACCESS_GRANTED)
+                .userId(1L)
+                .moduleId(1L)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.DenialLogEntryDTO;
+import br.com.supera.case_supera.entity.DenialLogEntry;
+import br.com.supera.case_supera.entity.DenialOperation;
+import br.com.supera.case_supera.entity.DenialRule;
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.exception.BusinessException;
+import br.com.supera.case_supera.repository.DenialLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DenialLogServiceTest {
+
+    @Mock
+    private DenialLogRepository denialLogRepository;
+
+    @InjectMocks
+    private DenialLogService denialLogService;
+
+    @Test
+    void testEntryEncodesModulesAndSearchDecodes() {
+        // Arrange
+        DenialLogEntry entry = denialLogService.entry(1L, DenialOperation.RENEWAL, DenialRule.INCOMPATIBLE_MODULE,
+                Set.of(Module.builder().id(4L).build(), Module.builder().id(2L).build()), 7L);
+        entry.setId(10L);
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        when(denialLogRepository.search(eq(1L), eq(DenialRule.INCOMPATIBLE_MODULE), eq(from), eq(to),
+                eq(PageRequest.of(0, 50)))).thenReturn(new PageImpl<>(List.of(entry)));
+
+        // Act
+        Page<DenialLogEntryDTO> result = denialLogService.search(1L, DenialRule.INCOMPATIBLE_MODULE, from, to, 0, 50);
+
+        // Assert
+        assertEquals("2,4", entry.getModuleIds());
+        DenialLogEntryDTO dto = result.getContent().get(0);
+        assertEquals(List.of(2L, 4L), dto.getModuleIds());
+        assertEquals(DenialRule.INCOMPATIBLE_MODULE.getMessage(), dto.getReason());
+        assertEquals(7L, dto.getRenewedFromId());
+        assertEquals(DenialOperation.RENEWAL, dto.getOperation());
+    }
+
+    @Test
+    void testSearchRejectsInvalidPeriodAndPageSize() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(BusinessException.class, () -> denialLogService.search(null, null, now, now.minusDays(1), 0, 50));
+        assertThrows(BusinessException.class, () -> denialLogService.search(null, null, null, null, 0, 501));
+        verifyNoInteractions(denialLogRepository);
+    }
+
+    @Test
+    void testStoragePolicyDefaultsToFull() {
+        assertFalse(denialLogService.isLogStorage());
+    }
+
+    @Test
+    void testDenialRuleCodesAreUnique() {
+        for (DenialRule rule : DenialRule.values()) {
+            assertEquals(rule, DenialRule.fromCode(rule.getCode()));
+        }
+    }
+}
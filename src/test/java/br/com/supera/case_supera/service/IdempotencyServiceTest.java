@@ -0,0 +1,226 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.entity.IdempotencyKey;
+import br.com.supera.case_supera.exception.BusinessException;
+import br.com.supera.case_supera.exception.IdempotencyConflictException;
+import br.com.supera.case_supera.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    @Test
+    void testCanonicalPayloadIgnoresFieldOrder() {
+        // Arrange
+        Map<String, Object> sent = new LinkedHashMap<>();
+        sent.put("urgent", false);
+        sent.put("moduleIds", List.of(1L, 2L));
+        sent.put("justification", "Preciso do módulo, para o fechamento");
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("justification", "Preciso do módulo, para o fechamento");
+        reordered.put("moduleIds", List.of(1L, 2L));
+        reordered.put("urgent", false);
+
+        // Act
+        String canonical = idempotencyService.canonicalPayload(sent);
+
+        // Assert: JSON, sem a ambiguidade do toString com vírgulas no texto
+        assertEquals(canonical, idempotencyService.canonicalPayload(reordered));
+        assertEquals("{\"justification\":\"Preciso do módulo, para o fechamento\",\"moduleIds\":[1,2],\"urgent\":false}",
+                canonical);
+    }
+
+    @Test
+    void testExecuteWithoutKeyRunsAction() {
+        // Act
+        String result = idempotencyService.execute(1L, null, "create", "payload", () -> "ok");
+
+        // Assert
+        assertEquals("ok", result);
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    private IdempotencyKey claimed(IdempotencyKey claim) {
+        claim.setId(10L);
+        return claim;
+    }
+
+    @Test
+    void testExecuteFirstTimeStoresResponse() {
+        // Arrange
+        ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+        when(idempotencyKeyRepository.saveAndFlush(captor.capture()))
+                .thenAnswer(invocation -> claimed(invocation.getArgument(0)));
+        when(idempotencyKeyRepository.complete(eq(10L), any(LocalDateTime.class), eq("Protocolo: SOL-1")))
+                .thenReturn(1);
+
+        // Act
+        String result = idempotencyService.execute(1L, "key-1", "create", "payload", () -> "Protocolo: SOL-1");
+
+        // Assert
+        assertEquals("Protocolo: SOL-1", result);
+        assertEquals("key-1", captor.getValue().getIdempotencyKey());
+        assertNotNull(captor.getValue().getInProgressUntil());
+        // A resposta é gravada na transação da operação, com o prazo reservado
+        verify(idempotencyKeyRepository).complete(eq(10L), eq(captor.getValue().getInProgressUntil()),
+                eq("Protocolo: SOL-1"));
+    }
+
+    @Test
+    void testExecuteDuplicateReturnsOriginalResponseWithoutRunningAction() {
+        // Arrange
+        AtomicInteger executions = new AtomicInteger();
+        ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+        when(idempotencyKeyRepository.saveAndFlush(captor.capture()))
+                .thenAnswer(invocation -> claimed(invocation.getArgument(0)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyKeyRepository.complete(eq(10L), any(LocalDateTime.class), eq("Protocolo: SOL-1")))
+                .thenReturn(1);
+
+        String first = idempotencyService.execute(1L, "key-1", "create", "payload",
+                () -> "Protocolo: SOL-" + executions.incrementAndGet());
+        IdempotencyKey stored = captor.getAllValues().get(0);
+        stored.setResponse(first);
+        stored.setInProgressUntil(null);
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(eq(1L), eq("key-1")))
+                .thenReturn(Optional.of(stored));
+
+        // Act
+        String second = idempotencyService.execute(1L, "key-1", "create", "payload",
+                () -> "Protocolo: SOL-" + executions.incrementAndGet());
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testExecuteDuplicateWithDifferentPayloadIsRejected() {
+        // Arrange
+        IdempotencyKey stored = IdempotencyKey.builder()
+                .userId(1L)
+                .idempotencyKey("key-1")
+                .fingerprint("outra-requisicao")
+                .response("Protocolo: SOL-1")
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(eq(1L), eq("key-1")))
+                .thenReturn(Optional.of(stored));
+
+        // Act & Assert
+        assertThrows(IdempotencyConflictException.class, () ->
+                idempotencyService.execute(1L, "key-1", "create", "payload", () -> "ok"));
+    }
+
+    @Test
+    void testExecuteFailureReleasesKey() {
+        // Arrange
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenAnswer(invocation -> claimed(invocation.getArgument(0)));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () ->
+                idempotencyService.execute(1L, "key-1", "create", "payload", () -> {
+                    throw new BusinessException("Justificativa insuficiente ou genérica");
+                }));
+
+        verify(idempotencyKeyRepository).release(eq(10L), any(LocalDateTime.class));
+        verify(idempotencyKeyRepository, never()).complete(anyLong(), any(), any());
+    }
+
+    @Test
+    void testExecuteWhileOriginalIsRunningIsConflict() {
+        // Arrange
+        IdempotencyKey stored = stored(LocalDateTime.now().plusSeconds(20));
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(eq(1L), eq("key-1")))
+                .thenReturn(Optional.of(stored));
+
+        // Act & Assert
+        assertThrows(IdempotencyConflictException.class, () ->
+                idempotencyService.execute(1L, "key-1", "create", "payload", () -> "ok"));
+        verify(idempotencyKeyRepository, never()).reclaim(anyLong(), any(), any());
+    }
+
+    @Test
+    void testExecuteReclaimsKeyWhoseLeaseExpired() {
+        // Arrange: a execução original caiu antes do commit, sem resposta gravada
+        IdempotencyKey stored = stored(LocalDateTime.now().minusSeconds(5));
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(eq(1L), eq("key-1")))
+                .thenReturn(Optional.of(stored));
+        when(idempotencyKeyRepository.reclaim(eq(10L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(idempotencyKeyRepository.complete(eq(10L), any(LocalDateTime.class), eq("Protocolo: SOL-2")))
+                .thenReturn(1);
+
+        // Act
+        String result = idempotencyService.execute(1L, "key-1", "create", "payload", () -> "Protocolo: SOL-2");
+
+        // Assert
+        assertEquals("Protocolo: SOL-2", result);
+        assertTrue(stored.getInProgressUntil().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void testExecuteThatLostItsLeaseIsRolledBack() {
+        // Arrange: outra tentativa assumiu a chave enquanto esta executava
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenAnswer(invocation -> claimed(invocation.getArgument(0)));
+        when(idempotencyKeyRepository.complete(eq(10L), any(LocalDateTime.class), eq("ok"))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(IdempotencyConflictException.class, () ->
+                idempotencyService.execute(1L, "key-1", "create", "payload", () -> "ok"));
+        verify(transactionManager).rollback(any());
+        verify(idempotencyKeyRepository, never()).release(anyLong(), any());
+    }
+
+    private IdempotencyKey stored(LocalDateTime inProgressUntil) {
+        return IdempotencyKey.builder()
+                .id(10L)
+                .userId(1L)
+                .idempotencyKey("key-1")
+                .fingerprint(IdempotencyService.fingerprint("create", "payload"))
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .inProgressUntil(inProgressUntil)
+                .build();
+    }
+}
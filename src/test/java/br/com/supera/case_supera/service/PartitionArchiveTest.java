@@ -0,0 +1,114 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.AccessHistoryDTO;
+import br.com.supera.case_supera.entity.HistoryReason;
+import br.com.supera.case_supera.entity.RequestStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionArchiveTest {
+
+    @TempDir
+    Path archiveDir;
+
+    @Test
+    void testFindHistoryReadsArchivedMonthsOfRequest() throws IOException {
+        // Arrange: duas partições arquivadas; só as linhas da solicitação 7 interessam
+        PartitionArchive archive = new PartitionArchive(new ObjectMapper(), archiveDir);
+        YearMonth january = YearMonth.of(2022, 1);
+        YearMonth february = YearMonth.of(2022, 2);
+        write(archive.file("access_history", january),
+                "{\"id\":1,\"request_id\":7,\"previous_status\":null,\"new_status\":\"ATIVO\","
+                        + "\"change_date\":\"2022-01-10T09:00\",\"reason_code\":2,\"reason_params\":null,\"reason\":null}",
+                "{\"id\":2,\"request_id\":8,\"previous_status\":null,\"new_status\":\"NEGADO\","
+                        + "\"change_date\":\"2022-01-11T09:00\",\"reason_code\":3,\"reason_params\":\"1\",\"reason\":null}");
+        write(archive.file("access_history", february),
+                "{\"id\":3,\"request_id\":7,\"previous_status\":\"ATIVO\",\"new_status\":\"CANCELADO\","
+                        + "\"change_date\":\"2022-02-01T10:00\",\"reason_code\":6,\"reason_params\":null,"
+                        + "\"reason\":\"Acesso não é mais necessário\"}",
+                "{\"id\":4,\"request_id\":7,\"previous_status\":\"PENDENTE\",\"new_status\":\"NEGADO\","
+                        + "\"change_date\":\"2022-02-02T10:00\",\"reason_code\":7,\"reason_params\":\"3\",\"reason\":null}");
+
+        // Act
+        List<AccessHistoryDTO> history = archive.findHistory(7L, LocalDateTime.of(2022, 1, 10, 8, 0),
+                Map.of(3L, "Gestão Financeira")::get);
+
+        // Assert
+        assertEquals(3, history.size());
+        assertNull(history.get(0).getPreviousStatus());
+        assertEquals(HistoryReason.AUTO_APPROVED, history.get(0).getReasonCode());
+        assertEquals("Solicitação aprovada automaticamente", history.get(0).getReason());
+        assertEquals(RequestStatus.CANCELADO, history.get(1).getNewStatus());
+        assertEquals("Acesso não é mais necessário", history.get(1).getReason());
+        assertEquals("Você já possui acesso ativo ao módulo: Gestão Financeira", history.get(2).getReason());
+        assertTrue(archive.findHistory(7L, LocalDateTime.of(2022, 3, 1, 0, 0), id -> null).isEmpty());
+    }
+
+    @Test
+    void testWriteGroupsHistoryByRequestWithIndex() throws IOException {
+        // Arrange: partição com entradas de duas solicitações intercaladas
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:partition-archive"));
+        jdbcTemplate.execute("CREATE TABLE access_history_p202201 (id BIGINT PRIMARY KEY, request_id BIGINT, "
+                + "previous_status VARCHAR(20), new_status VARCHAR(20), change_date TIMESTAMP, "
+                + "reason_code SMALLINT, reason_params VARCHAR(255), reason VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO access_history_p202201 VALUES "
+                + "(1, 8, NULL, 'ATIVO', TIMESTAMP '2022-01-10 09:00:00', 2, NULL, NULL), "
+                + "(2, 7, NULL, 'ATIVO', TIMESTAMP '2022-01-11 09:00:00', 2, NULL, NULL), "
+                + "(3, 8, 'ATIVO', 'CANCELADO', TIMESTAMP '2022-01-12 09:00:00', 6, NULL, 'Acesso não é mais necessário')");
+        PartitionArchive archive = new PartitionArchive(new ObjectMapper(), archiveDir);
+        YearMonth january = YearMonth.of(2022, 1);
+
+        // Act
+        Path file = archive.write(jdbcTemplate, "access_history", january);
+        jdbcTemplate.execute("DROP TABLE access_history_p202201");
+
+        // Assert: uma entrada de índice por solicitação e leitura direta pelo índice
+        assertEquals(2L * (Long.BYTES + Long.BYTES + Integer.BYTES), Files.size(archive.index("access_history", january)));
+        List<AccessHistoryDTO> history = archive.findHistory(8L, LocalDateTime.of(2022, 1, 10, 8, 0), id -> null);
+        assertEquals(List.of(RequestStatus.ATIVO, RequestStatus.CANCELADO),
+                history.stream().map(AccessHistoryDTO::getNewStatus).toList());
+        assertEquals("Acesso não é mais necessário", history.get(1).getReason());
+        assertEquals(1, archive.findHistory(7L, LocalDateTime.of(2022, 1, 11, 8, 0), id -> null).size());
+        assertTrue(archive.findHistory(9L, LocalDateTime.of(2022, 1, 11, 8, 0), id -> null).isEmpty());
+
+        // O arquivo inteiro continua sendo um gzip válido, com todas as linhas
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            assertEquals(3, new String(input.readAllBytes(), StandardCharsets.UTF_8).lines().count());
+        }
+    }
+
+    @Test
+    void testMentionsMatchesWholeRequestIdOnly() {
+        String needle = "\"request_id\":7";
+
+        assertTrue(PartitionArchive.mentions("{\"id\":1,\"request_id\":7,\"new_status\":\"ATIVO\"}", needle));
+        assertTrue(PartitionArchive.mentions("{\"id\":1,\"new_status\":\"ATIVO\",\"request_id\":7}", needle));
+        assertFalse(PartitionArchive.mentions("{\"id\":1,\"request_id\":70,\"new_status\":\"ATIVO\"}", needle));
+        assertFalse(PartitionArchive.mentions("{\"id\":7,\"request_id\":8}", needle));
+    }
+
+    private void write(Path file, String... lines) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+            output.write((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import br.com.supera.case_supera.entity.ChangeEventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestListCacheTest {
+
+    private RequestListCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RequestListCache(new ObjectMapper(), new SimpleMeterRegistry(), true, 10, 100, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+    }
+
+    private String firstPage(Long userId) {
+        return new String(cache.getFirstPage(userId, () -> Map.of("loads", loads.incrementAndGet())),
+                StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testOnlyDefaultFirstPageIsCacheable() {
+        assertTrue(cache.isCacheable(false, 0, 10));
+        assertFalse(cache.isCacheable(true, 0, 10));
+        assertFalse(cache.isCacheable(false, 1, 10));
+        assertFalse(cache.isCacheable(false, 0, 20));
+    }
+
+    @Test
+    void testFirstPageIsServedFromCacheUntilEvicted() {
+        assertEquals("{\"loads\":1}", firstPage(1L));
+        assertEquals("{\"loads\":1}", firstPage(1L));
+
+        cache.evictAfterCommit(List.of(1L));
+        assertEquals("{\"loads\":2}", firstPage(1L));
+
+        // Evento do feed vindo de qualquer nó
+        cache.onChange(ChangeEventDTO.builder().type(ChangeEventType.ACCESS_EXPIRED).userId(1L).build());
+        assertEquals("{\"loads\":3}", firstPage(1L));
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> cache.getFirstPage(1L, () -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Map.of("loads", loads.incrementAndGet());
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // Chega enquanto a primeira carga está em andamento: espera por ela
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> firstPage(1L));
+        release.countDown();
+
+        assertEquals("{\"loads\":1}", new String(first.get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+        assertEquals("{\"loads\":1}", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.getFirstPage(1L, () -> {
+            throw new IllegalStateException("banco indisponível");
+        }));
+
+        assertEquals("{\"loads\":1}", firstPage(1L));
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.repository.AccessRequestRepository;
+import br.com.supera.case_supera.repository.RequestSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestSummaryBackfillTest {
+
+    @Mock
+    private AccessRequestRepository accessRequestRepository;
+
+    @Mock
+    private RequestSummaryRepository requestSummaryRepository;
+
+    @Mock
+    private RequestSummaryService requestSummaryService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private RequestSummaryBackfill requestSummaryBackfill;
+
+    @Test
+    void testBackfillRebuildsWhenSummariesAreMissing() {
+        // Arrange: deploy sobre um banco com solicitações e resumo vazio
+        when(accessRequestRepository.count()).thenReturn(1200L);
+        when(requestSummaryRepository.count()).thenReturn(0L);
+
+        // Act
+        boolean rebuilt = requestSummaryBackfill.backfillIfMissing();
+
+        // Assert
+        assertTrue(rebuilt);
+        verify(requestSummaryService, times(1)).rebuild();
+    }
+
+    @Test
+    void testBackfillSkipsWhenSummaryIsComplete() {
+        // Arrange: outro nó já reconstruiu enquanto este esperava o lock
+        when(accessRequestRepository.count()).thenReturn(1200L);
+        when(requestSummaryRepository.count()).thenReturn(1200L);
+
+        // Act
+        boolean rebuilt = requestSummaryBackfill.backfillIfMissing();
+
+        // Assert
+        assertFalse(rebuilt);
+        verify(requestSummaryService, never()).rebuild();
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.AccessRequestResponseDTO;
+import br.com.supera.case_supera.entity.AccessHistory;
+import br.com.supera.case_supera.entity.AccessRequest;
+import br.com.supera.case_supera.entity.DenialRule;
+import br.com.supera.case_supera.entity.Department;
+import br.com.supera.case_supera.entity.HistoryReason;
+import br.com.supera.case_supera.entity.Module;
+import br.com.supera.case_supera.entity.RequestStatus;
+import br.com.supera.case_supera.entity.RequestSummary;
+import br.com.supera.case_supera.entity.User;
+import br.com.supera.case_supera.repository.AccessHistoryRepository;
+import br.com.supera.case_supera.repository.AccessRequestRepository;
+import br.com.supera.case_supera.repository.RequestSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestSummaryServiceTest {
+
+    @Mock
+    private RequestSummaryRepository requestSummaryRepository;
+
+    @Mock
+    private AccessRequestRepository accessRequestRepository;
+
+    @Mock
+    private AccessHistoryRepository accessHistoryRepository;
+
+    @Mock
+    private RequestListCache requestListCache;
+
+    @Mock
+    private ModuleService moduleService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RequestSummaryService requestSummaryService;
+
+    @Test
+    void testRecordDenormalizesModulesAndLastHistory() {
+        // Arrange
+        User user = User.builder().id(1L).department(Department.FINANCEIRO).build();
+        LocalDateTime requestDate = LocalDateTime.of(2024, 1, 10, 9, 0);
+        AccessRequest request = AccessRequest.builder()
+                .id(5L)
+                .protocol("SOL-20240110-0005")
+                .user(user)
+                .requestedModules(Set.of(Module.builder().id(2L).name("Relatórios Gerenciais").build(),
+                        Module.builder().id(1L).name("Gestão Financeira").build()))
+                .justification("Preciso destes módulos para o fechamento mensal")
+                .urgent(true)
+                .status(RequestStatus.NEGADO)
+                .requestDate(requestDate)
+                .denialReason(DenialRule.INCOMPATIBLE_MODULE.getMessage())
+                .build();
+        AccessHistory history = AccessHistory.builder()
+                .accessRequest(request)
+                .previousStatus(RequestStatus.ATIVO)
+                .newStatus(RequestStatus.NEGADO)
+                .changeDate(requestDate)
+                .reasonCode(HistoryReason.DENIED)
+                .reasonParams(String.valueOf(DenialRule.INCOMPATIBLE_MODULE.getCode()))
+                .build();
+
+        // Act
+        requestSummaryService.record(request, history);
+
+        // Assert
+        ArgumentCaptor<RequestSummary> captor = ArgumentCaptor.forClass(RequestSummary.class);
+        verify(requestSummaryRepository).save(captor.capture());
+        RequestSummary summary = captor.getValue();
+        assertEquals(5L, summary.getRequestId());
+        assertEquals(1L, summary.getUserId());
+        assertEquals("Gestão Financeira;Relatórios Gerenciais", summary.getModuleNames());
+        assertEquals(RequestStatus.NEGADO, summary.getStatus());
+        assertEquals(RequestStatus.NEGADO, summary.getLastNewStatus());
+        assertEquals(HistoryReason.DENIED, summary.getLastReasonCode());
+        assertEquals(String.valueOf(DenialRule.INCOMPATIBLE_MODULE.getCode()), summary.getLastReasonParams());
+        verify(requestListCache).evictAfterCommit(eq(List.of(1L)));
+    }
+
+    @Test
+    void testFindUserRequestsMapsSummaryWithLastHistory() {
+        // Arrange
+        LocalDateTime requestDate = LocalDateTime.of(2024, 1, 10, 9, 0);
+        RequestSummary summary = RequestSummary.builder()
+                .requestId(5L)
+                .userId(1L)
+                .protocol("SOL-20240110-0005")
+                .moduleNames("Gestão Financeira;Relatórios Gerenciais")
+                .justification("Preciso destes módulos para o fechamento mensal")
+                .urgent(false)
+                .status(RequestStatus.ATIVO)
+                .requestDate(requestDate)
+                .expirationDate(requestDate.plusDays(180))
+                .lastPreviousStatus(RequestStatus.ATIVO)
+                .lastNewStatus(RequestStatus.ATIVO)
+                .lastChangeDate(requestDate)
+                .lastReasonCode(HistoryReason.AUTO_APPROVED)
+                .build();
+        PageRequest pageable = PageRequest.of(0, 10);
+        PageRequest ordered = PageRequest.of(0, 10, RequestSummaryRepository.LISTING_ORDER);
+        when(requestSummaryRepository.findAll(ArgumentMatchers.<Specification<RequestSummary>>any(), eq(ordered)))
+                .thenReturn(new PageImpl<>(List.of(summary), ordered, 1));
+
+        // Act
+        Page<AccessRequestResponseDTO> result = requestSummaryService.findUserRequests(1L, " Financeira ", null, null,
+                null, null, pageable);
+
+        // Assert
+        AccessRequestResponseDTO dto = result.getContent().get(0);
+        assertEquals(5L, dto.getId());
+        assertEquals(List.of("Gestão Financeira", "Relatórios Gerenciais"), dto.getRequestedModules());
+        assertEquals(1, dto.getHistory().size());
+        assertEquals(HistoryReason.AUTO_APPROVED, dto.getHistory().get(0).getReasonCode());
+        assertEquals("Solicitação aprovada automaticamente", dto.getHistory().get(0).getReason());
+        verifyNoInteractions(accessRequestRepository, accessHistoryRepository);
+    }
+
+    @Test
+    void testToDTORendersModuleNameFromCatalog() {
+        // Arrange: a última entrada guarda só o id do módulo
+        RequestSummary summary = RequestSummary.builder()
+                .requestId(5L)
+                .userId(1L)
+                .protocol("SOL-20240110-0005")
+                .moduleNames("Gestão Financeira")
+                .status(RequestStatus.NEGADO)
+                .lastPreviousStatus(RequestStatus.PENDENTE)
+                .lastNewStatus(RequestStatus.NEGADO)
+                .lastReasonCode(HistoryReason.MODULE_ALREADY_ACTIVE)
+                .lastReasonParams("3")
+                .build();
+        when(moduleService.getModuleCatalog()).thenReturn(Map.of(3L,
+                Module.builder().id(3L).name("Gestão Financeira").build()));
+
+        // Act
+        AccessRequestResponseDTO dto = requestSummaryService.toDTO(summary);
+
+        // Assert
+        assertEquals("Você já possui acesso ativo ao módulo: Gestão Financeira", dto.getHistory().get(0).getReason());
+    }
+}
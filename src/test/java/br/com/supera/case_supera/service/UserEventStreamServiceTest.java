@@ -0,0 +1,206 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.ChangeEventDTO;
+import br.com.supera.case_supera.entity.ChangeEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserEventStreamServiceTest {
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserEventStreamService service;
+    private RecordingEmitter emitter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new UserEventStreamService(changeFeedService, meterRegistry);
+        emitter = new RecordingEmitter();
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitter.releaseSends();
+        service.shutdown();
+    }
+
+    @Test
+    void testReplayThenLiveWithoutDuplicates() {
+        // Arrange: o poller publica 5 e 6 enquanto o reenvio lê o banco; 5 chega pelos dois caminhos
+        when(changeFeedService.getLatestSequence()).thenReturn(5L);
+        when(changeFeedService.getUserChanges(eq(1L), eq(2L), eq(5L), eq(500))).thenAnswer(invocation -> {
+            service.publish(event(5L, 1L));
+            service.publish(event(6L, 1L));
+            service.publish(event(7L, 2L));
+            return List.of(event(3L, 1L), event(5L, 1L));
+        });
+
+        // Act
+        service.subscribe(1L, 2L, emitter);
+
+        // Assert
+        awaitSent(3);
+        assertEquals(List.of(3L, 5L, 6L), emitter.ids());
+    }
+
+    @Test
+    void testEventPublishedBeforeSubscribeIsReplayed() {
+        // Arrange: evento 4 publicado pelo poller antes do registro, com o lote ainda em andamento
+        service.publish(event(4L, 1L));
+        when(changeFeedService.getLatestSequence()).thenReturn(4L);
+        when(changeFeedService.getUserChanges(eq(1L), eq(3L), eq(4L), eq(500))).thenReturn(List.of(event(4L, 1L)));
+
+        // Act
+        service.subscribe(1L, 3L, emitter);
+
+        // Assert: o limite do reenvio é a maior sequência do banco, lida depois do registro
+        awaitSent(1);
+        assertEquals(List.of(4L), emitter.ids());
+    }
+
+    @Test
+    void testReplayLimitSendsResyncAndSkipsCoveredEvents() {
+        // Arrange: mais eventos perdidos que o limite de reenvio
+        List<ChangeEventDTO> missed = LongStream.rangeClosed(1, 500).mapToObj(sequence -> event(sequence, 1L)).toList();
+        when(changeFeedService.getLatestSequence()).thenReturn(1000L);
+        when(changeFeedService.getUserChanges(eq(1L), eq(0L), eq(1000L), eq(500))).thenReturn(missed);
+
+        // Act
+        service.subscribe(1L, 0L, emitter);
+        service.publish(event(700L, 1L));
+        service.publish(event(1001L, 1L));
+
+        // Assert: 700 está coberto pelo RESYNC; só o que veio depois do limite é entregue
+        awaitSent(501);
+        assertTrue(emitter.names().contains("RESYNC"));
+        List<Long> ids = emitter.ids();
+        assertEquals(501, ids.size());
+        assertEquals(1001L, ids.get(500));
+        assertFalse(ids.contains(700L));
+    }
+
+    @Test
+    void testFullQueueClosesConnection() throws InterruptedException {
+        // Arrange: cliente lento, preso no envio do primeiro evento
+        service.subscribe(1L, null, emitter);
+        emitter.blockSends();
+        service.publish(event(1L, 1L));
+        assertTrue(emitter.sendBlocked.await(5, TimeUnit.SECONDS));
+
+        // Act: a fila de 100 enche e o evento seguinte não cabe
+        for (long sequence = 2; sequence <= 101; sequence++) {
+            service.publish(event(sequence, 1L));
+        }
+        assertFalse(emitter.completed);
+        service.publish(event(102L, 1L));
+
+        // Assert
+        assertTrue(emitter.completed);
+        assertEquals(1.0, meterRegistry.get("access_requests.stream.overflows").counter().count());
+        verify(changeFeedService, never()).getLatestSequence();
+    }
+
+    private void awaitSent(int events) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.ids().size() < events && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(events, emitter.ids().size());
+    }
+
+    private ChangeEventDTO event(long sequence, Long userId) {
+        return ChangeEventDTO.builder()
+                .sequence(sequence)
+                .type(ChangeEventType.ACCESS_GRANTED)
+                .userId(userId)
+                .moduleId(1L)
+                .build();
+    }
+
+    /**
+     * Guarda o texto de cada envio em vez de escrever na resposta.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+        private static final Pattern NAME = Pattern.compile("^event:(\\w+)$", Pattern.MULTILINE);
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sendBlocked = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blocking;
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String text = builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(String.class::isInstance)
+                    .map(String.class::cast)
+                    .collect(Collectors.joining());
+            if (blocking && ID.matcher(text).find()) {
+                sendBlocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(text);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        void blockSends() {
+            blocking = true;
+        }
+
+        void releaseSends() {
+            release.countDown();
+        }
+
+        List<Long> ids() {
+            return sent.stream()
+                    .map(ID::matcher)
+                    .filter(Matcher::find)
+                    .map(matcher -> Long.valueOf(matcher.group(1)))
+                    .toList();
+        }
+
+        List<String> names() {
+            return sent.stream()
+                    .map(NAME::matcher)
+                    .filter(Matcher::find)
+                    .map(matcher -> matcher.group(1))
+                    .toList();
+        }
+    }
+}
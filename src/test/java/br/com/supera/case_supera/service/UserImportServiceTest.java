@@ -0,0 +1,122 @@
+package br.com.supera.case_supera.service;
+
+import br.com.supera.case_supera.dto.UserImportResultDTO;
+import br.com.supera.case_supera.exception.BusinessException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(jdbcTemplate, passwordEncoder, new ObjectMapper(), transactionManager, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportCsv() {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(passwordEncoder.encode(eq("senha123"))).thenReturn("hash-senha123");
+        String csv = "email,name,department,password\n" +
+                "Novo@Supera.com,\"Silva, Ana\",financeiro,senha123\n" +
+                "\n" +
+                "invalido,Sem Email,TI,senha123\n" +
+                "rh2@supera.com,Pedro,MARKETING,senha123\n" +
+                "ti2@supera.com,Bruno,TI,$2a$10$jaCriptografada\n";
+
+        // Act
+        UserImportResultDTO result = userImportService.importUsers(input(csv), UserImportService.FORMAT_CSV);
+
+        // Assert
+        assertEquals(4, result.getProcessed());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(2, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("Linha 4"));
+        assertTrue(result.getErrors().get(1).contains("departamento inválido"));
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("MERGE INTO users"), captor.capture());
+        List<Object[]> rows = captor.getValue();
+        assertArrayEquals(new Object[]{"novo@supera.com", "hash-senha123", "Silva, Ana", "FINANCEIRO"}, rows.get(0));
+        assertEquals("$2a$10$jaCriptografada", rows.get(1)[1]);
+        verify(passwordEncoder, times(1)).encode(eq("senha123"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportNdjsonInBatches() {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(passwordEncoder.encode(eq("senha123"))).thenReturn("hash");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 1001; i++) {
+            ndjson.append("{\"email\":\"user").append(i).append("@supera.com\",\"name\":\"Usuário ")
+                    .append(i).append("\",\"department\":\"OPERACOES\",\"password\":\"senha123\"}\n");
+        }
+        ndjson.append("{nao e json}\n");
+
+        // Act
+        UserImportResultDTO result = userImportService.importUsers(input(ndjson.toString()), UserImportService.FORMAT_NDJSON);
+
+        // Assert
+        assertEquals(1002, result.getProcessed());
+        assertEquals(1001, result.getImported());
+        assertEquals(1, result.getFailed());
+        // Lotes de 500: 500 + 500 + 1
+        verify(jdbcTemplate, times(3)).batchUpdate(startsWith("INSERT INTO users"), anyList());
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    void testImportCsvInvalidHeader() {
+        assertThrows(BusinessException.class, () ->
+                userImportService.importUsers(input("nome;email\n"), UserImportService.FORMAT_CSV));
+    }
+
+    @Test
+    void testSplitCsvQuotedFields() {
+        assertEquals(List.of("a", "b, \"c\"", ""), UserImportService.splitCsv("a,\"b, \"\"c\"\"\","));
+    }
+}